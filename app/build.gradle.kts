@@ -1,3 +1,7 @@
+import java.awt.image.BufferedImage
+import java.io.DataOutputStream
+import javax.imageio.ImageIO
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -34,6 +38,7 @@ android {
 
 dependencies {
 
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -43,4 +48,89 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-    }
\ No newline at end of file
+    }
+
+/**
+ * Packs the game sprites into one atlas PNG and a region table, so the game
+ * decodes a single texture at start and draws sprites as sub-rectangles of it.
+ * Sprites are placed tallest first on shelves, with transparent padding so
+ * filtered draws never sample a neighbour. The table layout is read by
+ * AtlasTable in core, the two must change together.
+ */
+abstract class PackSpriteAtlas : DefaultTask() {
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val sprites: ConfigurableFileCollection
+
+    @get:Input
+    abstract val maxWidth: Property<Int>
+
+    @get:Input
+    abstract val padding: Property<Int>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun pack() {
+        val images = sprites.files.sortedBy { it.name }
+            .map { it.nameWithoutExtension to ImageIO.read(it) }
+            .sortedByDescending { it.second.height }
+        val pad = padding.get()
+        val regions = ArrayList<IntArray>()
+        var x = pad
+        var y = pad
+        var shelfHeight = 0
+        var width = 0
+        for ((name, image) in images) {
+            if (x + image.width + pad > maxWidth.get()) {
+                x = pad
+                y += shelfHeight + pad
+                shelfHeight = 0
+            }
+            require(x + image.width + pad <= maxWidth.get()) { "$name is wider than the atlas" }
+            regions.add(intArrayOf(x, y, image.width, image.height))
+            x += image.width + pad
+            shelfHeight = maxOf(shelfHeight, image.height)
+            width = maxOf(width, x)
+        }
+        val height = y + shelfHeight + pad
+
+        val atlas = BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+        val graphics = atlas.createGraphics()
+        images.forEachIndexed { i, (_, image) -> graphics.drawImage(image, regions[i][0], regions[i][1], null) }
+        graphics.dispose()
+
+        val dir = outputDir.get().asFile
+        dir.deleteRecursively()
+        dir.mkdirs()
+        ImageIO.write(atlas, "png", File(dir, "sprite_atlas.png"))
+        DataOutputStream(File(dir, "sprite_atlas.bin").outputStream().buffered()).use { out ->
+            out.writeInt(0x544F5341)
+            out.writeByte(1)
+            out.writeShort(width)
+            out.writeShort(height)
+            out.writeShort(images.size)
+            images.forEachIndexed { i, (name, _) ->
+                out.writeUTF(name)
+                regions[i].forEach { out.writeShort(it) }
+            }
+        }
+    }
+}
+
+// Sprites drawn on the game canvas. Drawables of layouts stay separate resources
+val packSpriteAtlas = tasks.register<PackSpriteAtlas>("packSpriteAtlas") {
+    val drawables = file("src/main/res/drawable")
+    sprites.from(listOf("cart_hay", "cart_nohay", "coin", "chicken", "play", "pause")
+        .map { File(drawables, "$it.png") })
+    maxWidth.set(1024)
+    padding.set(2)
+    outputDir.set(layout.buildDirectory.dir("generated/spriteAtlas"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(packSpriteAtlas, PackSpriteAtlas::outputDir)
+    }
+}
@@ -5,10 +5,16 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Paint;
 
 import androidx.test.platform.app.InstrumentationRegistry;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.example.theotherside.core.AtlasTable;
+import com.example.theotherside.core.ManualClock;
+import com.example.theotherside.core.Rng;
+import com.example.theotherside.core.WorldSnapshot;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -159,7 +165,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinCreation() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin sampleCoin = new Coin(context, 500f, 20f, 5, 2);
+        Coin sampleCoin = new Coin(context, 500f, 20f, 5, 2, Rng.seeded(1));
 
         assertNotNull(sampleCoin);
     }
@@ -167,7 +173,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinDefaultConstructor() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin sampleCoin = new Coin(context, 500f, 800f, 5);
+        Coin sampleCoin = new Coin(context, 500f, 800f, 5, Rng.seeded(1));
 
         assertNotNull(sampleCoin);
         assertEquals(5f, sampleCoin.speed, 0.01);
@@ -176,7 +182,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinSpeed() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin sampleCoin = new Coin(context, 500f, 20f, 5, 2);
+        Coin sampleCoin = new Coin(context, 500f, 20f, 5, 2, Rng.seeded(1));
 
         assertEquals(5f, sampleCoin.speed, 0.01);
     }
@@ -185,7 +191,7 @@ public class ExampleInstrumentedTest {
     public void testCoinPosition() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
         // Make a coin in lane 3
-        Coin coin = new Coin(context, 500f, 800f, 5, 3);
+        Coin coin = new Coin(context, 500f, 800f, 5, 3, Rng.seeded(1));
 
         // Check that it's somewhere in lane 3
         // Lane width should be 100 (500/5)
@@ -197,7 +203,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinStartsAbove() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin coin = new Coin(context, 500f, 800f, 5, 2);
+        Coin coin = new Coin(context, 500f, 800f, 5, 2, Rng.seeded(1));
 
         // Should start above screen
         assertTrue(coin.posY < 0);
@@ -206,7 +212,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinUpdate() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin coin = new Coin(context, 500f, 800f, 5, 2);
+        Coin coin = new Coin(context, 500f, 800f, 5, 2, Rng.seeded(1));
 
         float oldY = coin.posY;
         coin.update();
@@ -219,7 +225,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCoinIsOffScreen() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Coin coin = new Coin(context, 500f, 800f, 5, 2);
+        Coin coin = new Coin(context, 500f, 800f, 5, 2, Rng.seeded(1));
 
         // Make it go off screen
         coin.posY = 850f;
@@ -243,7 +249,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCartCreation() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart sampleCart = new Cart(context, 500f, 20f, 5, 0, 2);
+        Cart sampleCart = new Cart(context, 500f, 20f, 5, 0, 2, Rng.seeded(1));
 
         assertNotNull(sampleCart);
     }
@@ -251,7 +257,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCartSpeed() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart sampleCart = new Cart(context, 500f, 20f, 5, 0, 2);
+        Cart sampleCart = new Cart(context, 500f, 20f, 5, 0, 2, Rng.seeded(1));
 
         // Check that speed is close to fixed speed of 8
         assertTrue(sampleCart.speed >= 6.5f); // FIXED_SPEED - 1.5
@@ -261,7 +267,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testDefaultConstructor() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart cart = new Cart(context, 500f, 800f, 5, 1);
+        Cart cart = new Cart(context, 500f, 800f, 5, 1, Rng.seeded(1));
 
         // Just check it creates something
         assertNotNull(cart);
@@ -270,7 +276,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCartPosition() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart cart = new Cart(context, 500f, 800f, 5, 0, 3);
+        Cart cart = new Cart(context, 500f, 800f, 5, 0, 3, Rng.seeded(1));
 
         // Check that it's somewhere in lane 3
         // Lane width should be 100 (500/5)
@@ -282,7 +288,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testCartStartsAbove() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2);
+        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2, Rng.seeded(1));
 
         // Should start above screen
         assertTrue(cart.posY < 0);
@@ -291,7 +297,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testUpdate() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2);
+        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2, Rng.seeded(1));
 
         float oldY = cart.posY;
         float speed = cart.speed;
@@ -305,7 +311,7 @@ public class ExampleInstrumentedTest {
     @Test
     public void testOffScreen() {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
-        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2);
+        Cart cart = new Cart(context, 500f, 800f, 5, 0, 2, Rng.seeded(1));
 
         // Make it go off screen
         cart.posY = 850f;
@@ -325,10 +331,10 @@ public class ExampleInstrumentedTest {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
 
         // Create carts of different types
-        Cart cartTypeEven = new Cart(context, 500f, 800f, 5, 0, 2);
-        Cart cartTypeOdd = new Cart(context, 500f, 800f, 5, 1, 2);
-        Cart cartTypeEven2 = new Cart(context, 500f, 800f, 5, 2, 2);
-        Cart cartTypeOdd2 = new Cart(context, 500f, 800f, 5, 3, 2);
+        Cart cartTypeEven = new Cart(context, 500f, 800f, 5, 0, 2, Rng.seeded(1));
+        Cart cartTypeOdd = new Cart(context, 500f, 800f, 5, 1, 2, Rng.seeded(1));
+        Cart cartTypeEven2 = new Cart(context, 500f, 800f, 5, 2, 2, Rng.seeded(1));
+        Cart cartTypeOdd2 = new Cart(context, 500f, 800f, 5, 3, 2, Rng.seeded(1));
 
         // The method getCartResourceId is private, but we can indirectly check
         // if different cart types have different bitmaps by checking that
@@ -339,4 +345,258 @@ public class ExampleInstrumentedTest {
         assertNotNull(cartTypeOdd2);
     }
 
-}
\ No newline at end of file
+    //==============================================================================================
+    //         SpriteCache Tests
+    //==============================================================================================
+    @Test
+    public void testSpriteCacheReturnsSameBitmap() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SpriteCache sprites = SpriteCache.getInstance(context);
+
+        Bitmap first = sprites.get(R.drawable.coin);
+        Bitmap second = sprites.get(R.drawable.coin);
+
+        // The second lookup should not decode the sprite again
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testSpriteCacheCountsHitsAndMisses() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SpriteCache sprites = SpriteCache.getInstance(context);
+        sprites.clear();
+
+        sprites.get(R.drawable.cart_hay);
+        assertEquals(0, sprites.getHitCount());
+        assertEquals(1, sprites.getMissCount());
+
+        sprites.get(R.drawable.cart_hay);
+        assertEquals(1, sprites.getHitCount());
+        assertEquals(1, sprites.getMissCount());
+    }
+
+    @Test
+    public void testSpriteCacheScaledSize() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SpriteCache sprites = SpriteCache.getInstance(context);
+
+        Bitmap scaled = sprites.get(R.drawable.pause, 60, 60);
+        assertEquals(60, scaled.getWidth());
+        assertEquals(60, scaled.getHeight());
+        assertSame(scaled, sprites.get(R.drawable.pause, 60, 60));
+    }
+
+    @Test
+    public void testSpriteAtlasHoldsTheGameSprites() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SpriteCache sprites = SpriteCache.getInstance(context);
+        AtlasTable table = sprites.getAtlasTable();
+        Bitmap atlas = sprites.getAtlas();
+        assertEquals(table.getWidth(), atlas.getWidth());
+        assertEquals(table.getHeight(), atlas.getHeight());
+
+        int[] packed = {R.drawable.cart_hay, R.drawable.cart_nohay, R.drawable.coin,
+                R.drawable.chicken, R.drawable.play, R.drawable.pause};
+        for (int resId : packed) {
+            assertTrue(sprites.getAtlasRegion(resId) >= 0);
+        }
+        assertEquals(-1, sprites.getAtlasRegion(R.drawable.road));
+    }
+
+    @Test
+    public void testAtlasSpritesMatchDecodedSize() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SpriteCache sprites = SpriteCache.getInstance(context);
+        sprites.clear();
+
+        // Cut from the atlas at the size decodeResource() gives the drawable
+        Bitmap decoded = BitmapFactory.decodeResource(context.getResources(), R.drawable.chicken);
+        Bitmap cut = sprites.get(R.drawable.chicken);
+        assertEquals(decoded.getWidth(), cut.getWidth(), 1);
+        assertEquals(decoded.getHeight(), cut.getHeight(), 1);
+        assertEquals(1, sprites.getMissCount());
+    }
+
+    @Test
+    public void testCartsShareBitmap() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Cart cart1 = new Cart(context, 500f, 800f, 5, 0, 1, Rng.seeded(1));
+        Cart cart2 = new Cart(context, 500f, 800f, 5, 2, 3, Rng.seeded(1));
+
+        // Carts of the same sprite type should share a single decoded bitmap
+        assertSame(cart1.bitmap, cart2.bitmap);
+    }
+
+    //==============================================================================================
+    //         Reset Tests
+    //==============================================================================================
+    @Test
+    public void testCartResetsInPlace() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Cart cart = new Cart(context, 500f, 800f, 5, 0, 1, Rng.seeded(1));
+        cart.posY = 900f;
+        cart.isAlive = false;
+
+        // Reset into lane 3, it should be alive and back above the screen
+        cart.reset(0, 3);
+        assertTrue(cart.isAlive);
+        assertTrue(cart.posY < 0);
+        assertTrue(cart.posX >= 295);
+        assertEquals((int) cart.posY, cart.hitBox.top);
+    }
+
+    //==============================================================================================
+    //         HUD Tests
+    //==============================================================================================
+    @Test
+    public void testGlyphStripNumberWidth() {
+        Paint paint = new Paint();
+        paint.setTextSize(50);
+        GlyphStrip glyphs = new GlyphStrip(paint, paint, 2, "SCORE: ");
+
+        // Composited numbers should line up with the same text drawn as a string
+        assertEquals(paint.measureText("1234"), glyphs.getNumberWidth(1234), 1f);
+        assertEquals(paint.measureText("0"), glyphs.getNumberWidth(0), 0.01f);
+        assertEquals(paint.measureText("SCORE: "), glyphs.getLabelWidth(0), 0.01f);
+
+        Canvas canvas = new Canvas(Bitmap.createBitmap(400, 100, Bitmap.Config.ARGB_8888));
+        assertEquals(10 + glyphs.getNumberWidth(907), glyphs.drawNumber(canvas, 907, 10, 60), 0.01f);
+    }
+
+    @Test
+    public void testHudPanelRedrawnOnlyOnChange() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        HUD hud = new HUD(context, 1080, 1920, new ManualClock());
+        Canvas canvas = new Canvas(Bitmap.createBitmap(1080, 400, Bitmap.Config.ARGB_8888));
+        WorldSnapshot snapshot = new WorldSnapshot(8);
+
+        hud.draw(canvas, snapshot);
+        hud.draw(canvas, snapshot);
+        assertEquals(1, hud.getPanelRenderCount());
+
+        // A distance within the same score, nothing to redraw
+        snapshot.distanceTraveled = 40;
+        hud.draw(canvas, snapshot);
+        assertEquals(1, hud.getPanelRenderCount());
+
+        snapshot.distanceTraveled = 250;
+        hud.draw(canvas, snapshot);
+        assertEquals(2, hud.getPanelRenderCount());
+
+        snapshot.coinsCollected = 3;
+        hud.draw(canvas, snapshot);
+        assertEquals(3, hud.getPanelRenderCount());
+
+        snapshot.isPaused = true;
+        hud.draw(canvas, snapshot);
+        hud.draw(canvas, snapshot);
+        assertEquals(4, hud.getPanelRenderCount());
+    }
+
+    @Test
+    public void testHudCountdownRunsOnGameClock() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ManualClock clock = new ManualClock();
+        HUD hud = new HUD(context, 1080, 1920, clock);
+
+        hud.startCountdown();
+        // Wall time passing does not move the countdown, only the game clock does
+        hud.updateCountdown();
+        assertEquals(3, hud.getCountdownValue());
+        assertEquals(1001, hud.getMillisToCountdownTick());
+
+        for (int second = 0; second < 4; second++) {
+            clock.advance(1_001_000_000L);
+            hud.updateCountdown();
+        }
+        assertFalse(hud.isCountingDown());
+    }
+
+    //==============================================================================================
+    //         Road Tests
+    //==============================================================================================
+    @Test
+    public void testRoadTileIsSmallAndWraps() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        RoadRenderer road = new RoadRenderer(context, 720, 1600);
+        // A tenth of a full-screen ARGB_8888 background
+        assertTrue(road.getByteCount() * 10 <= 720 * 1600 * 4);
+
+        Bitmap first = Bitmap.createBitmap(720, 1600, Bitmap.Config.ARGB_8888);
+        Bitmap wrapped = Bitmap.createBitmap(720, 1600, Bitmap.Config.ARGB_8888);
+        road.draw(new Canvas(first), 37);
+        road.draw(new Canvas(wrapped), 37 + 3 * road.getTileHeight());
+        assertTrue(first.sameAs(wrapped));
+
+        // Scrolling moves the road down
+        Bitmap scrolled = Bitmap.createBitmap(720, 1600, Bitmap.Config.ARGB_8888);
+        road.draw(new Canvas(scrolled), 37 + 10);
+        assertEquals(first.getPixel(100, 500), scrolled.getPixel(100, 510));
+    }
+
+    @Test
+    public void testRoadDecodesOpaqueAtScreenWidth() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        BitmapDecoder decoder = BitmapDecoder.getInstance(context);
+
+        // A quarter of the width: sampled by 4 while decoding, nothing left to scale
+        Bitmap band = decoder.decodeRows(R.drawable.road, 210, 364, 270, true);
+        assertEquals(270, band.getWidth());
+        assertEquals(91, band.getHeight());
+        assertEquals(Bitmap.Config.RGB_565, band.getConfig());
+    }
+
+    @Test
+    public void testBitmapDecoderDecodesAtTargetSize() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        BitmapDecoder decoder = BitmapDecoder.getInstance(context);
+
+        Bitmap icon = decoder.decodeResource(R.drawable.pause, 60, 60, false);
+        assertEquals(60, icon.getWidth());
+        assertEquals(60, icon.getHeight());
+        assertEquals(Bitmap.Config.ARGB_8888, icon.getConfig());
+        assertTrue(icon.isMutable());
+    }
+
+    @Test
+    public void testBitmapDecoderReusesReleasedBitmaps() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        BitmapDecoder decoder = BitmapDecoder.getInstance(context);
+
+        Bitmap first = decoder.decodeRows(R.drawable.road, 210, 364, 300, true);
+        decoder.release(first);
+        int reused = decoder.getReuseCount();
+        long allocated = decoder.getAllocatedBytes();
+
+        // The same size again decodes into the released bitmap's memory
+        Bitmap second = decoder.decodeRows(R.drawable.road, 210, 364, 300, true);
+        assertEquals(300, second.getWidth());
+        assertTrue(decoder.getReuseCount() > reused);
+        assertEquals(allocated, decoder.getAllocatedBytes());
+    }
+
+    //==============================================================================================
+    //         Overlay Tests
+    //==============================================================================================
+    @Test
+    public void testOverlayHitAreasFixed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        OverlayLayers overlays = new OverlayLayers(context, 1080, 1920);
+
+        // Hit areas are computed once, before any overlay is drawn
+        assertSame(overlays.getReloadButtonArea(), overlays.getReloadButtonArea());
+        assertTrue(overlays.getReloadButtonArea().right < overlays.getHomeButtonArea().left);
+        assertEquals(1920 / 2 + 150, overlays.getHomeButtonArea().top, 0.01f);
+    }
+
+    @Test
+    public void testPausedLayerDimsBand() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        OverlayLayers overlays = new OverlayLayers(context, 1080, 1920);
+        Bitmap screen = Bitmap.createBitmap(1080, 1920, Bitmap.Config.ARGB_8888);
+
+        overlays.drawPaused(new Canvas(screen));
+        assertEquals(Color.argb(200, 0, 0, 0), screen.getPixel(5, 1920 / 2 - 140));
+        assertEquals(0, screen.getPixel(5, 1920 / 2 - 160));
+    }
+}
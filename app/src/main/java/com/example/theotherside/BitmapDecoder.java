@@ -0,0 +1,305 @@
+/*
+ * This file contains the BitmapDecoder class which decodes game images straight
+ * to the size they are shown at. The image is sampled down by a power of two and
+ * scaled by a density ratio within one decode, so no full resolution copy is
+ * allocated first and then scaled with createScaledBitmap(). Opaque images are
+ * decoded as RGB_565, and bitmaps given back with release() are decoded into
+ * again through inBitmap instead of allocating new ones.
+ *
+ * The class manages:
+ * - Bounds-only decodes to learn the encoded size
+ * - Sampled and scaled decodes of whole images and of bands of rows
+ * - A small pool of released bitmaps reused as decode targets
+ * - Counters of decodes, reused bitmaps, allocated bytes and decode time
+ * - Singleton pattern to ensure a single instance
+ *
+ */
+
+package com.example.theotherside;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.example.theotherside.core.DecodeSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+/**
+ * Process-wide decoder of game images at their on-screen size. Bitmaps it
+ * returns belong to the caller, who may hand them back with release() once
+ * nothing draws them any more.
+ */
+public class BitmapDecoder {
+    private static BitmapDecoder instance;
+
+    // Released bitmaps kept for reuse, oldest first, at most this many bytes
+    private static final int MAX_POOL_BYTES = 4 * 1024 * 1024;
+
+    private final Resources resources;
+    private final ArrayList<Bitmap> pool = new ArrayList<>();
+    private final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private int poolBytes;
+
+    private int decodeCount;
+    private int reuseCount;
+    private long allocatedBytes;
+    private long decodeNanos;
+
+    /**
+     * Private constructor, holds on to the application resources only.
+     *
+     * @param context - Any context
+     */
+    private BitmapDecoder(Context context) {
+        this.resources = context.getApplicationContext().getResources();
+    }
+
+    /**
+     * Returns the singleton instance of BitmapDecoder.
+     *
+     * @param context - The application context
+     * @return The BitmapDecoder instance
+     */
+    public static synchronized BitmapDecoder getInstance(Context context) {
+        if (instance == null) {
+            instance = new BitmapDecoder(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Decodes a drawable at the given size. The encoded pixels are sampled and
+     * scaled to the width, the height follows the aspect ratio of the image and
+     * is only stretched to the requested height if that differs.
+     *
+     * @param resId - The drawable resource ID
+     * @param width - The width to show the image at
+     * @param height - The height to show the image at
+     * @param opaque - true if the image has no transparent pixels, to decode it as RGB_565
+     * @return A mutable bitmap of the given size
+     */
+    public synchronized Bitmap decodeResource(int resId, int width, int height, boolean opaque) {
+        long start = System.nanoTime();
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // The encoded size, without the density scaling of drawable resources
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new RuntimeException("did not load image " + resources.getResourceEntryName(resId));
+        }
+
+        DecodeSize size = DecodeSize.of(options.outWidth, options.outHeight, width, height);
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = size.getSampleSize();
+        options.inScaled = size.isScaled();
+        options.inDensity = size.getDensity();
+        options.inTargetDensity = size.getTargetDensity();
+        options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        options.inMutable = true;
+        Bitmap bitmap = decodeReusing(resId, options, size.getWidth(), size.getHeight());
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            // Another aspect ratio, stretch the already small decode
+            bitmap = scale(bitmap, width, height);
+        }
+        decodeNanos += System.nanoTime() - start;
+        return bitmap;
+    }
+
+    private Bitmap decodeReusing(int resId, BitmapFactory.Options options, int width, int height) {
+        options.inBitmap = take(width, height, options.inPreferredConfig, false);
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeResource(resources, resId, options);
+        } catch (IllegalArgumentException e) {
+            // The decoder could not use the pooled bitmap, decode into a new one
+            release(options.inBitmap);
+            options.inBitmap = null;
+            bitmap = BitmapFactory.decodeResource(resources, resId, options);
+        }
+        if (bitmap == null) {
+            throw new RuntimeException("did not decode image " + resources.getResourceEntryName(resId));
+        }
+        counted(bitmap, options.inBitmap);
+        // The density pair only sets the scale, the bitmap is drawn 1:1 like a decoded resource
+        bitmap.setDensity(resources.getDisplayMetrics().densityDpi);
+        return bitmap;
+    }
+
+    /**
+     * Decodes a band of full-width rows of an image, scaled to the given width.
+     * Only the band is read from the file, sampled down by a power of two
+     * where the image is at least twice as wide as the target.
+     *
+     * @param resId - The drawable resource ID, read as the raw encoded file
+     * @param top - The first row of the band
+     * @param rows - The number of rows in the band
+     * @param width - The width to show the band at
+     * @param opaque - true if the image has no transparent pixels, to decode it as RGB_565
+     * @return A mutable bitmap of the given width, its height scaled like the width
+     */
+    public synchronized Bitmap decodeRows(int resId, int top, int rows, int width, boolean opaque) {
+        long start = System.nanoTime();
+        Bitmap band;
+        int height;
+        // The raw resource is the encoded file itself, not scaled for the screen density
+        try (InputStream in = resources.openRawResource(resId)) {
+            BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(in, false);
+            try {
+                int sourceWidth = decoder.getWidth();
+                height = Math.max(1, Math.round(rows * (float) width / sourceWidth));
+                DecodeSize size = DecodeSize.of(sourceWidth, rows, width, height);
+
+                BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inSampleSize = size.getSampleSize();
+                options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+                options.inMutable = true;
+                // A region decoder keeps the size of its target, only an exact fit is reused
+                options.inBitmap = take(size.getSampledWidth(), size.getSampledHeight(),
+                        options.inPreferredConfig, true);
+                Rect region = new Rect(0, top, sourceWidth, top + rows);
+                try {
+                    band = decoder.decodeRegion(region, options);
+                } catch (IllegalArgumentException e) {
+                    release(options.inBitmap);
+                    options.inBitmap = null;
+                    band = decoder.decodeRegion(region, options);
+                }
+                if (band == null) {
+                    throw new RuntimeException("did not decode rows of " + resources.getResourceEntryName(resId));
+                }
+                counted(band, options.inBitmap);
+            } finally {
+                decoder.recycle();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("did not load " + resources.getResourceEntryName(resId), e);
+        }
+        Bitmap bitmap = band.getWidth() == width && band.getHeight() == height ? band : scale(band, width, height);
+        decodeNanos += System.nanoTime() - start;
+        return bitmap;
+    }
+
+    /**
+     * Draws a bitmap into one of the given size, taken from the pool if one
+     * fits, and releases the source for reuse.
+     */
+    private Bitmap scale(Bitmap source, int width, int height) {
+        Bitmap target = take(width, height, source.getConfig(), false);
+        if (target != null) {
+            target.reconfigure(width, height, source.getConfig());
+            target.eraseColor(0);
+            reuseCount++;
+        } else {
+            target = Bitmap.createBitmap(width, height, source.getConfig());
+            allocatedBytes += target.getAllocationByteCount();
+        }
+        target.setDensity(resources.getDisplayMetrics().densityDpi);
+        new Canvas(target).drawBitmap(source, null, new Rect(0, 0, width, height), scalePaint);
+        release(source);
+        return target;
+    }
+
+    private void counted(Bitmap bitmap, Bitmap reused) {
+        decodeCount++;
+        if (reused != null && bitmap == reused) {
+            reuseCount++;
+        } else {
+            allocatedBytes += bitmap.getAllocationByteCount();
+        }
+    }
+
+    /**
+     * Takes the smallest pooled bitmap that can hold an image of the given size.
+     *
+     * @param exact - true to only take a bitmap of exactly that size and config
+     * @return The bitmap, removed from the pool, or null if none fits
+     */
+    private Bitmap take(int width, int height, Bitmap.Config config, boolean exact) {
+        int needed = width * height * (config == Bitmap.Config.RGB_565 ? 2 : 4);
+        int best = -1;
+        for (int i = 0; i < pool.size(); i++) {
+            Bitmap candidate = pool.get(i);
+            boolean fits = exact
+                    ? candidate.getWidth() == width && candidate.getHeight() == height && candidate.getConfig() == config
+                    : candidate.getAllocationByteCount() >= needed;
+            if (fits && (best < 0 || candidate.getAllocationByteCount() < pool.get(best).getAllocationByteCount())) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        Bitmap bitmap = pool.remove(best);
+        poolBytes -= bitmap.getAllocationByteCount();
+        return bitmap;
+    }
+
+    /**
+     * Hands a bitmap back for later decodes to reuse. The caller must not draw
+     * it any more. Bitmaps that cannot be reused are ignored.
+     *
+     * @param bitmap - A bitmap returned by this decoder, or null
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()
+                || bitmap.getAllocationByteCount() > MAX_POOL_BYTES || pool.contains(bitmap)) {
+            return;
+        }
+        pool.add(bitmap);
+        poolBytes += bitmap.getAllocationByteCount();
+        while (poolBytes > MAX_POOL_BYTES) {
+            // Drop the oldest, the garbage collector frees it
+            poolBytes -= pool.remove(0).getAllocationByteCount();
+        }
+    }
+
+    /**
+     * Returns the number of decodes, the bands of decodeRows() included.
+     *
+     * @return The decode count
+     */
+    public synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * Returns the number of decodes and scales done into a pooled bitmap.
+     *
+     * @return The reuse count
+     */
+    public synchronized int getReuseCount() {
+        return reuseCount;
+    }
+
+    /**
+     * Returns the number of bytes allocated for new bitmaps, which reuse avoids.
+     *
+     * @return The allocated bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Writes the decode counters and the pool size, for dumpsys.
+     *
+     * @param writer - The writer to dump to
+     * @param prefix - The prefix of every line
+     */
+    public synchronized void dump(PrintWriter writer, String prefix) {
+        writer.print(prefix);
+        writer.println("bitmap decoder: decodes=" + decodeCount + " reused=" + reuseCount
+                + " allocated=" + allocatedBytes / 1024 + "KiB time=" + decodeNanos / 1_000_000 + "ms"
+                + " pooled=" + pool.size() + " (" + poolBytes / 1024 + "KiB)");
+    }
+}
@@ -14,9 +14,8 @@
 package com.example.theotherside;
 
 import android.content.Context;
-import android.graphics.BitmapFactory;
 
-import java.util.Random;
+import com.example.theotherside.core.Rng;
 
 /**
  * Represents a cart object in the game that moves down the screen in a specific lane.
@@ -24,7 +23,9 @@ import java.util.Random;
  * cart-specific behaviors and properties.
  */
 public class Cart extends GameObject {
-    private static Random random = new Random();
+    private final Rng random;
+    private final SpriteCache sprites;
+    private final float laneWidth;
 
     /**
      * Creates a new cart instance with specified parameters.
@@ -34,10 +35,33 @@ public class Cart extends GameObject {
      * @param screenHeight - The height of the game screen
      * @param laneCount - The number of lanes available for cart placement
      * @param cartType - The type of cart to create (determines sprite)
+     * @param lane - The lane to place the cart in
+     * @param random - The random source of the world the cart belongs to
      */
-    public Cart(Context context, float screenWidth, float screenHeight, int laneCount, int cartType, int lane) {
-        super(0, 0, BitmapFactory.decodeResource(context.getResources(), getCartResourceId(cartType)));
-        float laneWidth = screenWidth / laneCount;
+    public Cart(Context context, float screenWidth, float screenHeight, int laneCount, int cartType, int lane,
+                Rng random) {
+        super(0, 0, SpriteCache.getInstance(context).get(getCartResourceId(cartType)));
+        this.random = random;
+        this.sprites = SpriteCache.getInstance(context);
+        this.laneWidth = screenWidth / laneCount;
+
+        reset(cartType, lane);
+    }
+    public Cart(Context context, float screenWidth, float screenHeight, int laneCount, int cartType, Rng random) {
+        this(context, screenWidth, screenHeight, laneCount, cartType, random.nextInt(laneCount), random);
+    }
+
+
+    /**
+     * Places the cart at the top of the given lane with the sprite of its type.
+     * Called by the constructors to set the starting state.
+     *
+     * @param cartType - The type of cart (determines sprite)
+     * @param lane - The lane to place the cart in
+     */
+    public void reset(int cartType, int lane) {
+        setBitmap(sprites.get(getCartResourceId(cartType)));
+        isAlive = true;
 
         // Use the provided lane instead of a random one
         this.posX = lane * laneWidth + (laneWidth - width) / 2;
@@ -50,10 +74,6 @@ public class Cart extends GameObject {
 
         update();
     }
-    public Cart(Context context, float screenWidth, float screenHeight, int laneCount, int cartType) {
-        this(context, screenWidth, screenHeight, laneCount, cartType, random.nextInt(laneCount));
-    }
-
 
     /**
      * Determines which cart sprite to use based on the cart type.
@@ -63,7 +83,7 @@ public class Cart extends GameObject {
      * @param cartType - The type of cart to get the resource ID for
      * @return The resource ID for the specified cart type
      */
-    private static int getCartResourceId(int cartType) {
+    static int getCartResourceId(int cartType) {
         if (cartType % 2 == 0) {
             return R.drawable.cart_nohay;
         } else {
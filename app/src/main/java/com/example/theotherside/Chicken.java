@@ -15,7 +15,6 @@
 package com.example.theotherside;
 
 import android.content.Context;
-import android.graphics.BitmapFactory;
 
 /**
  * Represents the player-controlled chicken character in the game that moves
@@ -40,7 +39,7 @@ public class Chicken extends GameObject {
      * @param laneCount - The number of lanes available for movement
      */
     public Chicken(Context context, float screenWidth, float screenHeight, int laneCount) {
-        super(0, 0, BitmapFactory.decodeResource(context.getResources(), R.drawable.chicken));
+        super(0, 0, SpriteCache.getInstance(context).get(R.drawable.chicken));
 
         this.laneCount = laneCount;
         this.laneWidth = screenWidth / laneCount;
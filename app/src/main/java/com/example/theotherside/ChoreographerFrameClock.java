@@ -0,0 +1,64 @@
+/*
+ * This file contains the ChoreographerFrameClock class which delivers the vsyncs
+ * of the display to the game loop's FrameScheduler through Choreographer frame
+ * callbacks.
+ *
+ * The class manages:
+ * - Posting one frame callback per requested vsync
+ * - The vsync period from the refresh rate of the display
+ *
+ */
+
+package com.example.theotherside;
+
+import android.view.Choreographer;
+import android.view.Display;
+
+import com.example.theotherside.core.FrameClock;
+
+/**
+ * Frame clock backed by the Choreographer of the thread that created it. The
+ * callbacks run on that thread's looper and only store a timestamp, so the main
+ * thread can serve them while the game thread does the work.
+ */
+public class ChoreographerFrameClock implements FrameClock, Choreographer.FrameCallback {
+    private static final long DEFAULT_PERIOD_NANOS = 1_000_000_000L / 60;
+
+    private final Choreographer choreographer;
+    private final Display display;
+    private volatile Listener listener;
+
+    /**
+     * Creates a frame clock for the current looper thread.
+     *
+     * @param display - The display the game is shown on, for its refresh rate, or null
+     */
+    public ChoreographerFrameClock(Display display) {
+        this.choreographer = Choreographer.getInstance();
+        this.display = display;
+    }
+
+    @Override
+    public void requestVsync(Listener listener) {
+        this.listener = listener;
+        // Choreographer hands the request over to its own looper thread
+        choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        Listener current = listener;
+        if (current != null) {
+            current.onVsync(frameTimeNanos);
+        }
+    }
+
+    @Override
+    public long getVsyncPeriodNanos() {
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        if (refreshRate < 1) {
+            return DEFAULT_PERIOD_NANOS;
+        }
+        return (long) (1_000_000_000L / refreshRate);
+    }
+}
@@ -14,12 +14,12 @@
 package com.example.theotherside;
 
 import android.content.Context;
-import android.graphics.BitmapFactory;
 
-import java.util.Random;
+import com.example.theotherside.core.Rng;
 
 public class Coin extends GameObject {
-    private static Random random = new Random();
+    private final Rng random;
+    private final float laneWidth;
 
     /**
      * Creates a new coin instance with specified parameters.
@@ -28,10 +28,31 @@ public class Coin extends GameObject {
      * @param screenWidth - The width of the game screen
      * @param screenHeight - The height of the game screen
      * @param laneCount - The number of lanes available for coin placement
+     * @param lane - The lane to place the coin in
+     * @param random - The random source of the world the coin belongs to
      */
-    public Coin(Context context, float screenWidth, float screenHeight, int laneCount, int lane) {
-        super(0, 0, BitmapFactory.decodeResource(context.getResources(), R.drawable.coin));
-        float laneWidth = screenWidth / laneCount;
+    public Coin(Context context, float screenWidth, float screenHeight, int laneCount, int lane, Rng random) {
+        super(0, 0, SpriteCache.getInstance(context).get(R.drawable.coin));
+        this.random = random;
+        this.laneWidth = screenWidth / laneCount;
+
+        // Fixed speed
+        this.speed = 5;
+
+        reset(lane);
+    }
+    public Coin(Context context, float screenWidth, float screenHeight, int laneCount, Rng random) {
+        this(context, screenWidth, screenHeight, laneCount, random.nextInt(laneCount), random);
+    }
+
+    /**
+     * Places the coin at the top of the given lane.
+     * Called by the constructors to set the starting state.
+     *
+     * @param lane - The lane to place the coin in
+     */
+    public void reset(int lane) {
+        isAlive = true;
 
         // Use the provided lane instead of a random one
         this.posX = lane * laneWidth + (laneWidth - width) / 2;
@@ -42,14 +63,8 @@ public class Coin extends GameObject {
         // Start above screen with some random variation
         this.posY = -height - (random.nextFloat() * 50);
 
-        // Fixed speed
-        this.speed = 5;
-
         update();
     }
-    public Coin(Context context, float screenWidth, float screenHeight, int laneCount) {
-        this(context, screenWidth, screenHeight, laneCount, random.nextInt(laneCount));
-    }
 
     /**
      * Updates the coin's position by moving it down the screen at its fixed speed.
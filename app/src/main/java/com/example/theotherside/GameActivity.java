@@ -5,26 +5,51 @@
  *
  * The class manages:
  * - Game view initialization
- * - Screen dimension retrieval
+ * - Screen dimension retrieval and the render resolution setting
  * - Activity lifecycle events
  * - Game pause and resume functionality
+ * - Dumping input latency, the last run's recording and bitmap decode counters
+ *   through dumpsys
+ * - Replaying a recorded run passed in the launch intent
  *
  */
 
 package com.example.theotherside;
 
+import android.content.SharedPreferences;
 import android.graphics.Point;
 import android.os.Bundle;
+import android.util.Base64;
 import android.util.Log;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.theotherside.core.RenderResolution;
+import com.example.theotherside.core.SessionRecording;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+
 /**
  * Main activity class that hosts the game view and manages the game's lifecycle.
  * Extends AppCompatActivity to provide basic Android activity functionality while
  * adding game-specific initialization and lifecycle management.
  */
 public class GameActivity extends AppCompatActivity {
+    // Intent extra with a Base64 recording to replay, as printed by dumpsys:
+    // adb shell am start -n com.example.theotherside/.GameActivity --es replay <recording>
+    public static final String EXTRA_REPLAY = "replay";
+
+    // Settings in GamePrefs: the short side of the render buffer in pixels, 0 for
+    // the native resolution, and whether to render in 16-bit color
+    public static final String PREF_RENDER_SHORT_SIDE = "renderShortSide";
+    public static final String PREF_RENDER_LOW_COLOR = "renderLowColor";
+    private static final int DEFAULT_RENDER_SHORT_SIDE = 720;
 
     private SoundManager soundManager;
     private GameView gameView;
@@ -43,8 +68,13 @@ public class GameActivity extends AppCompatActivity {
         Point size = new Point();
         getWindowManager().getDefaultDisplay().getSize(size);
 
-        // Create game view with screen dimensions
-        gameView = new GameView(this, size.x, size.y);
+        // Create game view rendering at the configured resolution, 720p by default
+        SharedPreferences prefs = getSharedPreferences("GamePrefs", MODE_PRIVATE);
+        RenderResolution resolution = RenderResolution.ofShortSide(size.x, size.y,
+                prefs.getInt(PREF_RENDER_SHORT_SIDE, DEFAULT_RENDER_SHORT_SIDE));
+        // SurfaceView's default format, kept unless 32-bit color is asked for
+        boolean lowColor = prefs.getBoolean(PREF_RENDER_LOW_COLOR, true);
+        gameView = new GameView(this, resolution, lowColor, readReplay(getIntent().getStringExtra(EXTRA_REPLAY)));
         setContentView(gameView);
 
         // Initialise sound manager
@@ -54,6 +84,25 @@ public class GameActivity extends AppCompatActivity {
         Log.d("NAV_DEBUG", "GameActivity created");
     }
 
+    /**
+     * Decodes a recording passed in the launch intent.
+     *
+     * @param encoded - The Base64 recording, or null
+     * @return The recording, or null if there is none or it cannot be read
+     */
+    private static SessionRecording readReplay(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.decode(encoded, Base64.NO_WRAP | Base64.URL_SAFE);
+            return SessionRecording.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w("GameActivity", "ignoring unreadable replay", e);
+            return null;
+        }
+    }
+
     /**
      * Handles the pause event of the activity.
      * Pauses the game view to stop game updates and rendering.
@@ -76,6 +125,45 @@ public class GameActivity extends AppCompatActivity {
         soundManager.startBgMusic();
     }
 
+    /**
+     * Adds the input latency histograms, the last run's recording and the
+     * bitmap decode counters to the activity's dumpsys output:
+     * adb shell dumpsys activity com.example.theotherside/.GameActivity
+     *
+     * @param prefix - Indentation for every line
+     * @param fd - The raw file descriptor of the dump
+     * @param writer - The writer to dump to
+     * @param args - Additional arguments of the dump
+     */
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        if (gameView != null) {
+            gameView.dumpInputLatency(writer, prefix);
+            dumpRecording(gameView.getLastRecording(), writer, prefix);
+            BitmapDecoder.getInstance(this).dump(writer, prefix);
+        }
+    }
+
+    private static void dumpRecording(SessionRecording recording, PrintWriter writer, String prefix) {
+        if (recording == null) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            recording.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+        writer.print(prefix);
+        writer.println("last run: seed=" + recording.getSeed() + " steps=" + recording.getStepCount()
+                + " lane changes=" + recording.size());
+        String encoded = Base64.encodeToString(bytes.toByteArray(), Base64.NO_WRAP | Base64.URL_SAFE);
+        writer.print(prefix);
+        writer.println("  --es " + EXTRA_REPLAY + " " + encoded);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -47,6 +47,18 @@ public class GameObject {
                 (int)(posX + width), (int)(posY + height));
     }
 
+    /**
+     * Swaps the bitmap used to render this object and adopts its size.
+     * Lets a cart take the sprite of its type after construction.
+     *
+     * @param bitmap - The new bitmap image for the game object
+     */
+    protected void setBitmap(Bitmap bitmap) {
+        this.bitmap = bitmap;
+        this.width = bitmap.getWidth();
+        this.height = bitmap.getHeight();
+    }
+
     /**
      * Updates the game object's state.
      * Currently updates the position of the hitbox to match the object's position.
@@ -1,16 +1,22 @@
 /*
  * This file contains the GameView class which serves as the main game engine
- * and rendering surface for the game. It handles game logic, object management,
- * collision detection, score tracking, and user input processing.
+ * and rendering surface for the game. It drives the headless World from the
+ * core module, renders it and forwards user input to it.
  *
  * The class manages:
- * - Game loop and timing
- * - Object spawning and updates
- * - Collision detection
- * - Score tracking
- * - Touch input and swipe detection
- * - Game state management
- * - Rendering of all game elements
+ * - Simulation and render threads, tied to the lifecycle of the drawing surface
+ * - A seeded, step-timed session that records every run for replay
+ * - Handing world snapshots from the simulation to the render thread
+ * - Render timing paced by display vsync
+ * - Game time that stands still while paused or in the background
+ * - Touch-to-post input latency
+ * - Sounds and saved scores for world events
+ * - Touch input and swipe detection, handed to the simulation thread
+ * - Pause and game over screens
+ * - Rendering of all game elements into a buffer of the virtual resolution,
+ *   which the display hardware scales up to the view
+ * - Sprites sharing a bitmap drawn in one batch
+ * - Returning the road tile for reuse when the view goes away
  *
  */
 
@@ -20,387 +26,470 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
 import android.graphics.RectF;
-import android.graphics.drawable.Drawable;
+import android.graphics.Shader;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
-
-import androidx.core.content.ContextCompat;
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Random;
+import android.view.WindowManager;
+
+import com.example.theotherside.core.AtlasTable;
+import com.example.theotherside.core.Clock;
+import com.example.theotherside.core.Entity;
+import com.example.theotherside.core.FrameProfiler;
+import com.example.theotherside.core.FrameScheduler;
+import com.example.theotherside.core.GameClock;
+import com.example.theotherside.core.IdleGate;
+import com.example.theotherside.core.InputLatency;
+import com.example.theotherside.core.InputRing;
+import com.example.theotherside.core.RenderResolution;
+import com.example.theotherside.core.Session;
+import com.example.theotherside.core.SessionRecording;
+import com.example.theotherside.core.SpriteBatch;
+import com.example.theotherside.core.SurfaceLifecycle;
+import com.example.theotherside.core.TripleBuffer;
+import com.example.theotherside.core.World;
+import com.example.theotherside.core.WorldSnapshot;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
 
 /**
  * Main game view class that handles the game loop, rendering, and game logic.
- * Implements Runnable to run the game loop in a separate thread and extends
- * SurfaceView for efficient rendering.
+ * The world is stepped on a simulation thread and drawn on a render thread,
+ * and it extends SurfaceView for efficient rendering.
  */
-public class GameView extends SurfaceView implements Runnable {
-    private long gameStartTime;
-    private float distanceTraveled;
+public class GameView extends SurfaceView
+        implements World.Listener, SurfaceHolder.Callback, InputRing.Handler {
     private int currentScore;
-    private static final float BASE_SPEED = 0.2f;
 
-    private Thread gameThread;
+    // Longest time surfaceDestroyed() waits for the render thread to finish its frame
+    private static final long SURFACE_RELEASE_TIMEOUT_MILLIS = 500;
+
     private SurfaceHolder holder;
-    private boolean isPlaying;
-    private boolean isGameOver;
+    // The simulation thread steps the world, the render thread draws it. Both
+    // run while the activity is resumed and block while there is no surface
+    private final SurfaceLifecycle simulationLifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+    private final SurfaceLifecycle renderLifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+    // Input from the UI thread, applied by the simulation thread at the start
+    // of a tick so the world and the HUD state are only ever changed there
+    private final InputRing input = new InputRing(64);
+    // Whether the pause or game over screen with its buttons is shown, written
+    // by the simulation thread for hit testing on the UI thread
+    private volatile boolean isMenuShown;
+    // Latency of swipes from the touch event to the step and to the posted frame
+    private final InputLatency inputLatency = new InputLatency();
+
+    // The simulation thread publishes a copy of the world after every step, the
+    // render thread draws the newest one. Neither waits for the other
+    private final TripleBuffer<WorldSnapshot> snapshots;
 
-    private Paint paint;
     private Canvas canvas;
-    private Bitmap backgroundBitmap;
+    // The scrolling road behind everything, one small repeating tile
+    private RoadRenderer road;
     private HUD hud;
-    private long lastChickenLaneCartTime = 0;
-    private static final long FORCE_SPAWN_TIMEOUT = 5000;
-
-
-    private Chicken chicken;
-    private ArrayList<Cart> carts;
-    private ArrayList<Coin> coins;
 
+    // All gameplay state and rules live in the headless world, the view only
+    // renders it and forwards input to it. The session steps it on step time
+    // with a seeded random source, so a run is reproduced by its recording
+    private final Session session;
+    private World world;
+    // Time the simulation and the countdown run on, only advanced while the game
+    // is running on screen. Used by the simulation thread only
+    private final GameClock gameClock = new GameClock(Clock.SYSTEM);
+    // Seeds of new runs, the only randomness outside the session
+    private final SplittableRandom seeds = new SplittableRandom();
+    // Run to replay instead of player input, or null
+    private final SessionRecording replay;
+    // Copy of a recent run for dumpsys, taken on the simulation thread
+    private volatile SessionRecording lastRecording;
+    // Every entity sprite is a region of the one sprite atlas texture
+    private final Bitmap atlas;
+    private final Rect[] spriteRegions = new Rect[Entity.TYPE_COUNT];
+    private final RectF spriteBounds = new RectF();
+    // Groups of at least MIN_BATCH sprites are drawn with one drawVertices()
+    // call, textured through a shader of the atlas. Smaller groups are
+    // cheaper drawn bitmap by bitmap. Used by the render thread only
+    private static final int MIN_BATCH = 8;
+    private final SpriteBatch spriteBatch = new SpriteBatch(32, MIN_BATCH);
+    private final Paint atlasShaderPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint atlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // The world, its sprites and swipes live in the virtual space of the render
+    // buffer. The HUD and overlays keep their layout in view pixels and are
+    // scaled down into the buffer, so their hit areas take raw touch coordinates
+    private final RenderResolution resolution;
     private int screenWidth, screenHeight;
-    private int score;
-    private long lastCartTime, lastCoinTime;
-    private int cartFrequency = 1000; // milliseconds
-    private int coinFrequency = 2000; // milliseconds
-    private int coinsCollected;
     private int laneCount = 4;
-    private Random random;
-    private float touchStartX;
-    private float touchStartY;
+    // In view pixels, like the sizes of the sprites
     private static final int MIN_SWIPE_DISTANCE = 100;
-    private Bitmap reloadIcon, homeIcon;
-    private RectF reloadButtonArea, homeButtonArea;
-    private float baseSpeed = 5f;
-    private float speedMultiplier = 1.0f;
-    private static final float SPEED_INCREASE_PER_MINUTE = 0.5f;
-    private static final float MAX_SPEED = 30f;
-    private int lastSpeedFloor = 1;
-
+    // Turns touch samples into lane changes while the finger is still moving
+    private final SwipeGestureDetector swipeDetector;
+    // Game over, pause and countdown screens, rendered once for the screen size
+    private OverlayLayers overlays;
+
+    // Longest wait for a surface before the frame timings start over, about one
+    // frame at 60 FPS. Jank is judged against the vsync period of the display
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    // Longest wait for a vsync before a frame is made without one
+    private static final long VSYNC_TIMEOUT_NANOS = 100_000_000L;
+    // Longest frame fed into the simulation, so a stall does not cause a burst of steps
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    // Frame-time profiler, toggled with a two-finger tap in debuggable builds.
+    // Every timing below is guarded by isEnabled() so it costs nothing when off
+    private final FrameProfiler profiler;
+    private final boolean isDebuggable;
+
+    // While paused, counting down or game over nothing moves, so the simulation
+    // thread parks here until input or the next countdown tick
+    private final IdleGate idleGate = new IdleGate(Clock.SYSTEM);
+    // The render thread parks here once an idle snapshot is drawn, until a new
+    // snapshot, a surface change or a profiler toggle
+    private final IdleGate renderGate = new IdleGate(Clock.SYSTEM);
+
+    // Each frame is drawn for the next vsync of the display
+    private final FrameScheduler frameScheduler;
 
     /**
-     * Creates a new game view with the specified dimensions.
+     * Creates a new game view rendered at the given resolution.
      *
      * @param context - The application context
-     * @param screenWidth - The width of the game screen
-     * @param screenHeight - The height of the game screen
+     * @param resolution - The size of the view and the size the game is rendered at
+     * @param lowColor - true for an RGB_565 surface, false for RGBX_8888
+     * @param replay - A recorded run to replay instead of player input, or null
      */
-    public GameView(Context context, int screenWidth, int screenHeight) {
+    public GameView(Context context, RenderResolution resolution, boolean lowColor, SessionRecording replay) {
         super(context);
+        this.replay = replay;
+        this.resolution = resolution;
 
-        this.screenWidth = screenWidth;
-        this.screenHeight = screenHeight;
+        this.screenWidth = resolution.getWidth();
+        this.screenHeight = resolution.getHeight();
 
         holder = getHolder();
-        paint = new Paint();
-        random = new Random();
-
-        // Load background bitmap
-        backgroundBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.road);
-        if(backgroundBitmap == null) {
-            throw new RuntimeException("did not load road bitmap");
+        // Both formats are opaque, so the compositor never blends the game with what is behind it
+        holder.setFormat(lowColor ? PixelFormat.RGB_565 : PixelFormat.RGBX_8888);
+        if (!resolution.isNative()) {
+            // The buffer keeps this size, the compositor scales it up to the view
+            holder.setFixedSize(screenWidth, screenHeight);
         }
-        backgroundBitmap = Bitmap.createScaledBitmap(backgroundBitmap, screenWidth,
-                screenHeight, false);
-        // Initialize HUD
-        hud = new HUD(context, screenWidth, screenHeight);
+        swipeDetector = new SwipeGestureDetector(this, resolution,
+                MIN_SWIPE_DISTANCE * resolution.getScale(), screenWidth / (float) laneCount);
+        holder.addCallback(this);
+        isDebuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+
+        // Vsync callbacks come from the main thread's Choreographer
+        WindowManager windowManager = context.getSystemService(WindowManager.class);
+        frameScheduler = new FrameScheduler(new ChoreographerFrameClock(
+                windowManager != null ? windowManager.getDefaultDisplay() : null), Clock.SYSTEM);
+        // Jank is a frame later than its vsync, so the budget is the display's period
+        profiler = new FrameProfiler(240, frameScheduler.getVsyncPeriodNanos());
+
+        // Load the road tile
+        road = new RoadRenderer(context, screenWidth, screenHeight);
+        // Initialize HUD, laid out in view pixels
+        hud = new HUD(context, resolution.getPhysicalWidth(), resolution.getPhysicalHeight(), gameClock);
+        overlays = new OverlayLayers(context, resolution.getPhysicalWidth(), resolution.getPhysicalHeight());
+
+        // Load the sprite atlas, the world only needs the sprite sizes
+        SpriteCache spriteCache = SpriteCache.getInstance(context);
+        atlas = spriteCache.getAtlas();
+        atlasShaderPaint.setShader(new BitmapShader(atlas, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+        int[] spriteIds = new int[Entity.TYPE_COUNT];
+        spriteIds[Entity.TYPE_CART] = Cart.getCartResourceId(0);
+        spriteIds[Entity.TYPE_CART_HAY] = Cart.getCartResourceId(1);
+        spriteIds[Entity.TYPE_COIN] = R.drawable.coin;
+        spriteIds[Entity.TYPE_CHICKEN] = R.drawable.chicken;
+
+        session = new Session(screenWidth, screenHeight, laneCount);
+        world = session.getWorld();
+        for (int type = 0; type < Entity.TYPE_COUNT; type++) {
+            setSprite(spriteCache, type, spriteIds[type]);
+        }
+        world.setListener(this);
+        snapshots = new TripleBuffer<>(new WorldSnapshot(world), new WorldSnapshot(world),
+                new WorldSnapshot(world));
 
         // Initialize game objects
         resetGame();
-
-        reloadIcon = getBitmapFromVector(R.drawable.ic_reload, screenWidth);
-        homeIcon = getBitmapFromVector(R.drawable.ic_home, screenWidth);
     }
 
-    private Bitmap getBitmapFromVector(int vectorResId, int screenWidth) {
-        Drawable vectorDrawable = ContextCompat.getDrawable(getContext(), vectorResId);
-        int iconSize = (int) (screenWidth * 0.15);
-
-        Bitmap bitmap = Bitmap.createBitmap(iconSize, iconSize, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-        vectorDrawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
-        vectorDrawable.draw(canvas);
-
-        return bitmap;
+    /**
+     * Sets up the atlas region of an entity sprite at the size it has on
+     * screen, in virtual pixels. Sprites are drawn at their decoded size in
+     * view pixels, so they shrink with the render buffer.
+     */
+    private void setSprite(SpriteCache spriteCache, int type, int resId) {
+        AtlasTable table = spriteCache.getAtlasTable();
+        int region = spriteCache.getAtlasRegion(resId);
+        if (region < 0) {
+            throw new IllegalStateException(getResources().getResourceEntryName(resId) + " is not in the sprite atlas");
+        }
+        int x = table.getX(region);
+        int y = table.getY(region);
+        int regionWidth = table.getRegionWidth(region);
+        int regionHeight = table.getRegionHeight(region);
+        float scale = spriteCache.getAtlasScale() * resolution.getScale();
+        int width = Math.max(1, Math.round(regionWidth * scale));
+        int height = Math.max(1, Math.round(regionHeight * scale));
+
+        spriteRegions[type] = new Rect(x, y, x + regionWidth, y + regionHeight);
+        world.setSpriteSize(type, width, height);
+        spriteBatch.setSpriteRegion(type, x, y, regionWidth, regionHeight, width, height);
     }
 
     /**
-     * Resets the game state to initial values.
-     * Creates new game objects and resets score and timers.
+     * Resets the game state to initial values and starts the countdown.
      */
     private void resetGame() {
-        chicken = new Chicken(getContext(), screenWidth, screenHeight, laneCount);
-        carts = new ArrayList<>();
-        coins = new ArrayList<>();
-        score = 0;
-        hud.setScore(0); // Reset HUD score
-        isGameOver = false;
-        lastCartTime = lastCoinTime = System.currentTimeMillis();
-
-        gameStartTime = System.currentTimeMillis();
-        distanceTraveled = 0f;
+        if (session.getRecording().getStepCount() > 0) {
+            lastRecording = session.getRecording().copy();
+        }
+        if (replay != null) {
+            session.startReplay(replay);
+        } else {
+            session.start(seeds.nextLong());
+        }
 
         // Start countdown when game is reset
         hud.startCountdown();
-        lastSpeedFloor = 1;
     }
 
     /**
-     * Main game loop that updates game state and renders the game.
+     * Simulation thread: steps the world at a fixed rate and publishes a snapshot
+     * after every step. Once an idle screen has been published, it only wakes up
+     * for input and countdown ticks. Runs until the view is paused.
      */
-    @Override
-    public void run() {
-        while (isPlaying) {
-            // Only update if not paused and not counting down
-            if (!hud.isPaused() && !hud.isCountingDown()) {
-                update();
-            }
-
-            // Always update the countdown if it's active
-            hud.updateCountdown();
-
-            // Always draw, even when paused
-            draw();
-            control();
+    private void runSimulation() {
+        try {
+            simulate();
+        } catch (InterruptedException e) {
+            simulationLifecycle.threadExited();
+            Thread.currentThread().interrupt();
         }
     }
 
-    /**
-     * Updates the game state including object positions,
-     * collision detection, and object spawning.
-     */
-    private void update() {
-        if (!isGameOver && !hud.isPaused() && !hud.isCountingDown()) {
-            long currentTime = System.currentTimeMillis();
-
-            // Make speed increase more gradual - change 3000 to 10000 or higher
-            // for slower progression
-            float elapsedTime = (currentTime - gameStartTime) / 8000.0f;
-
-            // Reduce this constant for smoother progression
-            speedMultiplier = 1.0f + (SPEED_INCREASE_PER_MINUTE * 0.2f * elapsedTime);
-
-            // maximum speed
-            if (baseSpeed * speedMultiplier > MAX_SPEED) {
-                speedMultiplier = MAX_SPEED / baseSpeed;
-            }
-
-            // play sound when speed increases by 1.0
-            int currentFloor = (int) speedMultiplier;
-            if (currentFloor > lastSpeedFloor) {
-                SoundManager.getInstance(getContext()).powerUpSound();
-                lastSpeedFloor = currentFloor;
-            }
-
-            distanceTraveled = ((currentTime - gameStartTime) * BASE_SPEED);
-            hud.setDistance(distanceTraveled); // update HUD
-        }
-
-        if (isGameOver) {
-            return;
-        }
-
-        long currentTime = System.currentTimeMillis();
+    // Set while draining input, the restart happens after the whole batch
+    private boolean restartRequested;
 
-        // Generate carts with guaranteed escape path
-        if (currentTime - lastCartTime > cartFrequency) {
-            // Create a map to track danger zones in each lane
-            boolean[] laneDanger = new boolean[laneCount];
+    private void simulate() throws InterruptedException {
+        long previousTime = gameClock.nanoTime();
+        long accumulator = 0;
+        boolean idlePublished = false;
 
-            // Track how far down the screen carts have traveled in each lane
-            float[] laneCartProgress = new float[laneCount];
-            for (int i = 0; i < laneCount; i++) {
-                laneCartProgress[i] = screenHeight; // Initialize to screen bottom
+        while (true) {
+            // Time blocked without a surface or in the background is not game time
+            gameClock.pause();
+            // Blocks while there is no surface, returns false once paused
+            if (!simulationLifecycle.awaitRunnable()) {
+                return;
             }
-
-            // Check existing carts to determine danger zones
-            // A lane is dangerous if a cart is in the top 70% of the screen
-            for (Cart cart : carts) {
-                if (cart.posY < screenHeight * 0.7) {
-                    int cartLane = getLaneFromX(cart.posX, cart.width);
-                    if (cartLane >= 0 && cartLane < laneCount) {
-                        laneDanger[cartLane] = true;
-                        laneCartProgress[cartLane] = Math.min(laneCartProgress[cartLane], cart.posY);
-                    }
+            gameClock.setRunning(isGameTimeRunning());
+
+            if (idlePublished && isIdle() && input.isEmpty()) {
+                long timeout = hud.isCountingDown()
+                        ? hud.getMillisToCountdownTick() * 1_000_000L : IdleGate.NO_TIMEOUT;
+                idleGate.awaitRedraw(timeout);
+                // Time spent parked is not simulated
+                previousTime = gameClock.nanoTime();
+                // Woken by a pause or a surface change, check the lifecycle again
+                if (!simulationLifecycle.isResumed() || !simulationLifecycle.hasSurface()) {
+                    continue;
                 }
             }
 
-            // Get the lane the chicken is currently in
-            int chickenLane = getLaneFromX(chicken.posX, chicken.width);
+            long now = gameClock.nanoTime();
+            long frameTime = Math.min(now - previousTime, MAX_FRAME_NANOS);
+            previousTime = now;
 
-            // Force spawn after timeout
-            boolean forceSpawnInChickenLane = false;
-            if (currentTime - lastChickenLaneCartTime > FORCE_SPAWN_TIMEOUT) {
-                forceSpawnInChickenLane = true;
-            }
-            if (forceSpawnInChickenLane) {
-                // Force spawn in the chicken's lane after timeout
-                Cart newCart = new Cart(getContext(), screenWidth, screenHeight,
-                        laneCount, random.nextInt(10), chickenLane);
-                carts.add(newCart);
-                lastCartTime = currentTime;
-                lastChickenLaneCartTime = currentTime; // Reset timeout
+            // Input changes the world only between steps
+            input.drain(this);
+            if (restartRequested) {
+                restartRequested = false;
+                resetGame();
+                accumulator = 0;
             }
+            // A pause or restart from the input stops or starts game time
+            gameClock.setRunning(isGameTimeRunning());
 
-            // Identify possible escape lanes
-            ArrayList<Integer> escapeLanes = new ArrayList<>();
-            for (int i = 0; i < laneCount; i++) {
-                // A lane is an escape lane if:
-                // 1. It's not dangerous, OR
-                // 2. The danger is far enough away to escape to another lane
-                if (!laneDanger[i] || laneCartProgress[i] > screenHeight * 0.4) {
-                    escapeLanes.add(i);
+            long updateNanos = 0;
+            // Only update if not paused and not counting down
+            if (!hud.isPaused() && !hud.isCountingDown()) {
+                accumulator += frameTime;
+                long updateStart = System.nanoTime();
+                while (accumulator >= World.STEP_NANOS) {
+                    session.step();
+                    accumulator -= World.STEP_NANOS;
                 }
+                updateNanos = System.nanoTime() - updateStart;
+            } else {
+                // Time spent paused or counting down is not simulated
+                accumulator = 0;
             }
 
-            // If there's only one escape lane and it's not the chicken's lane, don't spawn a cart there
-            if (escapeLanes.size() == 1 && escapeLanes.get(0) != chickenLane) {
-                int onlyEscapeLane = escapeLanes.get(0);
+            // Always update the countdown if it's active
+            hud.updateCountdown();
 
-                // Choose from lanes other than the only escape lane
-                ArrayList<Integer> spawnLanes = new ArrayList<>();
-                for (int i = 0; i < laneCount; i++) {
-                    if (i != onlyEscapeLane && (laneCartProgress[i] > screenHeight * 0.3)) {
-                        spawnLanes.add(i);
-                    }
-                }
+            // The last step belongs to the time the accumulator has not reached yet,
+            // on the time base of the render thread's vsyncs
+            publishSnapshot(System.nanoTime() - accumulator, updateNanos, idlePublished);
+            idlePublished = isIdle();
 
-                // Only spawn a cart if there's a valid lane
-                if (!spawnLanes.isEmpty()) {
-                    int selectedLane = spawnLanes.get(random.nextInt(spawnLanes.size()));
-                    Cart newCart = new Cart(getContext(), screenWidth, screenHeight,
-                            laneCount, random.nextInt(10), selectedLane);
-                    carts.add(newCart);
-                    lastCartTime = currentTime;
-                }
+            if (!idlePublished) {
+                // Sleep until the next step is due
+                long remaining = World.STEP_NANOS - accumulator;
+                Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
             }
-            // If there are multiple escape lanes, we can spawn a cart in one
-            else if (escapeLanes.size() > 1) {
-                // Never spawn a cart in the chicken's lane if it's one of several escape lanes
-                if (escapeLanes.contains(chickenLane)) {
-                    escapeLanes.remove(Integer.valueOf(chickenLane));
-                }
+        }
+    }
 
+    /**
+     * Copies the world and the HUD state into the back snapshot and publishes it.
+     *
+     * @param time - The time the current positions of the world belong to
+     * @param updateNanos - The time spent stepping the world for this snapshot
+     * @param wasIdle - Whether the previous snapshot was idle
+     */
+    private void publishSnapshot(long time, long updateNanos, boolean wasIdle) {
+        WorldSnapshot snapshot = snapshots.getWriteBuffer();
+        snapshot.capture(world, time);
+        snapshot.isPaused = hud.isPaused();
+        snapshot.countdownValue = hud.isCountingDown() ? hud.getCountdownValue() : WorldSnapshot.NO_COUNTDOWN;
+        snapshot.updateNanos = updateNanos;
+        inputLatency.capture(snapshot);
+        snapshots.publish();
+        isMenuShown = snapshot.isGameOver || snapshot.isPaused;
+        // The render thread only parks on idle snapshots, so it only needs
+        // waking when one is published or the game moves again after one
+        if (wasIdle || snapshot.isIdle()) {
+            renderGate.requestRedraw();
+        }
+    }
 
-                // Select a random lane from the remaining escape lanes
-                if (!escapeLanes.isEmpty()) {
-                    int selectedLane = escapeLanes.get(random.nextInt(escapeLanes.size()));
-                    Cart newCart = new Cart(getContext(), screenWidth, screenHeight,
-                            laneCount, random.nextInt(10), selectedLane);
-                    carts.add(newCart);
-                    lastCartTime = currentTime;
-                    if (selectedLane == chickenLane) {
-                        lastChickenLaneCartTime = currentTime;
-                    }
-                }
+    /**
+     * Render thread: draws the newest snapshot once per vsync. Once an idle
+     * snapshot has been drawn, it is only redrawn on demand. Runs until the
+     * view is paused.
+     */
+    private void runRender() {
+        try {
+            render();
+        } catch (InterruptedException e) {
+            renderLifecycle.threadExited();
+            Thread.currentThread().interrupt();
+        }
+    }
 
+    private void render() throws InterruptedException {
+        long previousTime = System.nanoTime();
+        boolean idleFrameDrawn = false;
+
+        while (true) {
+            // Blocks while there is no surface, returns false once paused
+            long waitStart = System.nanoTime();
+            if (!renderLifecycle.awaitRunnable()) {
+                return;
             }
-            // If there are no escape lanes, don't spawn a cart at all
-            else {
-                lastCartTime = currentTime; // Reset timer
+            if (System.nanoTime() - waitStart > FRAME_NANOS) {
+                // Time spent without a surface is not profiled
+                previousTime = System.nanoTime();
+                frameScheduler.reset();
+                profiler.setFrameBudgetNanos(frameScheduler.getVsyncPeriodNanos());
             }
 
-            // Gradually increase difficulty by reducing spawn time
-            // but keep a minimum threshold to ensure game remains playable
-            cartFrequency = Math.max(1000 - (score * 3), 600);
-        }
-
-        // Generate coins with similar logic to ensure they don't block escape paths
-        if (currentTime - lastCoinTime > coinFrequency) {
-            // Don't spawn coins in lanes that already have carts near the top
-            boolean[] laneBusy = new boolean[laneCount];
-
-            for (Cart cart : carts) {
-                if (cart.posY < screenHeight * 0.4) {
-                    int cartLane = getLaneFromX(cart.posX, cart.width);
-                    if (cartLane >= 0 && cartLane < laneCount) {
-                        laneBusy[cartLane] = true;
-                    }
+            boolean fresh = snapshots.update();
+            if (idleFrameDrawn && !fresh && snapshots.getReadBuffer().isIdle() && !renderGate.takeRedraw()) {
+                renderGate.awaitRedraw(IdleGate.NO_TIMEOUT);
+                // Time spent parked is not profiled
+                previousTime = System.nanoTime();
+                frameScheduler.reset();
+                profiler.setFrameBudgetNanos(frameScheduler.getVsyncPeriodNanos());
+                // Woken by a pause or a surface change, check the lifecycle again
+                if (!renderLifecycle.isResumed() || !renderLifecycle.hasSurface()) {
+                    continue;
                 }
             }
 
-            // Also check for existing coins
-            for (Coin coin : coins) {
-                if (coin.posY < screenHeight * 0.3) {
-                    int coinLane = getLaneFromX(coin.posX, coin.width);
-                    if (coinLane >= 0 && coinLane < laneCount) {
-                        laneBusy[coinLane] = true;
-                    }
+            boolean profiling = profiler.isEnabled();
+            long frameStart = awaitVsync(profiling);
+            // Draw the newest snapshot, one may have been published during the wait
+            fresh |= snapshots.update();
+            WorldSnapshot snapshot = snapshots.getReadBuffer();
+            if (profiling) {
+                // The first vsync after a wait may be slightly older than its end
+                profiler.endFrame(Math.max(0, frameStart - previousTime));
+                if (fresh) {
+                    profiler.add(FrameProfiler.PHASE_UPDATE, snapshot.updateNanos);
                 }
             }
+            previousTime = frameStart;
 
-            // Get chicken's lane
-            int chickenLane = getLaneFromX(chicken.posX, chicken.width);
+            idleFrameDrawn = snapshot.isIdle();
+            draw(snapshot, snapshot.alphaAt(frameStart), profiling);
+        }
+    }
 
-            // Find all available lanes for coins
-            ArrayList<Integer> availableLanes = new ArrayList<>();
-            for (int i = 0; i < laneCount; i++) {
-                if (!laneBusy[i]) {
-                    availableLanes.add(i);
-                }
-            }
+    /**
+     * Checks if game time advances: it stands still on the pause screen but
+     * runs through the countdown, which is timed on it.
+     * Called on the simulation thread.
+     *
+     * @return true if the game clock should run
+     */
+    private boolean isGameTimeRunning() {
+        return !hud.isPaused() || hud.isCountingDown();
+    }
 
-            // Spawn coin if there's at least one available lane
-            if (!availableLanes.isEmpty()) {
-                int selectedLane = availableLanes.get(random.nextInt(availableLanes.size()));
-                coins.add(new Coin(getContext(), screenWidth, screenHeight,
-                        laneCount, selectedLane));
-                lastCoinTime = currentTime;
-            } else {
-                lastCoinTime = currentTime; // Reset timer
-            }
-        }
+    /**
+     * Checks if nothing on screen moves: paused, counting down or game over.
+     * Called on the simulation thread.
+     *
+     * @return true if frames only need to be drawn on demand
+     */
+    private boolean isIdle() {
+        return hud.isPaused() || hud.isCountingDown() || world.isGameOver();
+    }
 
-        // Update carts
-        Iterator<Cart> cartIterator = carts.iterator();
-        while (cartIterator.hasNext()) {
-            Cart cart = cartIterator.next();
-            cart.posY += baseSpeed * speedMultiplier;
-            cart.update();
-
-            // Check for collision with chicken
-            if (cart.isColliding(chicken)) {
-                SoundManager.getInstance(getContext()).playCrashSound();
-                isGameOver = true;
-
-                currentScore = Math.round(distanceTraveled/100);
-                saveHighScore(currentScore);
-                saveCoins(coinsCollected);
-            }
+    /**
+     * Plays the crash sound and saves the results of the run.
+     * Called by the world on the simulation thread.
+     */
+    @Override
+    public void onCrash(int score, int coinsCollected) {
+        SoundManager.getInstance(getContext()).playCrashSound();
+        // Called during the crash step, which the recording already counts
+        lastRecording = session.getRecording().copy();
+        currentScore = score;
+        saveHighScore(currentScore);
+        saveCoins(coinsCollected);
+    }
 
-            // Remove off-screen carts
-            if (cart.isOffScreen(screenHeight)) {
-                cartIterator.remove();
-            }
-        }
+    /**
+     * Plays the coin sound, the coin count reaches the HUD through the snapshots.
+     * Called by the world on the simulation thread.
+     */
+    @Override
+    public void onCoinCollected(int coinsCollected) {
+        SoundManager.getInstance(getContext()).playCoinSound();
+    }
 
-        // Update coins
-        Iterator<Coin> coinIterator = coins.iterator();
-        while (coinIterator.hasNext()) {
-            Coin coin = coinIterator.next();
-            coin.update();
-            // Check for collision with chicken
-            // when collecting coins:
-            if (coin.isColliding(chicken)) {
-                SoundManager.getInstance(getContext()).playCoinSound();
-                coinsCollected++;
-                hud.setCoins(coinsCollected); // Update HUD
-                coinIterator.remove();
-            }
-            // Remove off-screen coins
-            if (coin.isOffScreen(screenHeight)) {
-                coinIterator.remove();
-            }
-        }
-        // Update HUD score
-        hud.setScore(distanceTraveled);;
+    /**
+     * Plays the power up sound when the speed increases by 1.0.
+     * Called by the world on the simulation thread.
+     */
+    @Override
+    public void onSpeedUp() {
+        SoundManager.getInstance(getContext()).powerUpSound();
     }
 
     /**
@@ -419,19 +508,6 @@ public class GameView extends SurfaceView implements Runnable {
         }
     }
 
-    /**
-     * Determines the lane index based on the x position and width of an object.
-     *
-     * @param posX - The x position of the object
-     * @param width - The width of the object
-     * @return The lane index where the object is located
-     */
-    private int getLaneFromX(float posX, float width) {
-        float laneWidth = screenWidth / laneCount;
-        float objectCenterX = posX + width / 2;
-        return (int)(objectCenterX / laneWidth);
-    }
-
     /**
      * Saves the total number of coins collected by adding to the stored coin count.
      *
@@ -448,147 +524,300 @@ public class GameView extends SurfaceView implements Runnable {
 
 
     /**
-     * Renders all game elements to the screen.
+     * Renders all game elements of a snapshot to the screen.
      * Includes background, game objects, score, and game over message.
+     *
+     * @param snapshot - The snapshot to draw
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @param profiling - Whether to record lock, draw and post timings
      */
-    private void draw() {
-        if (holder.getSurface().isValid()) {
+    private void draw(WorldSnapshot snapshot, float alpha, boolean profiling) {
+        // Claim the surface, surfaceDestroyed() waits until the frame is posted
+        if (!renderLifecycle.beginDraw()) {
+            return;
+        }
+        try {
+            long lockStart = profiling ? System.nanoTime() : 0;
             canvas = holder.lockCanvas();
-
-            // Draw background
-            canvas.drawBitmap(backgroundBitmap, 0, 0, paint);
-
-            // Draw coins
-            for (Coin coin : coins) {
-                coin.draw(canvas);
+            if (canvas == null) {
+                return;
             }
+            long drawStart = profiling ? System.nanoTime() : 0;
+
+            // Draw the road, scrolled with the distance traveled
+            road.draw(canvas, snapshot.renderRoadScroll(alpha));
 
-            // Draw carts
-            for (Cart cart : carts) {
-                cart.draw(canvas);
+            // Draw coins, carts and the chicken, one group per sprite
+            spriteBatch.plan(snapshot, alpha);
+            for (int type : SpriteBatch.DRAW_ORDER) {
+                drawSprites(type);
             }
 
-            // Draw chicken
-            chicken.draw(canvas);
+            // The HUD and overlays are laid out in view pixels
+            canvas.save();
+            canvas.scale(resolution.toVirtualX(1f), resolution.toVirtualY(1f));
 
             // Draw game over message when applicable
-            if (isGameOver) {
-                // Semi-transparent overlay
-                paint.setColor(Color.argb(200, 0, 0, 0));
-                canvas.drawRect(0, screenHeight/2 - 150, screenWidth, screenHeight/2 + 400, paint);
+            if (snapshot.isGameOver) {
+                overlays.drawGameOver(canvas);
+            }
 
-                // Game Over text
-                paint.setColor(Color.RED);
-                paint.setTextSize(100);
-                String gameOver = "GAME OVER";
-                float textWidth = paint.measureText(gameOver);
-                canvas.drawText(gameOver, (screenWidth - textWidth) / 2, screenHeight / 2, paint);
+            if (snapshot.isPaused) {
+                overlays.drawPaused(canvas);
+            }
 
-                float iconY = screenHeight / 2 + 150;
-                float padding = screenWidth * 0.1f;
-                float reloadX = (screenWidth / 2) - padding - reloadIcon.getWidth();
-                canvas.drawBitmap(reloadIcon, reloadX, iconY, paint);
-                float homeX = (screenWidth / 2) + padding;
-                canvas.drawBitmap(homeIcon, homeX, iconY, paint);
+            // Draw HUD on top of everything (after game over overlay if present)
+            hud.draw(canvas, snapshot);
+            if (snapshot.countdownValue != WorldSnapshot.NO_COUNTDOWN) {
+                overlays.drawCountdown(canvas, snapshot.countdownValue);
+            }
 
-                // button areas for touch detection
-                reloadButtonArea = new RectF(reloadX, iconY,
-                        reloadX + reloadIcon.getWidth(), iconY + reloadIcon.getHeight());
+            if (profiling) {
+                hud.drawProfiler(canvas, profiler, frameScheduler.getMissedVsyncs(), inputLatency);
+            }
+            canvas.restore();
 
-                homeButtonArea = new RectF(homeX, iconY,
-                        homeX + homeIcon.getWidth(), iconY + homeIcon.getHeight());
+            long postStart = profiling ? System.nanoTime() : 0;
+            holder.unlockCanvasAndPost(canvas);
+            long postEnd = System.nanoTime();
+            // The frame is on its way to the display, swipes it shows first end here
+            inputLatency.recordPosted(snapshot, postEnd);
+            if (profiling) {
+                profiler.add(FrameProfiler.PHASE_LOCK, drawStart - lockStart);
+                profiler.add(FrameProfiler.PHASE_DRAW, postStart - drawStart);
+                profiler.add(FrameProfiler.PHASE_POST, postEnd - postStart);
+            }
+        } finally {
+            renderLifecycle.endDraw();
+        }
+    }
 
+    /**
+     * Draws the sprites of one type as planned by the sprite batch, in one
+     * drawVertices() call or one drawBitmap() call each, from the atlas.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     */
+    private void drawSprites(int type) {
+        if (spriteBatch.isBatched(type)) {
+            canvas.drawVertices(Canvas.VertexMode.TRIANGLES, spriteBatch.getVertexCount(type),
+                    spriteBatch.getVertices(type), 0, spriteBatch.getTexCoords(type), 0,
+                    null, 0, spriteBatch.getIndices(), 0, spriteBatch.getIndexCount(type),
+                    atlasShaderPaint);
+            return;
+        }
+        for (int i = 0, count = spriteBatch.getCount(type); i < count; i++) {
+            float left = spriteBatch.getLeft(type, i);
+            float top = spriteBatch.getTop(type, i);
+            spriteBounds.set(left, top,
+                    left + spriteBatch.getSpriteWidth(type), top + spriteBatch.getSpriteHeight(type));
+            canvas.drawBitmap(atlas, spriteRegions[type], spriteBounds, atlasPaint);
+        }
+    }
 
-            }
+    /**
+     * Controls the game loop timing by waiting for the next vsync of the display,
+     * so one frame is made per refresh at whatever rate the panel runs.
+     * A frame that ran over a vsync period waits for the vsync after it, and
+     * the skipped ones are counted as missed.
+     *
+     * @param profiling - Whether to record the wait timing
+     * @return The time of the vsync the frame is made for
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private long awaitVsync(boolean profiling) throws InterruptedException {
+        long waitStart = profiling ? System.nanoTime() : 0;
+        long frameTime = frameScheduler.awaitFrame(VSYNC_TIMEOUT_NANOS);
+        if (profiling) {
+            profiler.add(FrameProfiler.PHASE_SLEEP, System.nanoTime() - waitStart);
+        }
+        return frameTime;
+    }
 
-            if (hud.isPaused()) {
-                // Semi-transparent overlay
-                paint.setColor(Color.argb(200, 0, 0, 0));
-                canvas.drawRect(0, screenHeight/2 - 150, screenWidth, screenHeight/2 + 400, paint);
+    /**
+     * Turns the frame-time profiler and its overlay on or off.
+     *
+     * @param enabled - true to record frame timings and show the overlay
+     */
+    public void setProfilerEnabled(boolean enabled) {
+        profiler.setEnabled(enabled);
+        renderGate.requestRedraw();
+    }
 
-                // Pause text
-                paint.setColor(Color.RED);
-                paint.setTextSize(100);
-                String gamePaused = "GAME PAUSED";
-                float textWidth = paint.measureText(gamePaused);
-                canvas.drawText(gamePaused, (screenWidth - textWidth) / 2, screenHeight / 2, paint);
+    public boolean isProfilerEnabled() {
+        return profiler.isEnabled();
+    }
 
-                float iconY = screenHeight / 2 + 150;
-                float padding = screenWidth * 0.1f;
-                float reloadX = (screenWidth / 2) - padding - reloadIcon.getWidth();
-                canvas.drawBitmap(reloadIcon, reloadX, iconY, paint);
-                float homeX = (screenWidth / 2) + padding;
-                canvas.drawBitmap(homeIcon, homeX, iconY, paint);
+    /**
+     * Writes the input latency histograms, for dumpsys.
+     *
+     * @param writer - The writer to dump to
+     * @param prefix - Indentation for every line
+     */
+    public void dumpInputLatency(PrintWriter writer, String prefix) {
+        inputLatency.dump(writer, prefix);
+    }
 
-                // button areas for touch detection
-                reloadButtonArea = new RectF(reloadX, iconY,
-                        reloadX + reloadIcon.getWidth(), iconY + reloadIcon.getHeight());
+    /**
+     * Returns a copy of the last finished, paused or restarted run, for dumpsys.
+     *
+     * @return The recording, or null if no run got that far yet
+     */
+    public SessionRecording getLastRecording() {
+        return lastRecording;
+    }
 
-                homeButtonArea = new RectF(homeX, iconY,
-                        homeX + homeIcon.getWidth(), iconY + homeIcon.getHeight());
+    /**
+     * Pauses the game loop and saves game state. Does not wait for the game
+     * threads, they stop on their own after the step or frame in progress.
+     */
+    public void pause() {
+        simulationLifecycle.pause();
+        renderLifecycle.pause();
+        // Wake the threads if they are parked on an idle screen
+        idleGate.requestRedraw();
+        renderGate.requestRedraw();
+        saveCoins(world.getCoinsCollected());
+        saveHighScore(currentScore);
+    }
 
+    /**
+     * Resumes the game loop, starting the simulation and render threads unless
+     * the previous ones are still running. Both wait for a surface before running.
+     */
+    public void resume() {
+        if (simulationLifecycle.resume()) {
+            new Thread(this::runSimulation, "GameView-simulation").start();
+        }
+        if (renderLifecycle.resume()) {
+            new Thread(this::runRender, "GameView-render").start();
+        }
+        idleGate.requestRedraw();
+        renderGate.requestRedraw();
+    }
 
-            }
+    /**
+     * Lets the game threads run once the surface exists.
+     *
+     * @param holder - The holder of the new surface
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        simulationLifecycle.surfaceCreated();
+        renderLifecycle.surfaceCreated();
+        idleGate.requestRedraw();
+        renderGate.requestRedraw();
+    }
 
-            // Draw HUD on top of everything (after game over overlay if present)
-            hud.draw(canvas);
+    /**
+     * Redraws idle screens after a format or size change.
+     *
+     * @param holder - The holder of the surface
+     * @param format - The new pixel format
+     * @param width - The new width of the surface
+     * @param height - The new height of the surface
+     */
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        renderGate.requestRedraw();
+    }
 
-            holder.unlockCanvasAndPost(canvas);
+    /**
+     * Stops simulating and drawing before the surface goes away. The render
+     * thread finishes the frame it may be drawing, waiting for it is bounded so
+     * the UI thread never hangs on a stuck frame.
+     *
+     * @param holder - The holder of the surface being destroyed
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // The simulation thread never draws, so this does not wait
+        simulationLifecycle.surfaceDestroyed(0);
+        if (!renderLifecycle.surfaceDestroyed(SURFACE_RELEASE_TIMEOUT_MILLIS)) {
+            Log.w("GameView", "render thread still drawing after surface was destroyed");
         }
     }
 
     /**
-     * Controls the game loop timing to maintain approximately 60 FPS.
+     * Hands the road tile back to the bitmap decoder once the view is gone, so
+     * the next game decodes its road into the same memory.
      */
-    private void control() {
-        try {
-            Thread.sleep(17); // ~60 FPS
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // The surface is destroyed before the view is detached. A frame still
+        // being drawn past the timeout of surfaceDestroyed() keeps the tile
+        if (renderLifecycle.surfaceDestroyed(0)) {
+            road.release();
         }
     }
 
     /**
-     * Pauses the game loop, saves game state and stops the game thread.
+     * Handles right swipe gesture by moving the chicken right on the next tick.
+     *
+     * @param timeNanos - The time of the touch sample that completed the swipe
      */
-    public void pause() {
-        isPlaying = false;
-        saveCoins(coinsCollected);
-        saveHighScore(currentScore);
-
-        try {
-            gameThread.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    public void onSwipeRight(long timeNanos) {
+        postInput(InputRing.SWIPE_RIGHT, timeNanos);
     }
 
     /**
-     * Resumes the game loop and starts the game thread.
+     * Handles left swipe gesture by moving the chicken left on the next tick.
+     *
+     * @param timeNanos - The time of the touch sample that completed the swipe
      */
-    public void resume() {
-        isPlaying = true;
-        gameThread = new Thread(this);
-        gameThread.start();
+    public void onSwipeLeft(long timeNanos) {
+        postInput(InputRing.SWIPE_LEFT, timeNanos);
     }
 
     /**
-     * Handles right swipe gesture by moving the chicken right.
+     * Queues an input event for the simulation thread. Called on the UI thread.
+     *
+     * @param kind - The kind of event, one of the InputRing constants
+     * @param timeNanos - The time of the event, on the System.nanoTime() time base
      */
-    public void onSwipeRight() {
-        if (!isGameOver) {
-            chicken.moveRight();
-            SoundManager.getInstance(getContext()).playJumpSound();
+    private void postInput(int kind, long timeNanos) {
+        if (!input.offer(kind, timeNanos)) {
+            Log.w("GameView", "input dropped, the simulation thread is not draining");
         }
+        idleGate.requestRedraw();
     }
 
     /**
-     * Handles left swipe gesture by moving the chicken left.
+     * Applies one input event. Called on the simulation thread at the start of
+     * a tick, so the state checks here cannot race with the step.
+     *
+     * @param kind - The kind of event, one of the InputRing constants
+     * @param timeNanos - The time of the event
      */
-    public void onSwipeLeft() {
-        SoundManager.getInstance(getContext()).playJumpSound();
-        if (!isGameOver) {
-            chicken.moveLeft();
+    @Override
+    public void onInput(int kind, long timeNanos) {
+        switch (kind) {
+            case InputRing.SWIPE_LEFT:
+            case InputRing.SWIPE_RIGHT:
+                // Don't process swipes if the game is paused, counting down, or game over
+                if (hud.isPaused() || hud.isCountingDown() || world.isGameOver()) {
+                    return;
+                }
+                if (session.move(kind)) {
+                    inputLatency.recordApplied(timeNanos, System.nanoTime());
+                    SoundManager.getInstance(getContext()).playJumpSound();
+                }
+                return;
+
+            case InputRing.TOGGLE_PAUSE:
+                if (!world.isGameOver()) {
+                    hud.togglePause();
+                    // A player pausing after a hitch can dump the run up to here
+                    lastRecording = session.getRecording().copy();
+                }
+                return;
+
+            case InputRing.RESTART:
+                if (world.isGameOver() || hud.isPaused()) {
+                    restartRequested = true;
+                }
+                return;
         }
     }
 
@@ -601,57 +830,46 @@ public class GameView extends SurfaceView implements Runnable {
      */
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        switch (event.getAction()) {
-            case MotionEvent.ACTION_DOWN:
-                touchStartX = event.getX();
-                touchStartY = event.getY();
-
-                // Check if the pause/play button was pressed
-                if (hud.checkButtonPress(touchStartX, touchStartY)) {
-                    if (!isGameOver) {
-                        hud.togglePause();
-                    }
-                    return true;
-                }
+        // Input that changes the game is posted to the simulation thread,
+        // which postInput() wakes if it is parked on an idle screen.
+        // Swipes are recognized on every move, the taps below only on the down
+        boolean isSwipe = swipeDetector.onTouchEvent(event);
+
+        // A second finger toggles the profiler overlay in debuggable builds
+        if (isDebuggable && event.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN
+                && event.getPointerCount() == 2) {
+            setProfilerEnabled(!profiler.isEnabled());
+            return true;
+        }
 
-                if (isGameOver || hud.isPaused()) {
-                    if (reloadButtonArea != null && reloadButtonArea.contains(touchStartX, touchStartY)) {
-                        resetGame();
-                        return true;
-                    }
-                    else if (homeButtonArea != null && homeButtonArea.contains(touchStartX, touchStartY)) {
-                        // return to high score screen(home)
-                        getContext().startActivity(new Intent(getContext(), ScreenHighScore.class));
-                        ((Activity) getContext()).finish();
-                        return true;
-                    }
-                }
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            // View pixels, the space of the HUD and overlay hit areas
+            float touchX = event.getX();
+            float touchY = event.getY();
+            // Event times are on the uptime clock, the monotonic clock System.nanoTime() reads
+            long timeNanos = event.getEventTime() * 1_000_000L;
+
+            // Check if the pause/play button was pressed
+            if (hud.checkButtonPress(touchX, touchY)) {
+                postInput(InputRing.TOGGLE_PAUSE, timeNanos);
                 return true;
+            }
 
-            case MotionEvent.ACTION_UP:
-                // Don't process swipes if the game is paused, counting down, or game over
-                if (!hud.isPaused() && !hud.isCountingDown() && !isGameOver) {
-                    float touchEndX = event.getX();
-                    float touchEndY = event.getY();
-
-                    // Calculate the difference
-                    float diffX = touchEndX - touchStartX;
-                    float diffY = touchEndY - touchStartY;
-
-                    // Check if the gesture was a horizontal swipe
-                    if (Math.abs(diffX) > Math.abs(diffY) && Math.abs(diffX) > MIN_SWIPE_DISTANCE) {
-                        if (diffX > 0) {
-                            // Swipe right
-                            chicken.moveRight();
-                            SoundManager.getInstance(getContext()).playJumpSound();
-                        } else {
-                            // Swipe left
-                            chicken.moveLeft();
-                            SoundManager.getInstance(getContext()).playJumpSound();
-                        }
-                    }
+            if (isMenuShown) {
+                if (overlays.getReloadButtonArea().contains(touchX, touchY)) {
+                    postInput(InputRing.RESTART, timeNanos);
+                    return true;
                 }
-                return true;
+                else if (overlays.getHomeButtonArea().contains(touchX, touchY)) {
+                    // return to high score screen(home)
+                    getContext().startActivity(new Intent(getContext(), ScreenHighScore.class));
+                    ((Activity) getContext()).finish();
+                    return true;
+                }
+            }
+        }
+        if (isSwipe) {
+            return true;
         }
         return super.onTouchEvent(event);
     }
@@ -0,0 +1,161 @@
+/*
+ * This file contains the GlyphStrip class which prerenders the digits and a few
+ * fixed labels, shadow included, into a single bitmap. Numbers are then drawn by
+ * blitting one cell per digit, so showing a changing score never builds a string,
+ * measures text or rasterises glyphs.
+ *
+ * The class manages:
+ * - Rendering the digits 0-9 and the labels once, with a drop shadow
+ * - Per-glyph advance widths for layout
+ * - Drawing non-negative ints from their digits, split by NumberLayout
+ *
+ */
+
+package com.example.theotherside;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import com.example.theotherside.core.NumberLayout;
+
+/**
+ * Prerendered digits and labels drawn by copying cells of one bitmap.
+ */
+public class GlyphStrip {
+    private static final int DIGITS = 10;
+    // Room around each cell for glyphs that overhang their advance
+    private static final int PADDING = 4;
+
+    private final Bitmap strip;
+    private final String[] labels;
+    private final int[] cellLeft;
+    private final int[] cellWidth;
+    private final float[] advance;
+    // Digit split and widths of numbers, from the advances of the digit cells
+    private final NumberLayout numbers;
+    private final int[] digits = new int[NumberLayout.MAX_DIGITS];
+    private final float top;
+    private final int height;
+    private final float digitHeight;
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    /**
+     * Renders the digits and labels with the given paints.
+     *
+     * @param paint - The paint of the text
+     * @param shadowPaint - The paint of the shadow, same text size as the text
+     * @param shadowOffset - How far the shadow is shifted right and down, in pixels
+     * @param labels - The fixed strings to prerender, drawn later by their index
+     */
+    public GlyphStrip(Paint paint, Paint shadowPaint, int shadowOffset, String... labels) {
+        this.labels = labels;
+        int count = DIGITS + labels.length;
+        cellLeft = new int[count];
+        cellWidth = new int[count];
+        advance = new float[count];
+
+        Paint.FontMetrics metrics = paint.getFontMetrics();
+        top = metrics.top;
+        height = (int) Math.ceil(metrics.bottom - metrics.top) + shadowOffset;
+
+        int x = 0;
+        for (int i = 0; i < count; i++) {
+            advance[i] = paint.measureText(text(i));
+            cellLeft[i] = x;
+            cellWidth[i] = (int) Math.ceil(advance[i]) + shadowOffset + 2 * PADDING;
+            x += cellWidth[i];
+        }
+        numbers = new NumberLayout(advance);
+
+        strip = Bitmap.createBitmap(x, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(strip);
+        float baseline = -top;
+        for (int i = 0; i < count; i++) {
+            String text = text(i);
+            float textX = cellLeft[i] + PADDING;
+            canvas.drawText(text, textX + shadowOffset, baseline + shadowOffset, shadowPaint); // Shadow
+            canvas.drawText(text, textX, baseline, paint); // Main text
+        }
+
+        // Digits share one height, so numbers can be centered without measuring them
+        Rect bounds = new Rect();
+        paint.getTextBounds("0123456789", 0, DIGITS, bounds);
+        digitHeight = bounds.height();
+    }
+
+    private String text(int glyph) {
+        return glyph < DIGITS ? String.valueOf((char) ('0' + glyph)) : labels[glyph - DIGITS];
+    }
+
+    /**
+     * Returns the height of the digits above the baseline, for vertical centering.
+     *
+     * @return The digit height in pixels
+     */
+    public float getDigitHeight() {
+        return digitHeight;
+    }
+
+    /**
+     * Returns the advance width of a label.
+     *
+     * @param label - The index of the label as passed to the constructor
+     * @return The width in pixels
+     */
+    public float getLabelWidth(int label) {
+        return advance[DIGITS + label];
+    }
+
+    /**
+     * Returns the advance width of a number.
+     *
+     * @param value - The number, negative values are drawn as 0
+     * @return The width in pixels
+     */
+    public float getNumberWidth(int value) {
+        return numbers.getWidth(value);
+    }
+
+    /**
+     * Draws a label with its shadow.
+     *
+     * @param canvas - The canvas to draw on
+     * @param label - The index of the label as passed to the constructor
+     * @param x - The left of the text
+     * @param baseline - The baseline of the text
+     * @return The x just past the label
+     */
+    public float drawLabel(Canvas canvas, int label, float x, float baseline) {
+        return drawGlyph(canvas, DIGITS + label, x, baseline);
+    }
+
+    /**
+     * Draws a number with its shadow, one digit cell at a time.
+     *
+     * @param canvas - The canvas to draw on
+     * @param value - The number, negative values are drawn as 0
+     * @param x - The left of the text
+     * @param baseline - The baseline of the text
+     * @return The x just past the number
+     */
+    public float drawNumber(Canvas canvas, int value, float x, float baseline) {
+        int count = NumberLayout.split(value, digits);
+        for (int i = 0; i < count; i++) {
+            x = drawGlyph(canvas, digits[i], x, baseline);
+        }
+        return x;
+    }
+
+    private float drawGlyph(Canvas canvas, int glyph, float x, float baseline) {
+        src.set(cellLeft[glyph], 0, cellLeft[glyph] + cellWidth[glyph], height);
+        float left = x - PADDING;
+        float cellTop = baseline + top;
+        dst.set(left, cellTop, left + cellWidth[glyph], cellTop + height);
+        canvas.drawBitmap(strip, src, dst, null);
+        return x + advance[glyph];
+    }
+}
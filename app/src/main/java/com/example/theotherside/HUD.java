@@ -4,11 +4,12 @@
  * with a modern dynamic island style design.
  *
  * The class manages:
- * - Score display with coin icon
+ * - Score display with coin icon, composited from prerendered glyphs
+ * - A cached panel layer redrawn only when its content changes
  * - Pause/play button functionality
- * - Countdown system (3, 2, 1, GO!)
- * - Semi-transparent overlay effects
+ * - Countdown state (3, 2, 1, GO!) timed on game time, drawn by OverlayLayers
  * - Touch detection for UI controls
+ * - Frame-time profiler overlay for debugging
  *
  */
 
@@ -16,7 +17,6 @@ package com.example.theotherside;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -24,6 +24,14 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
 
+import com.example.theotherside.core.Clock;
+import com.example.theotherside.core.FrameProfiler;
+import com.example.theotherside.core.InputLatency;
+import com.example.theotherside.core.LatencyHistogram;
+import com.example.theotherside.core.WorldSnapshot;
+
+import java.util.Locale;
+
 public class HUD {
     // Paint objects for rendering
     private Paint paint, shadowPaint;
@@ -33,16 +41,40 @@ public class HUD {
     // Game state variables
     private boolean isPaused;
     private RectF hudBox;
-    private int score;
-
-    // Countdown variables
+    private final RectF buttonArea;
+
+    // The panel is drawn into its own layer, which is redrawn only when the
+    // score, the coin count or the pause state change
+    private static final int LABEL_SCORE = 0;
+    private static final int LAYER_MARGIN = 2; // room for the border stroke
+    private final GlyphStrip glyphs;
+    private final float scoreTextHeight;
+    private final Bitmap panelLayer;
+    private final Canvas panelCanvas;
+    private final RectF panelBox;
+    private boolean panelValid;
+    private int drawnScore, drawnCoins;
+    private boolean drawnPaused;
+    private int panelRenderCount;
+    // Smooths the layer when the HUD is scaled into a smaller render buffer
+    private final Paint layerPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Countdown variables, timed on the game clock so time spent away from
+    // the game is not counted
+    private final Clock clock;
     private boolean isCountingDown;
     private int countdownValue; // 3, 2, 1, Go!
     private long lastCountdownTime;
-    private int coinsCollected;
-
 
-    private float currentDistance;
+    // Profiler overlay, text is rebuilt only when the profiler publishes new stats
+    private static final String[] PHASE_NAMES = {"update", "lock", "draw", "post", "vsync", "frame"};
+    private static final int GRAPH_FRAMES = 120;
+    private static final float GRAPH_HEIGHT = 160f;
+    private static final long GRAPH_MAX_NANOS = 50_000_000L;
+    private final String[] profilerLines = new String[FrameProfiler.PHASE_COUNT + 4];
+    private final float[] graphLines = new float[GRAPH_FRAMES * 4];
+    private int profilerStatsVersion = -1;
+    private Paint profilerPaint;
 
     /**
      * Constructs a new HUD with specified screen dimensions.
@@ -51,8 +83,10 @@ public class HUD {
      * @param context - The Android context for accessing resources
      * @param screenWidth - Width of the screen in pixels
      * @param screenHeight - Height of the screen in pixels
+     * @param clock - The game clock the countdown runs on
      */
-    public HUD(Context context, int screenWidth, int screenHeight) {
+    public HUD(Context context, int screenWidth, int screenHeight, Clock clock) {
+        this.clock = clock;
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
 
@@ -64,16 +98,12 @@ public class HUD {
         shadowPaint.setTextSize(50);
         shadowPaint.setAlpha(120);
 
-        // Load button images
-        playBitmap = BitmapFactory.decodeResource(context.getResources(), R.drawable.play);
-        pauseBitmap = BitmapFactory.decodeResource(context.getResources(), R.drawable.pause);
-        coinBitmap = BitmapFactory.decodeResource(context.getResources(), R.drawable.coin);
-
-        // Size and scale the button bitmaps
+        // Load button images, sized and scaled by the shared sprite cache
         int buttonSize = 60;
-        playBitmap = Bitmap.createScaledBitmap(playBitmap, buttonSize, buttonSize, true);
-        pauseBitmap = Bitmap.createScaledBitmap(pauseBitmap, buttonSize, buttonSize, true);
-        coinBitmap = Bitmap.createScaledBitmap(coinBitmap, buttonSize, buttonSize, true);
+        SpriteCache sprites = SpriteCache.getInstance(context);
+        playBitmap = sprites.get(R.drawable.play, buttonSize, buttonSize);
+        pauseBitmap = sprites.get(R.drawable.pause, buttonSize, buttonSize);
+        coinBitmap = sprites.get(R.drawable.coin, buttonSize, buttonSize);
 
         // Create HUD box
         int boxWidth = (screenWidth / 2) + 150;
@@ -83,26 +113,38 @@ public class HUD {
 
         hudBox = new RectF(boxX, boxY, boxX + boxWidth, boxY + boxHeight);
 
+        // Pause/play button area on the right side of the HUD
+        float buttonX = hudBox.right - 80;
+        float buttonY = hudBox.centerY() - 30;
+        buttonArea = new RectF(buttonX, buttonY, buttonX + 60, buttonY + 60);
+
+        // Digits and labels are drawn in the panel's text color, which is the
+        // border glow color still set on the paint when the text is drawn
+        Paint glyphPaint = new Paint(paint);
+        glyphPaint.setColor(Color.argb(60, 255, 255, 255));
+        glyphs = new GlyphStrip(glyphPaint, shadowPaint, 2, "SCORE: ");
+        Rect scoreBounds = new Rect();
+        paint.getTextBounds("SCORE: 0123456789", 0, 17, scoreBounds);
+        scoreTextHeight = scoreBounds.height();
+
+        panelLayer = Bitmap.createBitmap(boxWidth + 2 * LAYER_MARGIN, boxHeight + 2 * LAYER_MARGIN,
+                Bitmap.Config.ARGB_8888);
+        panelCanvas = new Canvas(panelLayer);
+        panelBox = new RectF(LAYER_MARGIN, LAYER_MARGIN, LAYER_MARGIN + boxWidth, LAYER_MARGIN + boxHeight);
+
         // Initialize state variables
         isPaused = false;
-        score = 0;
 
         // Countdown initialization
         isCountingDown = false;
         countdownValue = 3;
-    }
 
-    /**
-     * Updates the current score displayed in the HUD.
-     *
-     * @param distance - The new score value to display
-     */
-    public void setScore(float distance) {
-        this.score = Math.round(distance/100);
+        profilerPaint = new Paint();
+        profilerPaint.setTextSize(28);
+        profilerPaint.setTypeface(Typeface.MONOSPACE);
+        profilerPaint.setStrokeWidth(3);
     }
 
-
-
     /**
      * Returns the current pause state of the game.
      *
@@ -121,13 +163,22 @@ public class HUD {
         return isCountingDown;
     }
 
+    /**
+     * Returns the countdown number currently shown.
+     *
+     * @return 3, 2 or 1, or 0 while "GO!" is shown
+     */
+    public int getCountdownValue() {
+        return countdownValue;
+    }
+
     /**
      * Initiates the countdown sequence from 3 to "GO!".
      */
     public void startCountdown() {
         isCountingDown = true;
         countdownValue = 3;
-        lastCountdownTime = System.currentTimeMillis();
+        lastCountdownTime = currentTimeMillis();
     }
 
     /**
@@ -137,7 +188,7 @@ public class HUD {
     public void updateCountdown() {
         if (!isCountingDown) return;
 
-        long currentTime = System.currentTimeMillis();
+        long currentTime = currentTimeMillis();
         if (currentTime - lastCountdownTime > 1000) { // 1 second intervals
             countdownValue--;
             lastCountdownTime = currentTime;
@@ -149,6 +200,20 @@ public class HUD {
         }
     }
 
+    /**
+     * Returns the time until updateCountdown() moves to the next countdown value.
+     *
+     * @return The time in milliseconds, 0 if the next value is already due
+     */
+    public long getMillisToCountdownTick() {
+        // updateCountdown() advances once more than 1000 ms have passed
+        return Math.max(0, lastCountdownTime + 1001 - currentTimeMillis());
+    }
+
+    private long currentTimeMillis() {
+        return clock.nanoTime() / 1_000_000L;
+    }
+
     /**
      * Toggles the pause state and initiates countdown when unpausing.
      */
@@ -169,40 +234,58 @@ public class HUD {
      */
     public boolean checkButtonPress(float touchX, float touchY) {
         // Check if touch is within the pause/play button area (right side of HUD)
-        float buttonX = hudBox.right - 80;
-        float buttonY = hudBox.centerY() - 30;
-        RectF buttonArea = new RectF(buttonX, buttonY, buttonX + 60, buttonY + 60);
         return buttonArea.contains(touchX, touchY);
     }
 
     /**
-     * Draws the complete HUD including background, score, buttons, and countdown
-     * if active. Implements visual effects like shadows and glows for enhanced
-     * appearance.
+     * Draws the complete HUD including background, score and buttons, with the
+     * numbers and pause state of a world snapshot, so the render thread never
+     * reads what the simulation thread is changing. The panel is copied from
+     * its cached layer, which is only redrawn when what it shows has changed.
+     * The countdown itself is drawn by OverlayLayers.
      *
      * @param canvas - The Canvas object to draw on
+     * @param snapshot - The snapshot being drawn
      */
+    public void draw(Canvas canvas, WorldSnapshot snapshot) {
+        drawPanel(canvas, Math.round(snapshot.distanceTraveled / 100), snapshot.coinsCollected,
+                snapshot.isPaused);
+    }
+
+    private void drawPanel(Canvas canvas, int score, int coinsCollected, boolean isPaused) {
+        if (!panelValid || score != drawnScore || coinsCollected != drawnCoins || isPaused != drawnPaused) {
+            renderPanel(score, coinsCollected, isPaused);
+        }
+        canvas.drawBitmap(panelLayer, hudBox.left - LAYER_MARGIN, hudBox.top - LAYER_MARGIN, layerPaint);
+    }
+
     /**
-     * Draws the complete HUD including background, score, buttons, and countdown
-     * if active. Implements visual effects like shadows and glows for enhanced
+     * Redraws the panel layer: background, coin count, score, pause/play button
+     * and divider. Implements visual effects like shadows and glows for enhanced
      * appearance.
      *
-     * @param canvas - The Canvas object to draw on
+     * @param score - The score to show
+     * @param coinsCollected - The coin count to show
+     * @param isPaused - Whether to show the play button instead of the pause button
      */
-    public void draw(Canvas canvas) {
+    private void renderPanel(int score, int coinsCollected, boolean isPaused) {
+        Canvas canvas = panelCanvas;
+        RectF box = panelBox;
+        panelLayer.eraseColor(Color.TRANSPARENT);
+
         // Draw HUD background
         paint.setColor(Color.argb(200, 30, 30, 30));
-        canvas.drawRoundRect(hudBox, 40, 40, paint);
+        canvas.drawRoundRect(box, 40, 40, paint);
 
         // Border glow
         paint.setColor(Color.argb(60, 255, 255, 255));
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(2);
-        canvas.drawRoundRect(hudBox, 40, 40, paint);
+        canvas.drawRoundRect(box, 40, 40, paint);
         paint.setStyle(Paint.Style.FILL);
 
         // ===== VERTICAL ALIGNMENT CALCULATIONS =====
-        float centerY = hudBox.centerY();
+        float centerY = box.centerY();
 
         // ===== COIN SECTION =====
         float coinPadding = 30; // Space between left edge and coin
@@ -210,44 +293,27 @@ public class HUD {
 
         // Coin icon (centered vertically)
         float coinTop = centerY - (coinBitmap.getHeight() / 2f);
-        canvas.drawBitmap(coinBitmap, hudBox.left + coinPadding, coinTop, paint);
-
-        // Coin count text
-        String coinText = String.valueOf(coinsCollected);
-        float coinTextX = hudBox.left + coinPadding + coinBitmap.getWidth() + coinSpacing;
+        canvas.drawBitmap(coinBitmap, box.left + coinPadding, coinTop, paint);
 
-        // Measure text bounds directly
-        Rect textBounds = new Rect();
-        paint.getTextBounds(coinText, 0, coinText.length(), textBounds);
-        float textHeight = textBounds.height();
-        float textVerticalOffset = textHeight / 2f;
-        float textY = centerY + textVerticalOffset;
-
-        // Draw the text, now vertically centered
-        canvas.drawText(coinText, coinTextX + 2, textY + 2, shadowPaint); // Shadow
-        canvas.drawText(coinText, coinTextX, textY, paint); // Main text
+        // Coin count, vertically centered on the digit height
+        float coinTextX = box.left + coinPadding + coinBitmap.getWidth() + coinSpacing;
+        float textY = centerY + glyphs.getDigitHeight() / 2f;
+        glyphs.drawNumber(canvas, coinsCollected, coinTextX, textY);
 
         // ===== SCORE SECTION =====
         float scorePadding = 120; // space between right edge and score text
-        String scoreText = "SCORE: " + score;
-        float scoreTextWidth = paint.measureText(scoreText);
-
-        // Measure text boundaries
-        Rect textBoundsScore = new Rect();
-        paint.getTextBounds(scoreText, 0, scoreText.length(), textBoundsScore);
-        float textHeightScore = textBoundsScore.height();
-        float textVerticalOffsetScore = textHeightScore / 2f;
-        float textYScore = centerY + textVerticalOffsetScore;
+        float scoreTextWidth = glyphs.getLabelWidth(LABEL_SCORE) + glyphs.getNumberWidth(score);
+        float textYScore = centerY + scoreTextHeight / 2f;
 
         // Position score text
-        float scoreX = hudBox.right - scorePadding - scoreTextWidth;
-        canvas.drawText(scoreText, scoreX + 2, textYScore + 2, shadowPaint); // Shadow
-        canvas.drawText(scoreText, scoreX, textYScore, paint); // Main text
+        float scoreX = box.right - scorePadding - scoreTextWidth;
+        scoreX = glyphs.drawLabel(canvas, LABEL_SCORE, scoreX, textYScore);
+        glyphs.drawNumber(canvas, score, scoreX, textYScore);
 
         // ===== PAUSE/BUTTON =====
         float buttonSize = pauseBitmap.getWidth();
         float buttonPadding = 20;
-        float buttonX = hudBox.right - buttonSize - buttonPadding;
+        float buttonX = box.right - buttonSize - buttonPadding;
         float buttonY = centerY - (buttonSize / 2f);
         Bitmap buttonBitmap;
         if (isPaused) {
@@ -258,38 +324,95 @@ public class HUD {
 
         canvas.drawBitmap(buttonBitmap, buttonX, buttonY, paint);
 
-        // ===== COUNTDOWN =====
-        if (isCountingDown) {            // overlay
-            paint.setColor(Color.argb(120, 0, 0, 0));
-            canvas.drawRect(0, 0, screenWidth, screenHeight, paint);
-
-            // Countdown text
-            paint.setColor(Color.WHITE);
-            paint.setTextSize(150);
-            paint.setTextAlign(Paint.Align.CENTER);
-            paint.setShadowLayer(15, 0, 0, Color.argb(180, 255, 165, 0));
-
-            String countText;
-            if (countdownValue > 0){
-                countText = String.valueOf(countdownValue);
-            } else
-                countText = "GO!";
-            canvas.drawText(countText, screenWidth/2f, screenHeight/2f, paint);
-
-            // Reset paint
-            paint.setShadowLayer(0, 0, 0, 0);
-            paint.setTextAlign(Paint.Align.LEFT);
-            paint.setTextSize(50);
-        }
+        float dividerX = box.left + (box.width() * 0.35f); // start 35% from left
+        canvas.drawLine(dividerX, box.top, dividerX, box.bottom, paint);
 
-        float dividerX = hudBox.left + (hudBox.width() * 0.35f); // start 35% from left
-        canvas.drawLine(dividerX, hudBox.top, dividerX, hudBox.bottom, paint);
+        panelValid = true;
+        drawnScore = score;
+        drawnCoins = coinsCollected;
+        drawnPaused = isPaused;
+        panelRenderCount++;
     }
-    public void setDistance(float distance) {
-        this.currentDistance = distance;
+
+    /**
+     * Returns how many times the panel layer has been redrawn.
+     *
+     * @return The panel render count
+     */
+    int getPanelRenderCount() {
+        return panelRenderCount;
     }
-    public void setCoins(int coins) {
-        this.coinsCollected = coins;
+    /**
+     * Draws the frame-time profiler overlay: per-phase p50/p95/p99 in milliseconds,
+     * jank and missed vsync counts, swipe latency percentiles and a graph of the
+     * most recent frame times.
+     *
+     * @param canvas - The Canvas object to draw on
+     * @param profiler - The profiler to show
+     * @param missedVsyncs - The number of vsyncs that passed without a frame
+     * @param inputLatency - The swipe latencies to show
+     */
+    public void drawProfiler(Canvas canvas, FrameProfiler profiler, long missedVsyncs,
+                             InputLatency inputLatency) {
+        if (profilerStatsVersion != profiler.getStatsVersion()) {
+            profilerStatsVersion = profiler.getStatsVersion();
+            for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+                profilerLines[phase] = String.format(Locale.US, "%-6s %5.1f %5.1f %5.1f",
+                        PHASE_NAMES[phase],
+                        profiler.getPercentile(phase, FrameProfiler.P50) / 1e6f,
+                        profiler.getPercentile(phase, FrameProfiler.P95) / 1e6f,
+                        profiler.getPercentile(phase, FrameProfiler.P99) / 1e6f);
+            }
+            profilerLines[FrameProfiler.PHASE_COUNT] = "jank " + profiler.getJankCount() + "/"
+                    + profiler.getCount() + " total " + profiler.getTotalJanks();
+            profilerLines[FrameProfiler.PHASE_COUNT + 1] = "missed vsync " + missedVsyncs;
+            profilerLines[FrameProfiler.PHASE_COUNT + 2] = latencyLine("in>step", inputLatency.getToStep());
+            profilerLines[FrameProfiler.PHASE_COUNT + 3] = latencyLine("in>post", inputLatency.getToPost());
+        }
+
+        float lineHeight = 32;
+        float left = 20;
+        float bottom = screenHeight - 20;
+        float graphTop = bottom - GRAPH_HEIGHT;
+        float textTop = graphTop - lineHeight * (profilerLines.length + 1) - 10;
+
+        // Background panel
+        profilerPaint.setColor(Color.argb(170, 0, 0, 0));
+        canvas.drawRect(0, textTop - 10, GRAPH_FRAMES * 4 + 2 * left, screenHeight, profilerPaint);
+
+        // Stats text
+        profilerPaint.setColor(Color.WHITE);
+        canvas.drawText("ms      p50   p95   p99", left, textTop + lineHeight, profilerPaint);
+        for (int i = 0; i < profilerLines.length; i++) {
+            canvas.drawText(profilerLines[i], left, textTop + lineHeight * (i + 2), profilerPaint);
+        }
+
+        // Frame time graph, newest frame on the right, one bar per frame
+        int frames = Math.min(GRAPH_FRAMES, profiler.getCount());
+        for (int age = 0; age < frames; age++) {
+            long nanos = Math.min(profiler.getSample(FrameProfiler.PHASE_FRAME, age), GRAPH_MAX_NANOS);
+            float x = left + (GRAPH_FRAMES - 1 - age) * 4;
+            int i = age * 4;
+            graphLines[i] = x;
+            graphLines[i + 1] = bottom;
+            graphLines[i + 2] = x;
+            graphLines[i + 3] = bottom - GRAPH_HEIGHT * nanos / GRAPH_MAX_NANOS;
+        }
+        profilerPaint.setColor(Color.GREEN);
+        canvas.drawLines(graphLines, 0, frames * 4, profilerPaint);
+
+        // Jank threshold line
+        float jankY = bottom - GRAPH_HEIGHT * profiler.getJankThresholdNanos() / GRAPH_MAX_NANOS;
+        profilerPaint.setColor(Color.RED);
+        canvas.drawLine(left, jankY, left + GRAPH_FRAMES * 4, jankY, profilerPaint);
     }
 
+    /**
+     * Formats a latency histogram like a phase line of the profiler overlay.
+     */
+    private static String latencyLine(String label, LatencyHistogram histogram) {
+        return String.format(Locale.US, "%-7s%5.1f %5.1f %5.1f n=%d", label,
+                histogram.getPercentile(50) / 1e6f, histogram.getPercentile(95) / 1e6f,
+                histogram.getPercentile(99) / 1e6f, histogram.getCount());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+/*
+ * This file contains the OverlayLayers class which prerenders the full-screen
+ * messages shown on top of the game: the game over and pause screens and the
+ * 3, 2, 1, GO! countdown. Each one is rendered once for the screen size, so a
+ * frame showing an overlay only copies a bitmap instead of measuring text,
+ * drawing icons and blurring shadows again.
+ *
+ * The class manages:
+ * - Game over and pause layers with their reload and home icons
+ * - Countdown frames with the glow shadow already applied
+ * - The reload and home button hit areas
+ *
+ */
+
+package com.example.theotherside;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+/**
+ * Overlays rendered once per screen size and copied onto every frame that shows them.
+ */
+public class OverlayLayers {
+    // Countdown frames, index 0 is "GO!"
+    private static final String[] COUNTDOWN_TEXT = {"GO!", "1", "2", "3"};
+    private static final float COUNTDOWN_GLOW = 15;
+    // Room around a countdown frame for the blurred glow
+    private static final int GLOW_MARGIN = 24;
+
+    private final int screenWidth, screenHeight;
+    private final int layerTop;
+    private final Bitmap gameOverLayer;
+    private final Bitmap pausedLayer;
+    private final Bitmap[] countdownFrames = new Bitmap[COUNTDOWN_TEXT.length];
+    private final float[] countdownLeft = new float[COUNTDOWN_TEXT.length];
+    private final float countdownTop;
+    private final RectF reloadButtonArea;
+    private final RectF homeButtonArea;
+    private final Paint paint = new Paint();
+    // Smooths the layers when they are scaled into a smaller render buffer
+    private final Paint layerPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * Renders every overlay for the given screen size.
+     *
+     * @param context - The context for loading the icons
+     * @param screenWidth - The width of the game screen
+     * @param screenHeight - The height of the game screen
+     */
+    public OverlayLayers(Context context, int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+
+        int iconSize = (int) (screenWidth * 0.15);
+        SpriteCache sprites = SpriteCache.getInstance(context);
+        Bitmap reloadIcon = sprites.getVector(R.drawable.ic_reload, iconSize);
+        Bitmap homeIcon = sprites.getVector(R.drawable.ic_home, iconSize);
+
+        // Button areas for touch detection, the same on both screens
+        float iconY = screenHeight / 2 + 150;
+        float padding = screenWidth * 0.1f;
+        float reloadX = (screenWidth / 2) - padding - reloadIcon.getWidth();
+        float homeX = (screenWidth / 2) + padding;
+        reloadButtonArea = new RectF(reloadX, iconY,
+                reloadX + reloadIcon.getWidth(), iconY + reloadIcon.getHeight());
+        homeButtonArea = new RectF(homeX, iconY,
+                homeX + homeIcon.getWidth(), iconY + homeIcon.getHeight());
+
+        // The layers span the dimmed band, and the icons if they reach below it
+        layerTop = screenHeight / 2 - 150;
+        int layerBottom = Math.max(screenHeight / 2 + 400, (int) Math.ceil(homeButtonArea.bottom));
+        gameOverLayer = renderMessage("GAME OVER", layerBottom - layerTop, reloadIcon, homeIcon);
+        pausedLayer = renderMessage("GAME PAUSED", layerBottom - layerTop, reloadIcon, homeIcon);
+
+        // Countdown text
+        Paint countPaint = new Paint();
+        countPaint.setColor(Color.WHITE);
+        countPaint.setTextSize(150);
+        countPaint.setTextAlign(Paint.Align.CENTER);
+        countPaint.setShadowLayer(COUNTDOWN_GLOW, 0, 0, Color.argb(180, 255, 165, 0));
+        Paint.FontMetrics metrics = countPaint.getFontMetrics();
+        int frameHeight = (int) Math.ceil(metrics.bottom - metrics.top) + 2 * GLOW_MARGIN;
+        float baseline = GLOW_MARGIN - metrics.top;
+        for (int i = 0; i < COUNTDOWN_TEXT.length; i++) {
+            String text = COUNTDOWN_TEXT[i];
+            int frameWidth = (int) Math.ceil(countPaint.measureText(text)) + 2 * GLOW_MARGIN;
+            Bitmap frame = Bitmap.createBitmap(frameWidth, frameHeight, Bitmap.Config.ARGB_8888);
+            new Canvas(frame).drawText(text, frameWidth / 2f, baseline, countPaint);
+            countdownFrames[i] = frame;
+            countdownLeft[i] = screenWidth / 2f - frameWidth / 2f;
+        }
+        countdownTop = screenHeight / 2f - baseline;
+    }
+
+    /**
+     * Renders a dimmed band with a centered message and the reload and home icons.
+     */
+    private Bitmap renderMessage(String message, int height, Bitmap reloadIcon, Bitmap homeIcon) {
+        Bitmap layer = Bitmap.createBitmap(screenWidth, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(layer);
+        // Draw in screen coordinates
+        canvas.translate(0, -layerTop);
+
+        // Semi-transparent overlay
+        paint.setColor(Color.argb(200, 0, 0, 0));
+        canvas.drawRect(0, screenHeight / 2 - 150, screenWidth, screenHeight / 2 + 400, paint);
+
+        // Message text
+        paint.setColor(Color.RED);
+        paint.setTextSize(100);
+        float textWidth = paint.measureText(message);
+        canvas.drawText(message, (screenWidth - textWidth) / 2, screenHeight / 2, paint);
+
+        canvas.drawBitmap(reloadIcon, reloadButtonArea.left, reloadButtonArea.top, paint);
+        canvas.drawBitmap(homeIcon, homeButtonArea.left, homeButtonArea.top, paint);
+        return layer;
+    }
+
+    /**
+     * Draws the game over message and buttons.
+     *
+     * @param canvas - The canvas to draw on
+     */
+    public void drawGameOver(Canvas canvas) {
+        canvas.drawBitmap(gameOverLayer, 0, layerTop, layerPaint);
+    }
+
+    /**
+     * Draws the pause message and buttons.
+     *
+     * @param canvas - The canvas to draw on
+     */
+    public void drawPaused(Canvas canvas) {
+        canvas.drawBitmap(pausedLayer, 0, layerTop, layerPaint);
+    }
+
+    /**
+     * Dims the screen and draws a countdown frame.
+     *
+     * @param canvas - The canvas to draw on
+     * @param countdownValue - 3, 2 or 1, or 0 and below for "GO!"
+     */
+    public void drawCountdown(Canvas canvas, int countdownValue) {
+        paint.setColor(Color.argb(120, 0, 0, 0));
+        canvas.drawRect(0, 0, screenWidth, screenHeight, paint);
+
+        int frame = Math.max(0, Math.min(countdownValue, countdownFrames.length - 1));
+        canvas.drawBitmap(countdownFrames[frame], countdownLeft[frame], countdownTop, layerPaint);
+    }
+
+    /**
+     * Returns the area of the reload button on the game over and pause screens.
+     *
+     * @return The hit area in screen coordinates
+     */
+    public RectF getReloadButtonArea() {
+        return reloadButtonArea;
+    }
+
+    /**
+     * Returns the area of the home button on the game over and pause screens.
+     *
+     * @return The hit area in screen coordinates
+     */
+    public RectF getHomeButtonArea() {
+        return homeButtonArea;
+    }
+}
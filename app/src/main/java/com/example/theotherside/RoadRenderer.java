@@ -0,0 +1,112 @@
+/*
+ * This file contains the RoadRenderer class which draws the scrolling road behind
+ * the game. Instead of keeping road.png as a full-screen bitmap, it decodes only
+ * one band of its rows, which repeats seamlessly, and tiles that band down the
+ * screen with an offset that follows the distance traveled. Only the rows that
+ * are on screen are copied, the band wraps around at the top.
+ *
+ * The class manages:
+ * - Decoding the repeating band of road.png at the screen width, opaque and 16-bit
+ * - Handing the tile back for reuse when the game view goes away
+ * - Drawing the visible rows for a scroll distance
+ *
+ */
+
+package com.example.theotherside;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Background made of one road tile repeated vertically and scrolled downwards.
+ */
+public class RoadRenderer {
+    // Rows 210 to 573 of road.png repeat: row 574 is the same as row 210, so the
+    // band joins itself without a seam. Pick a new band if the image changes
+    private static final int TILE_TOP = 210;
+    private static final int TILE_ROWS = 364;
+
+    private final BitmapDecoder decoder;
+    private Bitmap tile;
+    private final int screenWidth, screenHeight;
+    private final int tileHeight;
+    private final Rect src = new Rect();
+    private final Rect dst = new Rect();
+
+    /**
+     * Decodes the road tile at the screen width.
+     *
+     * @param context - The context for loading road.png
+     * @param screenWidth - The width of the game screen
+     * @param screenHeight - The height of the game screen
+     */
+    public RoadRenderer(Context context, int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        decoder = BitmapDecoder.getInstance(context);
+        tile = decodeTile();
+        tileHeight = tile.getHeight();
+    }
+
+    /**
+     * Decodes just the repeating rows of road.png, sampled and scaled to the
+     * screen width. The road is opaque, so it is kept as RGB_565 at half the
+     * size of ARGB_8888.
+     */
+    private Bitmap decodeTile() {
+        return decoder.decodeRows(R.drawable.road, TILE_TOP, TILE_ROWS, screenWidth, true);
+    }
+
+    /**
+     * Hands the tile back to the decoder for the next game to decode into.
+     * The tile is decoded again if the road is drawn after this.
+     */
+    public void release() {
+        decoder.release(tile);
+        tile = null;
+    }
+
+    /**
+     * Returns the height of one tile on screen, the period of the scrolling.
+     *
+     * @return The tile height in pixels
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Returns the number of bytes held by the tile.
+     *
+     * @return The tile's allocation size
+     */
+    public int getByteCount() {
+        return tile != null ? tile.getByteCount() : 0;
+    }
+
+    /**
+     * Fills the screen with the road scrolled down by the given distance.
+     *
+     * @param canvas - The canvas to draw on
+     * @param scroll - How far the road has moved down, in pixels
+     */
+    public void draw(Canvas canvas, double scroll) {
+        if (tile == null) {
+            tile = decodeTile();
+        }
+        // Screen row 0 shows this row of the tile, which wraps at the top
+        int offset = (int) (Math.round(scroll) % tileHeight);
+        int row = offset == 0 ? 0 : tileHeight - offset;
+        int y = 0;
+        while (y < screenHeight) {
+            int rows = Math.min(tileHeight - row, screenHeight - y);
+            src.set(0, row, screenWidth, row + rows);
+            dst.set(0, y, screenWidth, y + rows);
+            canvas.drawBitmap(tile, src, dst, null);
+            y += rows;
+            row = 0;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * This file contains the SpriteCache class which is a process-wide registry of
+ * decoded game sprites. Every drawable used by the game is decoded once per
+ * requested size and then shared by reference between all game objects.
+ * Sprites packed into the sprite atlas at build time are cut from the one
+ * decoded atlas texture instead of being decoded on their own.
+ *
+ * The class manages:
+ * - The sprite atlas texture and its region table, decoded once
+ * - Decoding bitmap drawables at native size
+ * - Variants decoded or cut at a requested size
+ * - Rasterising vector drawables into bitmaps
+ * - Hit and miss counters for cache lookups
+ * - Singleton pattern to ensure a single instance
+ */
+
+package com.example.theotherside;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.drawable.Drawable;
+import android.util.LongSparseArray;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.theotherside.core.AtlasTable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared cache of decoded sprites keyed by drawable resource and target size.
+ * Game objects get their bitmaps from here so spawning a cart or a coin never
+ * touches BitmapFactory once the sprite has been decoded the first time.
+ */
+public class SpriteCache {
+    private static SpriteCache instance;
+
+    private final Context context;
+    private final Resources resources;
+    private final LongSparseArray<Bitmap> sprites = new LongSparseArray<>();
+
+    // Written by the packSpriteAtlas task of the app build
+    private static final String ATLAS_TEXTURE = "sprite_atlas.png";
+    private static final String ATLAS_TABLE = "sprite_atlas.bin";
+    private Bitmap atlas;
+    private AtlasTable atlasTable;
+
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Private constructor, holds on to the application context only.
+     *
+     * @param context - Any context, the application context is kept
+     */
+    private SpriteCache(Context context) {
+        this.context = context.getApplicationContext();
+        this.resources = this.context.getResources();
+    }
+
+    /**
+     * Returns the singleton instance of SpriteCache.
+     *
+     * @param context - The application context
+     * @return The SpriteCache instance
+     */
+    public static synchronized SpriteCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SpriteCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the sprite for a bitmap drawable at its native decoded size.
+     *
+     * @param resId - The drawable resource ID
+     * @return The shared decoded bitmap
+     */
+    public synchronized Bitmap get(int resId) {
+        long key = key(resId, 0, 0);
+        Bitmap bitmap = sprites.get(key);
+        if (bitmap != null) {
+            hitCount++;
+            return bitmap;
+        }
+        missCount++;
+        int region = getAtlasRegion(resId);
+        if (region >= 0) {
+            bitmap = cut(region, Math.round(atlasTable.getRegionWidth(region) * getAtlasScale()),
+                    Math.round(atlasTable.getRegionHeight(region) * getAtlasScale()));
+        } else {
+            bitmap = BitmapFactory.decodeResource(resources, resId);
+        }
+        if (bitmap == null) {
+            throw new RuntimeException("did not load sprite " + resources.getResourceEntryName(resId));
+        }
+        sprites.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Returns the sprite for a bitmap drawable scaled to the given size.
+     * Packed sprites are cut from the atlas, others are sampled and scaled to
+     * the size while decoding.
+     *
+     * @param resId - The drawable resource ID
+     * @param width - The target width in pixels
+     * @param height - The target height in pixels
+     * @return The shared scaled bitmap
+     */
+    public synchronized Bitmap get(int resId, int width, int height) {
+        long key = key(resId, width, height);
+        Bitmap bitmap = sprites.get(key);
+        if (bitmap != null) {
+            hitCount++;
+            return bitmap;
+        }
+        int region = getAtlasRegion(resId);
+        if (region >= 0) {
+            // Cut straight to the target size, without a native sized copy
+            missCount++;
+            bitmap = cut(region, width, height);
+            sprites.put(key, bitmap);
+            return bitmap;
+        }
+        // Decoded straight to the target size, without a native sized copy
+        missCount++;
+        bitmap = BitmapDecoder.getInstance(context).decodeResource(resId, width, height, false);
+        sprites.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Returns the sprite atlas texture, decoding it on first use. Its sprites
+     * are drawn as sub-rectangles given by getAtlasTable().
+     *
+     * @return The shared atlas bitmap
+     */
+    public synchronized Bitmap getAtlas() {
+        loadAtlas();
+        return atlas;
+    }
+
+    /**
+     * Returns the regions of the sprites in the atlas texture.
+     *
+     * @return The region table
+     */
+    public synchronized AtlasTable getAtlasTable() {
+        loadAtlas();
+        return atlasTable;
+    }
+
+    /**
+     * Finds the region of a drawable in the atlas.
+     *
+     * @param resId - The drawable resource ID
+     * @return The region index in getAtlasTable(), or -1 if the drawable is not packed
+     */
+    public synchronized int getAtlasRegion(int resId) {
+        loadAtlas();
+        return atlasTable.indexOf(resources.getResourceEntryName(resId));
+    }
+
+    /**
+     * Returns the size of an atlas pixel on screen. The packed drawables are
+     * mdpi resources, which decodeResource() would scale by the display
+     * density, while the atlas asset is decoded unscaled.
+     *
+     * @return The display density
+     */
+    public float getAtlasScale() {
+        return resources.getDisplayMetrics().density;
+    }
+
+    private void loadAtlas() {
+        if (atlas != null) {
+            return;
+        }
+        try (InputStream in = resources.getAssets().open(ATLAS_TABLE)) {
+            atlasTable = AtlasTable.read(new DataInputStream(in));
+        } catch (IOException e) {
+            throw new RuntimeException("did not load the sprite atlas table", e);
+        }
+        try (InputStream in = resources.getAssets().open(ATLAS_TEXTURE)) {
+            atlas = BitmapFactory.decodeStream(in);
+        } catch (IOException e) {
+            throw new RuntimeException("did not load the sprite atlas", e);
+        }
+        if (atlas == null) {
+            throw new RuntimeException("did not decode the sprite atlas");
+        }
+    }
+
+    /**
+     * Copies an atlas region into its own bitmap of the given size, for
+     * drawing code that takes whole bitmaps.
+     */
+    private Bitmap cut(int region, int width, int height) {
+        int regionWidth = atlasTable.getRegionWidth(region);
+        int regionHeight = atlasTable.getRegionHeight(region);
+        Matrix scale = new Matrix();
+        scale.setScale((float) width / regionWidth, (float) height / regionHeight);
+        return Bitmap.createBitmap(atlas, atlasTable.getX(region), atlasTable.getY(region),
+                regionWidth, regionHeight, scale, true);
+    }
+
+    /**
+     * Returns a vector drawable rasterised into a square bitmap of the given size.
+     *
+     * @param vectorResId - The vector drawable resource ID
+     * @param size - The width and height of the bitmap in pixels
+     * @return The shared rasterised bitmap
+     */
+    public synchronized Bitmap getVector(int vectorResId, int size) {
+        long key = key(vectorResId, size, size);
+        Bitmap bitmap = sprites.get(key);
+        if (bitmap != null) {
+            hitCount++;
+            return bitmap;
+        }
+        missCount++;
+        Drawable vectorDrawable = ContextCompat.getDrawable(context, vectorResId);
+        bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        vectorDrawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+        vectorDrawable.draw(canvas);
+        sprites.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return The hit count
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to decode or rasterise a sprite.
+     *
+     * @return The miss count
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of sprites currently held by the cache.
+     *
+     * @return The number of cached bitmaps
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * Drops every cached sprite and resets the counters.
+     * Bitmaps still referenced by game objects stay valid.
+     */
+    public synchronized void clear() {
+        sprites.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Packs a resource ID and a target size into a single cache key.
+     * A size of 0 x 0 means the native decoded size.
+     */
+    private static long key(int resId, int width, int height) {
+        return ((long) resId << 32) | ((long) (width & 0xFFFF) << 16) | (height & 0xFFFF);
+    }
+}
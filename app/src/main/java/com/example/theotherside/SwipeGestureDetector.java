@@ -1,28 +1,32 @@
 /*
- * This file contains the SwipeGestureDetector class which extends GestureDetector.SimpleOnGestureListener
- * to handle swipe gesture detection for the game interface. The class processes touch
- * events to determine horizontal swipe direction and notifies the GameView of these actions.
+ * This file contains the SwipeGestureDetector class which feeds the touch events
+ * of the game view into a SwipeRecognizer, including the historical samples that
+ * Android batches into each move event, and forwards the lane changes it commits
+ * to the GameView. Lane changes happen while the finger is still moving.
  *
  * The class manages:
- * - Touch event processing for swipe detection
- * - Direction determination (left vs right)
- * - Threshold-based qualification of swipe gestures
+ * - Translating MotionEvents into recognizer samples in the virtual render space
+ * - Converting event times to the System.nanoTime() time base
  * - Communication with GameView for swipe event callbacks
  *
  */
 
 package com.example.theotherside;
 
-import android.view.GestureDetector;
 import android.view.MotionEvent;
 
-public class SwipeGestureDetector extends GestureDetector.SimpleOnGestureListener {
-    // Threshold values for swipe detection in pixels
-    private static final int SWIPE_DISTANCE_THRESHOLD_PX = 100;
+import com.example.theotherside.core.InputRing;
+import com.example.theotherside.core.RenderResolution;
+import com.example.theotherside.core.SwipeRecognizer;
+
+public class SwipeGestureDetector implements SwipeRecognizer.Listener {
+    // Minimum swipe speed in view pixels per second
     private static final int SWIPE_VELOCITY_THRESHOLD_PX_PER_SEC = 100;
 
     // Reference to the game view for callback methods
-    private GameView gameViewReference;
+    private final GameView gameViewReference;
+    private final RenderResolution resolution;
+    private final SwipeRecognizer recognizer;
 
     /**
      * Constructs a new SwipeGestureDetector connected to the
@@ -30,60 +34,82 @@ public class SwipeGestureDetector extends GestureDetector.SimpleOnGestureListene
      *
      * @param gameViewReference - the GameView instance that will receive
      *                   swipe event callbacks
+     * @param resolution - maps touch coordinates into the virtual space
+     * @param minDistance - the sideways distance in virtual pixels that changes a lane
+     * @param laneWidth - the width of a lane in virtual pixels, the further
+     *                   distance for each next lane of the same swipe
      */
-    public SwipeGestureDetector(GameView gameViewReference) {
+    public SwipeGestureDetector(GameView gameViewReference, RenderResolution resolution,
+                                float minDistance, float laneWidth) {
         this.gameViewReference = gameViewReference;
+        this.resolution = resolution;
+        this.recognizer = new SwipeRecognizer(minDistance, laneWidth,
+                SWIPE_VELOCITY_THRESHOLD_PX_PER_SEC * resolution.getScale(), this);
     } //SwipeGestureDetector
 
     /**
-     * Called when the user performs a down motion event.
-     * Always returns true to indicate the event was handled.
+     * Feeds a touch event to the recognizer. Move events are fed sample by
+     * sample, the historical ones first, so a fast swipe commits as early as
+     * its samples allow.
      *
-     * @param touchEvent - the MotionEvent that contains the down action
-     * @return - true to indicate event was handled
+     * @param touchEvent - the MotionEvent to process
+     * @return - true if the event belonged to a single-finger gesture
      */
-    @Override
-    public boolean onDown(MotionEvent touchEvent) {
-        return true;
+    public boolean onTouchEvent(MotionEvent touchEvent) {
+        switch (touchEvent.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                recognizer.down(x(touchEvent.getX()), y(touchEvent.getY()), toNanos(touchEvent.getEventTime()));
+                return true;
+
+            case MotionEvent.ACTION_MOVE:
+                for (int h = 0; h < touchEvent.getHistorySize(); h++) {
+                    recognizer.move(x(touchEvent.getHistoricalX(h)), y(touchEvent.getHistoricalY(h)),
+                            toNanos(touchEvent.getHistoricalEventTime(h)));
+                }
+                recognizer.move(x(touchEvent.getX()), y(touchEvent.getY()), toNanos(touchEvent.getEventTime()));
+                return true;
+
+            case MotionEvent.ACTION_UP:
+                recognizer.up(x(touchEvent.getX()), y(touchEvent.getY()), toNanos(touchEvent.getEventTime()));
+                return true;
+
+            case MotionEvent.ACTION_POINTER_DOWN:
+            case MotionEvent.ACTION_CANCEL:
+                // A second finger or a lost touch ends the swipe
+                recognizer.cancel();
+                return false;
+        }
+        return false;
     }
 
     /**
-     * Detects fling gestures and determines if they qualify as
-     * left or right swipes based on distance moved and velocity.
-     * Only horizontal swipes that meet the threshold criteria
-     * will trigger callbacks to the GameView.
+     * Forwards a committed lane change to the game view.
      *
-     * @param startTouchEvent - first down motion event that started the fling
-     * @param endTouchEvent - move motion event that triggered the fling
-     * @param horizontalVelocity - velocity of the fling on the X axis (pixels/second)
-     * @param verticalVelocity - velocity of the fling on the Y axis (pixels/second)
-     * @return - true if the fling was handled, false otherwise
+     * @param direction - InputRing.SWIPE_LEFT or InputRing.SWIPE_RIGHT
+     * @param timeNanos - the time of the sample that committed the change
      */
     @Override
-    public boolean onFling(MotionEvent startTouchEvent, MotionEvent endTouchEvent,
-                           float horizontalVelocity, float verticalVelocity) {
-        boolean swipeDetected = false;
-        try {
-            float verticalDistanceMoved = endTouchEvent.getY() - startTouchEvent.getY();
-            float horizontalDistanceMoved = endTouchEvent.getX() - startTouchEvent.getX();
-
-            // Check if the gesture was more horizontal than vertical
-            if (Math.abs(horizontalDistanceMoved) > Math.abs(verticalDistanceMoved)) {
-                if (Math.abs(horizontalDistanceMoved) > SWIPE_DISTANCE_THRESHOLD_PX &&
-                        Math.abs(horizontalVelocity) > SWIPE_VELOCITY_THRESHOLD_PX_PER_SEC) {
-                    if (horizontalDistanceMoved > 0) {
-                        // Right swipe
-                        gameViewReference.onSwipeRight();
-                    } else {
-                        // Left swipe
-                        gameViewReference.onSwipeLeft();
-                    }
-                    swipeDetected = true;
-                }
-            }
-        } catch (Exception exception) {
-            exception.printStackTrace();
+    public void onSwipe(int direction, long timeNanos) {
+        if (direction == InputRing.SWIPE_RIGHT) {
+            gameViewReference.onSwipeRight(timeNanos);
+        } else {
+            gameViewReference.onSwipeLeft(timeNanos);
         }
-        return swipeDetected;
     }
-}
\ No newline at end of file
+
+    private float x(float viewX) {
+        return resolution.toVirtualX(viewX);
+    }
+
+    private float y(float viewY) {
+        return resolution.toVirtualY(viewY);
+    }
+
+    /**
+     * Converts an event time from the uptime clock, which is the monotonic
+     * clock System.nanoTime() reads, to nanoseconds.
+     */
+    private static long toNanos(long eventTimeMillis) {
+        return eventTimeMillis * 1_000_000L;
+    }
+}
@@ -0,0 +1,27 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// Run with ./gradlew :core:jmh, results are written as JSON so they can be
+// compared between releases
+jmh {
+    jmhVersion = libs.versions.jmh
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    humanOutputFile = layout.buildDirectory.file("reports/jmh/human.txt")
+    includeTests = false
+    includes = providers.gradleProperty("jmhInclude").map { listOf(it) }.orElse(listOf(".*"))
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+}
@@ -0,0 +1,71 @@
+/*
+ * This file contains the BenchmarkWorlds helper which builds worlds with a known
+ * number of carts and coins for the JMH benchmarks.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.Random;
+
+/**
+ * Factory for populated worlds used by the benchmarks.
+ */
+final class BenchmarkWorlds {
+    static final int SCREEN_WIDTH = 1080;
+    static final int SCREEN_HEIGHT = 1920;
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * Creates a world with phone-like sprite sizes on the given clock.
+     *
+     * @param laneCount - The number of lanes
+     * @param clock - The clock driving the world
+     * @param seed - The seed for spawning
+     * @return A reset world without any carts or coins
+     */
+    static World create(int laneCount, Clock clock, long seed) {
+        World world = new World(SCREEN_WIDTH, SCREEN_HEIGHT, laneCount, clock, Rng.seeded(seed));
+        float laneWidth = (float) SCREEN_WIDTH / laneCount;
+        world.setSpriteSize(Entity.TYPE_CART, laneWidth * 0.6f, 220);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, laneWidth * 0.6f, 240);
+        world.setSpriteSize(Entity.TYPE_COIN, 90, 90);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, laneWidth * 0.5f, 140);
+        world.reset();
+        return world;
+    }
+
+    /**
+     * Adds carts and coins spread over every lane and the top 70% of the
+     * screen, so none of them touches the chicken or leaves the screen soon.
+     *
+     * @param world - The world to populate
+     * @param cartCount - The number of carts to add
+     * @param coinCount - The number of coins to add
+     * @param seed - The seed for positions
+     */
+    static void populate(World world, int cartCount, int coinCount, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < cartCount; i++) {
+            world.spawnCart(i % world.getLaneCount(), random.nextInt(10));
+        }
+        for (int i = 0; i < coinCount; i++) {
+            world.spawnCoin(random.nextInt(world.getLaneCount()));
+        }
+        scatter(world.getCarts(), random);
+        scatter(world.getCoins(), random);
+    }
+
+    private static void scatter(EntityStore store, Random random) {
+        for (int lane = 0; lane < store.getLaneCount(); lane++) {
+            for (int i = store.first(lane); i < store.end(lane); i++) {
+                store.y[i] = -store.height[i] + random.nextFloat() * SCREEN_HEIGHT * 0.7f;
+            }
+        }
+        // The positions were changed behind the world's back, restore the lane order
+        store.sort();
+        store.savePositions();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file contains the EntityQueryBenchmark class which measures the
+ * per-entity queries of the simulation: hitbox collision, lane lookup and
+ * the per-lane topmost entity used by spawning.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a query against every cart per invocation, like one pass of a step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityQueryBenchmark {
+    @Param({"4", "16", "64"})
+    public int entityCount;
+
+    @Param({"4", "6", "8"})
+    public int laneCount;
+
+    private World world;
+
+    @Setup
+    public void setUp() {
+        world = BenchmarkWorlds.create(laneCount, new ManualClock(), 42);
+        BenchmarkWorlds.populate(world, entityCount, 0, 7);
+    }
+
+    @Benchmark
+    public int isColliding() {
+        Entity chicken = world.getChicken();
+        EntityStore carts = world.getCarts();
+        int hits = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            if (carts.findOverlap(chicken, lane, lane, Float.NEGATIVE_INFINITY) >= 0) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int getLaneFromX() {
+        EntityStore carts = world.getCarts();
+        int lanes = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            for (int i = carts.first(lane), end = carts.end(lane); i < end; i++) {
+                lanes += world.getLaneFromX(carts.x[i], carts.width[i]);
+            }
+        }
+        return lanes;
+    }
+
+    @Benchmark
+    public float laneTopY() {
+        EntityStore carts = world.getCarts();
+        float top = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            top += Math.min(carts.topY(lane), BenchmarkWorlds.SCREEN_HEIGHT);
+        }
+        return top;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file contains the HudTextBenchmark class which measures the per-frame
+ * work of the HUD numbers. The HUD compares the score and coin count of each
+ * snapshot with those its cached panel shows, and only when they differ lays
+ * them out again with NumberLayout, the digit split and widths GlyphStrip
+ * draws from. The strings the HUD used to build every frame are kept as the
+ * baseline.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of HUD text per invocation, with the distance growing every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HudTextBenchmark {
+    @Param({"0", "1234", "99999"})
+    public int score;
+
+    // Distance traveled per frame; the score is distance / 100, so it changes
+    // about every 100 / distancePerFrame frames
+    @Param({"2.5"})
+    public float distancePerFrame;
+
+    private final int coinsCollected = 17;
+    private float distance;
+
+    // Digit advances of the HUD text, Roboto digits are all 0.556 em wide at 50 px
+    private final NumberLayout numbers = new NumberLayout(
+            new float[] {27.8f, 27.8f, 27.8f, 27.8f, 27.8f, 27.8f, 27.8f, 27.8f, 27.8f, 27.8f});
+    private final int[] digits = new int[NumberLayout.MAX_DIGITS];
+    private int drawnScore = -1, drawnCoins = -1;
+    private float scoreWidth;
+
+    @Setup
+    public void setUp() {
+        distance = score * 100f;
+    }
+
+    @Benchmark
+    public float glyphPanel() {
+        distance += distancePerFrame;
+        int frameScore = Math.round(distance / 100);
+        // Same check as HUD.drawPanel(), the panel is only rendered on a change
+        if (frameScore != drawnScore || coinsCollected != drawnCoins) {
+            // The number work of HUD.renderPanel(): the coin count is drawn
+            // digit by digit, the score is measured for centering and drawn
+            NumberLayout.split(coinsCollected, digits);
+            scoreWidth = numbers.getWidth(frameScore);
+            NumberLayout.split(frameScore, digits);
+            drawnScore = frameScore;
+            drawnCoins = coinsCollected;
+        }
+        return scoreWidth + digits[0];
+    }
+
+    /**
+     * Baseline: the strings the HUD built every frame before the glyph strip.
+     */
+    @Benchmark
+    public int buildHudText() {
+        distance += distancePerFrame;
+        String coinText = String.valueOf(coinsCollected);
+        String scoreText = "SCORE: " + Math.round(distance / 100);
+        return coinText.length() + scoreText.length();
+    }
+}
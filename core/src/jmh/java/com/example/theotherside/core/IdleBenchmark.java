@@ -0,0 +1,112 @@
+/*
+ * This file contains the IdleBenchmark class which compares a game thread that
+ * keeps drawing at 60 Hz on the pause screen with one that parks on an IdleGate
+ * and only draws on input.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One paused minute per invocation, on virtual time. Waiting costs no CPU, so
+ * the reported time is the game thread's CPU time per paused minute, and the
+ * frames counter shows how many frames were drawn in it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdleBenchmark {
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    private static final long MINUTE_NANOS = 60_000_000_000L;
+
+    @Param({"false", "true"})
+    public boolean idle;
+
+    // The player taps the pause screen every this many seconds
+    @Param({"5"})
+    public int inputSeconds;
+
+    // Stand-in for locking, drawing and posting one frame on the device,
+    // scale it with the draw and post times of the frame profiler
+    @Param({"20000"})
+    public int frameTokens;
+
+    /**
+     * Frames drawn and paused minutes simulated, reported next to the time per
+     * paused minute. JMH sums them over iterations, frames / minutes is the
+     * number of frames drawn per paused minute.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Frames {
+        public long frames;
+        public long minutes;
+    }
+
+    private ManualClock clock;
+    private IdleGate gate;
+    private World world;
+
+    @Setup
+    public void setUp() {
+        clock = new ManualClock();
+        gate = new IdleGate(clock);
+        world = BenchmarkWorlds.create(4, clock, 42);
+        BenchmarkWorlds.populate(world, 16, 8, 7);
+    }
+
+    @Benchmark
+    public long pausedMinute(Frames counters) {
+        long end = clock.nanoTime() + MINUTE_NANOS;
+        long inputInterval = inputSeconds * 1_000_000_000L;
+        long nextInput = clock.nanoTime() + inputInterval;
+        long frames = 0;
+
+        // The pause screen itself is always drawn once
+        gate.requestRedraw();
+        while (clock.nanoTime() < end) {
+            if (idle && !gate.takeRedraw()) {
+                // Parked until the next input
+                clock.advance(Math.min(nextInput, end) - clock.nanoTime());
+            } else {
+                drawFrame();
+                frames++;
+                clock.advance(FRAME_NANOS);
+            }
+            if (clock.nanoTime() >= nextInput) {
+                gate.requestRedraw();
+                nextInput += inputInterval;
+            }
+        }
+        counters.frames += frames;
+        counters.minutes++;
+        return frames;
+    }
+
+    /**
+     * Walks every entity like a draw pass would, then burns the frame cost.
+     */
+    private void drawFrame() {
+        float sum = 0;
+        EntityStore carts = world.getCarts();
+        for (int lane = 0; lane < carts.getLaneCount(); lane++) {
+            for (int i = carts.first(lane); i < carts.end(lane); i++) {
+                sum += carts.renderX(i, 1f) + carts.renderY(i, 1f);
+            }
+        }
+        Blackhole.consumeCPU(frameTokens + ((int) sum & 1));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file contains the MovementBenchmark class which measures the per-step
+ * movement, collision and culling pass over every cart and coin.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the entities for a batch of steps, then puts them back where they
+ * started so the entity count never changes. Reported time is per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovementBenchmark {
+    private static final int STEPS = 100;
+
+    @Param({"4", "16", "64"})
+    public int entityCount;
+
+    @Param({"4", "6", "8"})
+    public int laneCount;
+
+    private World world;
+    private float[] cartStartY;
+    private float[] coinStartY;
+
+    @Setup
+    public void setUp() {
+        world = BenchmarkWorlds.create(laneCount, new ManualClock(), 42);
+        BenchmarkWorlds.populate(world, entityCount, entityCount / 2, 7);
+        cartStartY = startY(world.getCarts());
+        coinStartY = startY(world.getCoins());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public World move() {
+        for (int i = 0; i < STEPS; i++) {
+            world.moveCarts();
+            world.moveCoins();
+        }
+        restoreY(world.getCarts(), cartStartY);
+        restoreY(world.getCoins(), coinStartY);
+        return world;
+    }
+
+    private static float[] startY(EntityStore store) {
+        return store.y.clone();
+    }
+
+    private static void restoreY(EntityStore store, float[] y) {
+        System.arraycopy(y, 0, store.y, 0, y.length);
+    }
+}
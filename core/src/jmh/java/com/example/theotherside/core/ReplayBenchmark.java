@@ -0,0 +1,72 @@
+/*
+ * This file contains the ReplayBenchmark class which replays one recorded run
+ * per invocation. The run is the same in every fork and on every machine, so its
+ * time is comparable between builds as a regression check of the whole simulation.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole replayed runs, recorded in setup from a player that swipes at random
+ * and restarts after a crash until the run is long enough.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReplayBenchmark {
+    @Param({"4"})
+    public int laneCount;
+
+    // Shortest run to record, in seconds of game time
+    @Param({"60"})
+    public int minSeconds;
+
+    private Session session;
+    private SessionRecording recording;
+
+    @Setup
+    public void setUp() {
+        session = new Session(BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT, laneCount);
+        float laneWidth = (float) BenchmarkWorlds.SCREEN_WIDTH / laneCount;
+        World world = session.getWorld();
+        world.setSpriteSize(Entity.TYPE_CART, laneWidth * 0.6f, 220);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, laneWidth * 0.6f, 240);
+        world.setSpriteSize(Entity.TYPE_COIN, 90, 90);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, laneWidth * 0.5f, 140);
+
+        long minSteps = minSeconds * 1_000_000_000L / World.STEP_NANOS;
+        Random player = new Random(42);
+        for (long seed = 1; recording == null || recording.getStepCount() < minSteps; seed++) {
+            session.start(seed);
+            while (!world.isGameOver() && session.getStepIndex() < 10 * minSteps) {
+                if (player.nextInt(30) == 0) {
+                    session.move(player.nextBoolean() ? InputRing.SWIPE_LEFT : InputRing.SWIPE_RIGHT);
+                }
+                session.step();
+            }
+            if (recording == null || session.getRecording().getStepCount() > recording.getStepCount()) {
+                recording = session.getRecording().copy();
+            }
+        }
+    }
+
+    @Benchmark
+    public float replayRun() {
+        session.startReplay(recording);
+        session.replayToEnd();
+        return session.getWorld().getDistanceTraveled();
+    }
+}
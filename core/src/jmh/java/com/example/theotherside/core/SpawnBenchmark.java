@@ -0,0 +1,58 @@
+/*
+ * This file contains the SpawnBenchmark class which measures the cart and coin
+ * spawn decisions: lane danger, escape lanes and busy lanes.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One spawn decision per invocation, with the number of entities kept fixed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnBenchmark {
+    @Param({"4", "16", "64"})
+    public int entityCount;
+
+    @Param({"4", "6", "8"})
+    public int laneCount;
+
+    private World world;
+    private long currentTime;
+
+    @Setup
+    public void setUp() {
+        world = BenchmarkWorlds.create(laneCount, new ManualClock(), 42);
+        BenchmarkWorlds.populate(world, entityCount, entityCount / 2, 7);
+    }
+
+    @Benchmark
+    public World spawnCart() {
+        // Every call is past the spawn interval, and every third call past the force spawn timeout
+        currentTime += 2000;
+        world.spawnCarts(currentTime);
+        world.trimEntities(entityCount, entityCount / 2);
+        return world;
+    }
+
+    @Benchmark
+    public World spawnCoin() {
+        currentTime += 2500;
+        world.spawnCoins(currentTime);
+        world.trimEntities(entityCount, entityCount / 2);
+        return world;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file contains the SpriteBatchBenchmark class which compares drawing a
+ * snapshot with one drawBitmap() per entity against drawing it through a
+ * SpriteBatch, one drawVertices() per large group of sprites. There is no canvas
+ * on the JVM, so every draw call burns a fixed cost standing in for the setup a
+ * software canvas pays per call, and the counters report the calls per frame.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame's sprite draw calls per invocation, for a populated snapshot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpriteBatchBenchmark {
+    @Param({"8", "32"})
+    public int cartCount;
+
+    @Param({"8", "32"})
+    public int coinCount;
+
+    @Param({"8"})
+    public int minBatch;
+
+    // Stand-in for the fixed setup cost of one draw call on a software canvas
+    @Param({"500"})
+    public int callTokens;
+
+    /**
+     * Draw calls and frames, summed by JMH over iterations. drawCalls / frames
+     * is the number of draw calls per frame.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class DrawCalls {
+        public long drawCalls;
+        public long frames;
+    }
+
+    private WorldSnapshot snapshot;
+    private SpriteBatch batch;
+
+    @Setup
+    public void setUp() {
+        World world = BenchmarkWorlds.create(4, new ManualClock(), 42);
+        BenchmarkWorlds.populate(world, cartCount, coinCount, 7);
+        snapshot = new WorldSnapshot(world);
+        snapshot.capture(world, 0);
+        batch = new SpriteBatch(16, minBatch);
+        float laneWidth = (float) BenchmarkWorlds.SCREEN_WIDTH / world.getLaneCount();
+        batch.setSpriteSize(Entity.TYPE_CART, laneWidth * 0.6f, 220);
+        batch.setSpriteSize(Entity.TYPE_CART_HAY, laneWidth * 0.6f, 240);
+        batch.setSpriteSize(Entity.TYPE_COIN, 90, 90);
+        batch.setSpriteSize(Entity.TYPE_CHICKEN, laneWidth * 0.5f, 140);
+    }
+
+    @Benchmark
+    public long perSprite(DrawCalls counters) {
+        long calls = 0;
+        for (int i = 0, count = snapshot.size(); i < count; i++) {
+            drawCall(snapshot.renderX(i, 0.5f) + snapshot.renderY(i, 0.5f));
+            calls++;
+        }
+        counters.drawCalls += calls;
+        counters.frames++;
+        return calls;
+    }
+
+    @Benchmark
+    public long batched(DrawCalls counters) {
+        batch.plan(snapshot, 0.5f);
+        long calls = 0;
+        for (int type : SpriteBatch.DRAW_ORDER) {
+            if (batch.isBatched(type)) {
+                drawCall(batch.getVertices(type)[batch.getVertexCount(type) - 1]);
+                calls++;
+                continue;
+            }
+            for (int i = 0, count = batch.getCount(type); i < count; i++) {
+                drawCall(batch.getLeft(type, i) + batch.getTop(type, i));
+                calls++;
+            }
+        }
+        counters.drawCalls += calls;
+        counters.frames++;
+        return calls;
+    }
+
+    private void drawCall(float position) {
+        Blackhole.consumeCPU(callTokens + ((int) position & 1));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file contains the WorldStepBenchmark class which measures complete
+ * simulation steps on virtual time, spawning included.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One fixed step per invocation. The world restarts whenever the idle chicken
+ * is hit, so the measurement covers whole runs from an empty road.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WorldStepBenchmark {
+    @Param({"4", "6", "8"})
+    public int laneCount;
+
+    private ManualClock clock;
+    private World world;
+
+    @Setup
+    public void setUp() {
+        clock = new ManualClock();
+        world = BenchmarkWorlds.create(laneCount, clock, 42);
+    }
+
+    @Benchmark
+    public World step() {
+        clock.advance(World.STEP_NANOS);
+        world.step();
+        if (world.isGameOver()) {
+            world.reset();
+        }
+        return world;
+    }
+}
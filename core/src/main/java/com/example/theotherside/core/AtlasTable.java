@@ -0,0 +1,180 @@
+/*
+ * This file contains the AtlasTable class which holds the region table of a
+ * sprite atlas: the size of the packed texture and the named rectangle each
+ * sprite occupies in it. The table is written next to the atlas PNG by the
+ * packSpriteAtlas task of the app build, and read at game start so every sprite
+ * can be drawn as a sub-rectangle of one decoded texture.
+ *
+ * The class manages:
+ * - The atlas size and the name and rectangle of each region
+ * - Looking regions up by sprite name
+ * - The binary form shared with the packer of the app build
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Named sprite rectangles of an atlas texture, in texture pixels.
+ */
+public class AtlasTable {
+    // "TOSA", followed by the format version. The packer in app/build.gradle.kts
+    // writes the same layout, the two must change together
+    private static final int MAGIC = 0x544F5341;
+    private static final int VERSION = 1;
+
+    private final int width, height;
+    private String[] names = new String[8];
+    // x, y, width and height of each region
+    private int[] rects = new int[8 * 4];
+    private int size;
+
+    /**
+     * Creates an empty table for an atlas of the given size.
+     *
+     * @param width - The width of the atlas texture
+     * @param height - The height of the atlas texture
+     */
+    public AtlasTable(int width, int height) {
+        if (width <= 0 || height <= 0 || width > 0xFFFF || height > 0xFFFF) {
+            throw new IllegalArgumentException("bad atlas size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Adds the region of a sprite.
+     *
+     * @param name - The sprite name, the drawable name of the packed PNG
+     * @param x - The left edge in the atlas
+     * @param y - The top edge in the atlas
+     * @param w - The width of the sprite
+     * @param h - The height of the sprite
+     */
+    public void add(String name, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0 || x < 0 || y < 0 || x + w > width || y + h > height) {
+            throw new IllegalArgumentException("region " + name + " outside the atlas");
+        }
+        if (indexOf(name) >= 0) {
+            throw new IllegalArgumentException("duplicate region " + name);
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            rects = Arrays.copyOf(rects, size * 2 * 4);
+        }
+        names[size] = name;
+        rects[size * 4] = x;
+        rects[size * 4 + 1] = y;
+        rects[size * 4 + 2] = w;
+        rects[size * 4 + 3] = h;
+        size++;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of regions.
+     *
+     * @return The number of packed sprites
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the region of a sprite.
+     *
+     * @param name - The sprite name
+     * @return The index of the region, or -1 if the sprite is not in the atlas
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public int getX(int index) {
+        return rects[index * 4];
+    }
+
+    public int getY(int index) {
+        return rects[index * 4 + 1];
+    }
+
+    public int getRegionWidth(int index) {
+        return rects[index * 4 + 2];
+    }
+
+    public int getRegionHeight(int index) {
+        return rects[index * 4 + 3];
+    }
+
+    /**
+     * Writes the table in its binary form, a header and 8 bytes plus the name
+     * per region.
+     *
+     * @param out - The output to write to
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(width);
+        out.writeShort(height);
+        out.writeShort(size);
+        for (int i = 0; i < size; i++) {
+            out.writeUTF(names[i]);
+            for (int k = 0; k < 4; k++) {
+                out.writeShort(rects[i * 4 + k]);
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by write() or by the packer of the app build.
+     *
+     * @param in - The input to read from
+     * @return The table
+     * @throws IOException if reading fails or the input is not an atlas table
+     */
+    public static AtlasTable read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not an atlas table");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported atlas table version " + version);
+        }
+        AtlasTable table;
+        try {
+            table = new AtlasTable(in.readUnsignedShort(), in.readUnsignedShort());
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                table.add(in.readUTF(), in.readUnsignedShort(), in.readUnsignedShort(),
+                        in.readUnsignedShort(), in.readUnsignedShort());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("malformed atlas table", e);
+        }
+        return table;
+    }
+}
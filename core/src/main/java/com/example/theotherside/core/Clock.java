@@ -0,0 +1,26 @@
+/*
+ * This file contains the Clock interface which is the time source used by the
+ * game simulation. Swapping the clock lets the simulation run on real time on a
+ * device and on virtual time in tests and benchmarks.
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Monotonic time source in nanoseconds.
+ */
+public interface Clock {
+    /**
+     * Clock backed by System.nanoTime().
+     */
+    Clock SYSTEM = System::nanoTime;
+
+    /**
+     * Returns the current time in nanoseconds. Only differences between
+     * two readings are meaningful.
+     *
+     * @return The current time in nanoseconds
+     */
+    long nanoTime();
+}
@@ -0,0 +1,133 @@
+/*
+ * This file contains the DecodeSize class which works out how to decode an image
+ * straight to the size it is shown at. The decoder first skips pixels by a power
+ * of two, which is nearly free, down to the smallest size still at least as
+ * large as the target, then scales the rest of the way by a density ratio
+ * inside the same decode. No full resolution copy is ever allocated.
+ *
+ * The class manages:
+ * - The inSampleSize for a source and a target size
+ * - The inDensity and inTargetDensity pair that scales the sampled image
+ * - The size the decoded bitmap comes out at
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Immutable decode parameters for one source and target size, as used by
+ * BitmapFactory.Options on a device.
+ */
+public class DecodeSize {
+    private final int sampleSize;
+    private final int sampledWidth, sampledHeight;
+    private final int density, targetDensity;
+    private final int width, height;
+
+    private DecodeSize(int sourceWidth, int sourceHeight, int targetWidth, int targetHeight) {
+        int sample = 1;
+        while (sourceWidth / (sample * 2) >= targetWidth && sourceHeight / (sample * 2) >= targetHeight) {
+            sample *= 2;
+        }
+        sampleSize = sample;
+        // Decoders round sampled sizes down
+        sampledWidth = Math.max(1, sourceWidth / sample);
+        sampledHeight = Math.max(1, sourceHeight / sample);
+        if (sampledWidth == targetWidth) {
+            density = 0;
+            targetDensity = 0;
+            width = sampledWidth;
+            height = sampledHeight;
+        } else {
+            // The widths themselves are the density pair, so the width comes out exact
+            density = sampledWidth;
+            targetDensity = targetWidth;
+            float scale = (float) targetDensity / density;
+            width = (int) (sampledWidth * scale + 0.5f);
+            height = (int) (sampledHeight * scale + 0.5f);
+        }
+    }
+
+    /**
+     * Plans the decode of an image shown at the given size. Images smaller than
+     * the target are scaled up, images of another aspect ratio keep theirs and
+     * match the target width.
+     *
+     * @param sourceWidth - The width of the encoded image
+     * @param sourceHeight - The height of the encoded image
+     * @param targetWidth - The width the image is shown at
+     * @param targetHeight - The height the image is shown at
+     * @return The decode parameters
+     */
+    public static DecodeSize of(int sourceWidth, int sourceHeight, int targetWidth, int targetHeight) {
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            throw new IllegalArgumentException("empty image " + sourceWidth + "x" + sourceHeight);
+        }
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            throw new IllegalArgumentException("empty target " + targetWidth + "x" + targetHeight);
+        }
+        return new DecodeSize(sourceWidth, sourceHeight, targetWidth, targetHeight);
+    }
+
+    /**
+     * Returns the power of two the decoder skips pixels by, inSampleSize.
+     *
+     * @return 1 for a full decode, or a larger power of two
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public int getSampledWidth() {
+        return sampledWidth;
+    }
+
+    public int getSampledHeight() {
+        return sampledHeight;
+    }
+
+    /**
+     * Checks if the sampled image is scaled further, by getTargetDensity() / getDensity().
+     *
+     * @return true if inScaled must be set with the density pair
+     */
+    public boolean isScaled() {
+        return density != 0;
+    }
+
+    /**
+     * Returns the density the sampled image is treated as, inDensity.
+     *
+     * @return The density, 0 if the image is not scaled
+     */
+    public int getDensity() {
+        return density;
+    }
+
+    /**
+     * Returns the density the image is scaled to, inTargetDensity.
+     *
+     * @return The target density, 0 if the image is not scaled
+     */
+    public int getTargetDensity() {
+        return targetDensity;
+    }
+
+    /**
+     * Returns the width of the decoded bitmap.
+     *
+     * @return The target width, or the sampled width if it needs no scaling
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the decoded bitmap, scaled like the width.
+     *
+     * @return The decoded height
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file contains the Entity class which is the plain geometry of a single
+ * object in the game world, the chicken. Carts and coins are far more numerous and
+ * live in an EntityStore instead. It has no knowledge of bitmaps or canvases,
+ * rendering is left to the Android layer.
+ *
+ * The class manages:
+ * - Position and size
+ * - The previous position for interpolated rendering
+ * - Axis-aligned collision checks
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Axis-aligned box in screen coordinates with a sprite type.
+ */
+public class Entity {
+    public static final int TYPE_CART = 0;      // cart without hay
+    public static final int TYPE_CART_HAY = 1;  // cart with hay
+    public static final int TYPE_COIN = 2;
+    public static final int TYPE_CHICKEN = 3;
+    public static final int TYPE_COUNT = 4;
+
+    public float x, y;
+    public float width, height;
+    public float prevX, prevY;
+    public int type;
+    public int lane;
+    public boolean isAlive;
+
+    /**
+     * Remembers the current position as the previous one.
+     * Called at the start of every simulation step so rendering can
+     * interpolate between the last two steps.
+     */
+    public void savePosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Returns the X coordinate to render at between the last two steps.
+     *
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated X coordinate
+     */
+    public float renderX(float alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    /**
+     * Returns the Y coordinate to render at between the last two steps.
+     *
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated Y coordinate
+     */
+    public float renderY(float alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    /**
+     * Checks if this entity overlaps another one. Boxes are truncated to whole
+     * pixels like the Rect hitboxes used by the Android game objects.
+     *
+     * @param other - The other entity
+     * @return true if the boxes intersect, false otherwise
+     */
+    public boolean isColliding(Entity other) {
+        return intersects((int) x, (int) y, (int) (x + width), (int) (y + height),
+                (int) other.x, (int) other.y, (int) (other.x + other.width), (int) (other.y + other.height));
+    }
+
+    /**
+     * Checks if the entity has moved beyond the bottom of the screen.
+     *
+     * @param screenHeight - The height of the game screen
+     * @return true if the entity is below the screen, false otherwise
+     */
+    public boolean isOffScreen(float screenHeight) {
+        return y > screenHeight;
+    }
+
+    /**
+     * Same test as android.graphics.Rect.intersects on two integer boxes.
+     */
+    static boolean intersects(int left1, int top1, int right1, int bottom1,
+                              int left2, int top2, int right2, int bottom2) {
+        return left1 < right2 && left2 < right1 && top1 < bottom2 && top2 < bottom1;
+    }
+}
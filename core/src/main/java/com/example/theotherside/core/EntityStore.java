@@ -0,0 +1,451 @@
+/*
+ * This file contains the EntityStore class which keeps every entity of one kind,
+ * carts or coins, in parallel primitive arrays. Each lane owns a contiguous segment
+ * of the arrays, kept dense and ordered from the top of the screen to the bottom,
+ * so movement, culling and collision tests are plain loops over floats without
+ * following a single object reference.
+ *
+ * Entities never change lanes and every entity of one kind moves at the same
+ * speed, so the order only has to be established when an entity is added.
+ *
+ * The class manages:
+ * - Position, previous position, size, sprite type and lane per entity
+ * - An alive bitset for entities removed in the middle of a step
+ * - Dense compaction of each lane segment
+ * - The topmost entity of each lane for lane danger and busy queries
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for entities bucketed by lane. Entity i of lane l
+ * lives at index first(l) + i, indexes are only valid until the next change.
+ */
+public class EntityStore {
+    // Read directly by World and the benchmarks, only this class changes their layout
+    float[] x, y;
+    float[] width, height;
+    float[] prevX, prevY;
+    byte[] type;
+    byte[] lane;
+    long[] alive;
+
+    private final int laneCount;
+    private final int[] counts;
+    private int laneCapacity;
+    private int size;
+    private boolean hasDead;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param laneCount - The number of lanes
+     * @param laneCapacity - The initial capacity of each lane, lanes grow when needed
+     */
+    public EntityStore(int laneCount, int laneCapacity) {
+        this.laneCount = laneCount;
+        counts = new int[laneCount];
+        allocate(Math.max(1, laneCapacity));
+    }
+
+    private void allocate(int laneCapacity) {
+        this.laneCapacity = laneCapacity;
+        int capacity = laneCount * laneCapacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        type = new byte[capacity];
+        lane = new byte[capacity];
+        alive = new long[(capacity + 63) >>> 6];
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    /**
+     * Returns the number of entities in all lanes.
+     *
+     * @return The total entity count
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of entities in one lane.
+     *
+     * @param lane - The lane index
+     * @return The entity count of the lane
+     */
+    public int size(int lane) {
+        return counts[lane];
+    }
+
+    /**
+     * Returns the index of the topmost entity of a lane.
+     *
+     * @param lane - The lane index
+     * @return The first index of the lane segment
+     */
+    public int first(int lane) {
+        return lane * laneCapacity;
+    }
+
+    /**
+     * Returns the index just past the bottommost entity of a lane.
+     *
+     * @param lane - The lane index
+     * @return The end index of the lane segment, exclusive
+     */
+    public int end(int lane) {
+        return lane * laneCapacity + counts[lane];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    /**
+     * Returns the sprite type of an entity.
+     *
+     * @param index - The entity index
+     * @return One of the Entity.TYPE_ constants
+     */
+    public int getType(int index) {
+        return type[index];
+    }
+
+    public int getLane(int index) {
+        return lane[index];
+    }
+
+    /**
+     * Checks if an entity is still in play. Entities removed during a step
+     * stay in their slot until the store is compacted.
+     *
+     * @param index - The entity index
+     * @return true if the entity is alive
+     */
+    public boolean isAlive(int index) {
+        return (alive[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the X coordinate to render an entity at between the last two steps.
+     *
+     * @param index - The entity index
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated X coordinate
+     */
+    public float renderX(int index, float alpha) {
+        return prevX[index] + (x[index] - prevX[index]) * alpha;
+    }
+
+    /**
+     * Returns the Y coordinate to render an entity at between the last two steps.
+     *
+     * @param index - The entity index
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated Y coordinate
+     */
+    public float renderY(int index, float alpha) {
+        return prevY[index] + (y[index] - prevY[index]) * alpha;
+    }
+
+    /**
+     * Returns the Y of the topmost entity of a lane.
+     *
+     * @param lane - The lane index
+     * @return The smallest Y in the lane, or positive infinity if the lane is empty
+     */
+    public float topY(int lane) {
+        return counts[lane] == 0 ? Float.POSITIVE_INFINITY : y[lane * laneCapacity];
+    }
+
+    /**
+     * Adds an entity to its lane, keeping the lane sorted by Y. New entities
+     * start above the screen, so the search starts from the top.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param lane - The lane index
+     * @param x - The X coordinate
+     * @param y - The Y coordinate
+     * @param width - The width in pixels
+     * @param height - The height in pixels
+     * @return The index of the new entity
+     */
+    int add(int type, int lane, float x, float y, float width, float height) {
+        if (counts[lane] == laneCapacity) {
+            grow();
+        }
+        int first = lane * laneCapacity;
+        int end = first + counts[lane];
+        int index = first;
+        while (index < end && this.y[index] < y) {
+            index++;
+        }
+        shift(index, end, 1);
+        this.x[index] = x;
+        this.y[index] = y;
+        this.width[index] = width;
+        this.height[index] = height;
+        prevX[index] = x;
+        prevY[index] = y;
+        this.type[index] = (byte) type;
+        this.lane[index] = (byte) lane;
+        setAlive(index, true);
+        counts[lane]++;
+        size++;
+        return index;
+    }
+
+    /**
+     * Doubles the capacity of every lane, moving each segment to its new place.
+     */
+    private void grow() {
+        float[] oldX = x, oldY = y, oldWidth = width, oldHeight = height, oldPrevX = prevX, oldPrevY = prevY;
+        byte[] oldType = type, oldLane = lane;
+        long[] oldAlive = alive;
+        int oldCapacity = laneCapacity;
+        allocate(oldCapacity * 2);
+        for (int l = 0; l < laneCount; l++) {
+            int from = l * oldCapacity;
+            int to = l * laneCapacity;
+            int count = counts[l];
+            System.arraycopy(oldX, from, x, to, count);
+            System.arraycopy(oldY, from, y, to, count);
+            System.arraycopy(oldWidth, from, width, to, count);
+            System.arraycopy(oldHeight, from, height, to, count);
+            System.arraycopy(oldPrevX, from, prevX, to, count);
+            System.arraycopy(oldPrevY, from, prevY, to, count);
+            System.arraycopy(oldType, from, type, to, count);
+            System.arraycopy(oldLane, from, lane, to, count);
+            for (int i = 0; i < count; i++) {
+                if ((oldAlive[(from + i) >>> 6] & (1L << (from + i))) != 0) {
+                    setAlive(to + i, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the entities in [from, end) by the given number of slots.
+     */
+    private void shift(int from, int end, int by) {
+        int count = end - from;
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(x, from, x, from + by, count);
+        System.arraycopy(y, from, y, from + by, count);
+        System.arraycopy(width, from, width, from + by, count);
+        System.arraycopy(height, from, height, from + by, count);
+        System.arraycopy(prevX, from, prevX, from + by, count);
+        System.arraycopy(prevY, from, prevY, from + by, count);
+        System.arraycopy(type, from, type, from + by, count);
+        System.arraycopy(lane, from, lane, from + by, count);
+    }
+
+    private void setAlive(int index, boolean isAlive) {
+        if (isAlive) {
+            alive[index >>> 6] |= 1L << index;
+        } else {
+            alive[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Marks an entity as removed. Its slot is reclaimed by the next compact().
+     *
+     * @param index - The entity index
+     */
+    void kill(int index) {
+        setAlive(index, false);
+        hasDead = true;
+    }
+
+    /**
+     * Removes every killed entity, keeping each lane dense and in order.
+     */
+    void compact() {
+        if (!hasDead) {
+            return;
+        }
+        hasDead = false;
+        for (int l = 0; l < laneCount; l++) {
+            int first = l * laneCapacity;
+            int end = first + counts[l];
+            int write = first;
+            for (int read = first; read < end; read++) {
+                if (!isAlive(read)) {
+                    continue;
+                }
+                if (write != read) {
+                    x[write] = x[read];
+                    y[write] = y[read];
+                    width[write] = width[read];
+                    height[write] = height[read];
+                    prevX[write] = prevX[read];
+                    prevY[write] = prevY[read];
+                    type[write] = type[read];
+                    lane[write] = lane[read];
+                    setAlive(write, true);
+                }
+                write++;
+            }
+            for (int i = write; i < end; i++) {
+                setAlive(i, false);
+            }
+            size -= end - write;
+            counts[l] = write - first;
+        }
+    }
+
+    /**
+     * Removes the bottommost entity of a lane.
+     *
+     * @param lane - The lane index, must not be empty
+     */
+    void removeLast(int lane) {
+        counts[lane]--;
+        size--;
+        setAlive(lane * laneCapacity + counts[lane], false);
+    }
+
+    /**
+     * Remembers the current positions as the previous ones.
+     */
+    void savePositions() {
+        for (int l = 0; l < laneCount; l++) {
+            int first = l * laneCapacity;
+            System.arraycopy(x, first, prevX, first, counts[l]);
+            System.arraycopy(y, first, prevY, first, counts[l]);
+        }
+    }
+
+    /**
+     * Moves every entity down by the same distance.
+     *
+     * @param dy - The distance in pixels
+     */
+    void moveDown(float dy) {
+        for (int l = 0; l < laneCount; l++) {
+            for (int i = l * laneCapacity, end = i + counts[l]; i < end; i++) {
+                y[i] += dy;
+            }
+        }
+    }
+
+    /**
+     * Removes the entities that moved beyond the bottom of the screen. They are
+     * always at the bottom of their lane.
+     *
+     * @param screenHeight - The height of the game screen
+     */
+    void cullBelow(float screenHeight) {
+        for (int l = 0; l < laneCount; l++) {
+            int first = l * laneCapacity;
+            while (counts[l] > 0 && y[first + counts[l] - 1] > screenHeight) {
+                removeLast(l);
+            }
+        }
+    }
+
+    /**
+     * Finds a live entity overlapping a box, searching the given lanes from the
+     * bottom up until the entities are above the given top. Boxes are truncated
+     * to whole pixels like the Rect hitboxes used by the Android game objects.
+     *
+     * @param other - The box to test against
+     * @param firstLane - The first lane to search
+     * @param lastLane - The last lane to search, inclusive
+     * @param reachTop - Entities with a smaller Y cannot reach the box
+     * @return The index of an overlapping entity, or -1 if there is none
+     */
+    int findOverlap(Entity other, int firstLane, int lastLane, float reachTop) {
+        int left = (int) other.x;
+        int top = (int) other.y;
+        int right = (int) (other.x + other.width);
+        int bottom = (int) (other.y + other.height);
+        for (int l = firstLane; l <= lastLane; l++) {
+            int first = l * laneCapacity;
+            for (int i = first + counts[l] - 1; i >= first; i--) {
+                float entityY = y[i];
+                if (entityY < reachTop) {
+                    break;
+                }
+                if (isAlive(i) && Entity.intersects((int) x[i], (int) entityY,
+                        (int) (x[i] + width[i]), (int) (entityY + height[i]), left, top, right, bottom)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Empties every lane.
+     */
+    void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(alive, 0);
+        size = 0;
+        hasDead = false;
+    }
+
+    /**
+     * Re-sorts every lane by Y. Only needed after positions were changed by
+     * something other than the simulation, for example in tests and benchmarks.
+     */
+    void sort() {
+        for (int l = 0; l < laneCount; l++) {
+            int first = l * laneCapacity;
+            int end = first + counts[l];
+            for (int i = first + 1; i < end; i++) {
+                int j = i;
+                while (j > first && y[j - 1] > y[j]) {
+                    swap(j - 1, j);
+                    j--;
+                }
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        float f;
+        f = x[i]; x[i] = x[j]; x[j] = f;
+        f = y[i]; y[i] = y[j]; y[j] = f;
+        f = width[i]; width[i] = width[j]; width[j] = f;
+        f = height[i]; height[i] = height[j]; height[j] = f;
+        f = prevX[i]; prevX[i] = prevX[j]; prevX[j] = f;
+        f = prevY[i]; prevY[i] = prevY[j]; prevY[j] = f;
+        byte b = type[i]; type[i] = type[j]; type[j] = b;
+        // Lanes are equal within a segment, alive bits may differ
+        boolean aliveI = isAlive(i);
+        setAlive(i, isAlive(j));
+        setAlive(j, aliveI);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * This file contains the FrameClock interface which is the vsync source used to
+ * pace the game loop. On a device it is backed by the display's Choreographer, in
+ * tests and benchmarks by a ManualFrameClock that ticks when it is told to.
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Source of one-shot vsync callbacks, like Choreographer frame callbacks.
+ */
+public interface FrameClock {
+    /**
+     * Receives the time of a vsync.
+     */
+    interface Listener {
+        /**
+         * Called once per request, on the thread of the frame clock.
+         *
+         * @param frameTimeNanos - The time of the vsync, on the System.nanoTime() time base
+         */
+        void onVsync(long frameTimeNanos);
+    }
+
+    /**
+     * Asks for one callback at the next vsync. Safe to call from any thread.
+     *
+     * @param listener - The listener to call
+     */
+    void requestVsync(Listener listener);
+
+    /**
+     * Returns the time between two vsyncs of the display.
+     *
+     * @return The vsync period in nanoseconds
+     */
+    long getVsyncPeriodNanos();
+}
@@ -0,0 +1,256 @@
+/*
+ * This file contains the FrameProfiler class which records how long each phase of
+ * a game loop frame takes. Timings go into preallocated ring buffers so recording
+ * never allocates, and rolling percentiles and jank counts are computed from them
+ * for the debug overlay.
+ *
+ * The class manages:
+ * - Per-phase nanosecond timings of the recent frames
+ * - Rolling p50/p95/p99 per phase
+ * - Jank counting against a frame budget
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffers of per-phase frame timings. Recording and reading happen on
+ * the game thread, only the enabled flag may be changed from another thread.
+ */
+public class FrameProfiler {
+    public static final int PHASE_UPDATE = 0;
+    public static final int PHASE_LOCK = 1;
+    public static final int PHASE_DRAW = 2;
+    public static final int PHASE_POST = 3;
+    public static final int PHASE_SLEEP = 4;
+    public static final int PHASE_FRAME = 5; // whole frame, start to start
+    public static final int PHASE_COUNT = 6;
+
+    public static final int P50 = 0;
+    public static final int P95 = 1;
+    public static final int P99 = 2;
+
+    // Percentiles are recomputed every this many frames
+    private static final int STATS_INTERVAL = 30;
+
+    private final int capacity;
+    private long jankThresholdNanos;
+    private final long[][] samples;
+    private final boolean[] jank;
+    private final long[] current = new long[PHASE_COUNT];
+    private final long[] scratch;
+    private final long[][] percentiles = new long[PHASE_COUNT][3];
+
+    private volatile boolean enabled;
+    // Set by setEnabled() from any thread, the buffers are cleared on the game thread
+    private volatile boolean clearRequested;
+    private int head;
+    private int count;
+    private int jankCount;
+    private long totalFrames;
+    private long totalJanks;
+    private int statsVersion;
+
+    /**
+     * Creates a profiler keeping the given number of recent frames.
+     *
+     * @param capacity - The number of frames kept in the ring buffers
+     * @param frameBudgetNanos - The target frame time, frames over 1.5 times this count as jank
+     */
+    public FrameProfiler(int capacity, long frameBudgetNanos) {
+        this.capacity = capacity;
+        setFrameBudgetNanos(frameBudgetNanos);
+        samples = new long[PHASE_COUNT][capacity];
+        jank = new boolean[capacity];
+        scratch = new long[capacity];
+    }
+
+    /**
+     * Game thread: changes the target frame time, for a display whose refresh
+     * rate changed. Frames already in the buffers keep their jank flags.
+     *
+     * @param frameBudgetNanos - The target frame time, frames over 1.5 times this count as jank
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        jankThresholdNanos = frameBudgetNanos + frameBudgetNanos / 2;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off. Turning it on starts from empty buffers,
+     * the partial frame in progress is dropped.
+     *
+     * @param enabled - true to record frames
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            clearRequested = true;
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Adds time spent in a phase of the current frame. A phase can be added
+     * several times per frame, for example one update per simulation step.
+     *
+     * @param phase - One of the PHASE_ constants
+     * @param nanos - The time spent in nanoseconds
+     */
+    public void add(int phase, long nanos) {
+        current[phase] += nanos;
+    }
+
+    /**
+     * Commits the current frame to the ring buffers and starts a new one.
+     *
+     * @param frameNanos - The total time of the frame, from its start to the next frame's start
+     */
+    public void endFrame(long frameNanos) {
+        if (clearRequested) {
+            clearRequested = false;
+            clear();
+            return;
+        }
+        current[PHASE_FRAME] = frameNanos;
+        if (count == capacity && jank[head]) {
+            jankCount--;
+        }
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            samples[phase][head] = current[phase];
+            current[phase] = 0;
+        }
+        boolean isJank = frameNanos > jankThresholdNanos;
+        jank[head] = isJank;
+        if (isJank) {
+            jankCount++;
+            totalJanks++;
+        }
+        head = (head + 1) % capacity;
+        if (count < capacity) {
+            count++;
+        }
+        totalFrames++;
+        if (totalFrames % STATS_INTERVAL == 0) {
+            computeStats();
+        }
+    }
+
+    /**
+     * Recomputes the percentiles of every phase over the frames in the buffers.
+     */
+    public void computeStats() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            if (count == 0) {
+                Arrays.fill(percentiles[phase], 0);
+                continue;
+            }
+            System.arraycopy(samples[phase], 0, scratch, 0, count);
+            Arrays.sort(scratch, 0, count);
+            percentiles[phase][P50] = scratch[rank(50)];
+            percentiles[phase][P95] = scratch[rank(95)];
+            percentiles[phase][P99] = scratch[rank(99)];
+        }
+        statsVersion++;
+    }
+
+    /**
+     * Nearest-rank index of a percentile in the sorted scratch array.
+     */
+    private int rank(int percent) {
+        int index = (percent * count + 99) / 100 - 1;
+        return Math.max(0, Math.min(count - 1, index));
+    }
+
+    /**
+     * Returns a percentile of a phase as of the last computeStats().
+     *
+     * @param phase - One of the PHASE_ constants
+     * @param which - P50, P95 or P99
+     * @return The percentile in nanoseconds
+     */
+    public long getPercentile(int phase, int which) {
+        return percentiles[phase][which];
+    }
+
+    /**
+     * Returns a recorded sample, 0 being the most recent frame.
+     *
+     * @param phase - One of the PHASE_ constants
+     * @param age - How many frames back, less than getCount()
+     * @return The time of the phase in that frame in nanoseconds
+     */
+    public long getSample(int phase, int age) {
+        int index = head - 1 - age;
+        if (index < 0) {
+            index += capacity;
+        }
+        return samples[phase][index];
+    }
+
+    /**
+     * Returns how many times the percentiles have been recomputed, so callers
+     * can rebuild their cached text only when it changes.
+     *
+     * @return The stats version
+     */
+    public int getStatsVersion() {
+        return statsVersion;
+    }
+
+    /**
+     * Returns the number of frames currently in the buffers.
+     *
+     * @return The frame count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of janky frames currently in the buffers.
+     *
+     * @return The jank count of the window
+     */
+    public int getJankCount() {
+        return jankCount;
+    }
+
+    public long getTotalJanks() {
+        return totalJanks;
+    }
+
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+
+    public long getJankThresholdNanos() {
+        return jankThresholdNanos;
+    }
+
+    /**
+     * Empties the buffers and resets every counter.
+     */
+    public void clear() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            Arrays.fill(samples[phase], 0);
+            Arrays.fill(percentiles[phase], 0);
+        }
+        Arrays.fill(current, 0);
+        Arrays.fill(jank, false);
+        head = 0;
+        count = 0;
+        jankCount = 0;
+        totalFrames = 0;
+        totalJanks = 0;
+        statsVersion++;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * This file contains the FrameScheduler class which paces the game loop to the
+ * vsyncs of the display instead of sleeping for a fixed time. The game thread
+ * asks for the next vsync when it is ready for a frame and simulates and draws
+ * for that vsync's timestamp, so frame times follow the refresh rate of the
+ * panel, and vsyncs that pass while a frame is still being made are counted.
+ *
+ * The class manages:
+ * - Requesting vsync callbacks from a FrameClock only while frames are wanted
+ * - Handing vsync timestamps to the game thread, with a timeout fallback
+ * - Counting frames and missed vsyncs
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Vsync pacing shared by the frame clock's thread, which delivers vsyncs, and
+ * the game thread, which waits for them.
+ */
+public class FrameScheduler implements FrameClock.Listener {
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final FrameClock frameClock;
+    private final Clock clock;
+
+    private long periodNanos;
+    private boolean vsyncRequested;
+    // Latest vsync delivered and not handed out yet, NONE if there is none
+    private long pendingVsync = NONE;
+    // Time of the last frame handed out, NONE after a reset
+    private long lastFrameTime = NONE;
+    private long frameCount;
+    private long missedVsyncs;
+
+    /**
+     * Creates a scheduler for the vsyncs of the given frame clock.
+     *
+     * @param frameClock - The vsync source
+     * @param clock - The time source for timeouts, on the same time base as the vsyncs
+     */
+    public FrameScheduler(FrameClock frameClock, Clock clock) {
+        this.frameClock = frameClock;
+        this.clock = clock;
+        periodNanos = frameClock.getVsyncPeriodNanos();
+    }
+
+    /**
+     * Frame clock thread: stores the time of a requested vsync and wakes the
+     * game thread.
+     *
+     * @param frameTimeNanos - The time of the vsync
+     */
+    @Override
+    public synchronized void onVsync(long frameTimeNanos) {
+        vsyncRequested = false;
+        // A vsync requested before a timeout may arrive after the fallback frame
+        if (lastFrameTime == NONE || frameTimeNanos > lastFrameTime) {
+            pendingVsync = frameTimeNanos;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Game thread: takes the next vsync if it has already arrived, requesting
+     * one otherwise.
+     *
+     * @return The time of the frame, or -1 if the vsync has not arrived yet
+     */
+    public synchronized long pollFrame() {
+        if (pendingVsync != NONE) {
+            return takeFrame(pendingVsync);
+        }
+        requestVsync();
+        return -1;
+    }
+
+    /**
+     * Game thread: waits for the next vsync. If the frame clock stalls, for
+     * example while the display is turning off, the wait ends after the timeout
+     * and the frame is made for the current time instead.
+     *
+     * @param timeoutNanos - The longest time to wait for the vsync
+     * @return The time of the frame, the vsync time or the time of the timeout
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized long awaitFrame(long timeoutNanos) throws InterruptedException {
+        long deadline = clock.nanoTime() + timeoutNanos;
+        while (pendingVsync == NONE) {
+            requestVsync();
+            long remaining = deadline - clock.nanoTime();
+            if (remaining <= 0) {
+                return takeFrame(clock.nanoTime());
+            }
+            wait(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+        }
+        return takeFrame(pendingVsync);
+    }
+
+    /**
+     * Game thread: forgets the last frame after the loop stopped asking for
+     * frames, so the time it spent parked does not count as missed vsyncs.
+     * Also picks up a changed refresh rate.
+     */
+    public synchronized void reset() {
+        lastFrameTime = NONE;
+        pendingVsync = NONE;
+        periodNanos = frameClock.getVsyncPeriodNanos();
+    }
+
+    private void requestVsync() {
+        if (!vsyncRequested) {
+            vsyncRequested = true;
+            frameClock.requestVsync(this);
+        }
+    }
+
+    private long takeFrame(long frameTime) {
+        if (lastFrameTime != NONE && periodNanos > 0) {
+            // Vsyncs between the last frame and this one had no frame of their own
+            long intervals = (frameTime - lastFrameTime + periodNanos / 2) / periodNanos;
+            if (intervals > 1) {
+                missedVsyncs += intervals - 1;
+            }
+        }
+        lastFrameTime = frameTime;
+        pendingVsync = NONE;
+        frameCount++;
+        return frameTime;
+    }
+
+    public synchronized long getVsyncPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Returns how many frames were handed out.
+     *
+     * @return The frame count
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns how many vsyncs passed without a frame while the loop was running,
+     * because a frame took longer than a vsync period.
+     *
+     * @return The missed vsync count
+     */
+    public synchronized long getMissedVsyncs() {
+        return missedVsyncs;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file contains the GameClock class, a Clock that only advances while the
+ * game is running. It reads a monotonic source, System.nanoTime() on a device,
+ * and leaves out every interval it was paused for, so timers built on it neither
+ * jump forward after a pause or a trip to the home screen nor move backwards
+ * when the wall clock is changed.
+ *
+ * The class manages:
+ * - Running time accumulated between pause() and resume() calls
+ * - The monotonic source, which a ManualClock replaces in tests
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Pause-aware game time. Must only be used by one thread, the one that runs the
+ * game loop.
+ */
+public class GameClock implements Clock {
+    private final Clock source;
+    private boolean isRunning;
+    // Game time at the last pause, or at resumedAt while running
+    private long pausedTime;
+    private long resumedAt;
+
+    /**
+     * Creates a paused clock reading 0.
+     *
+     * @param source - The monotonic time source, usually Clock.SYSTEM
+     */
+    public GameClock(Clock source) {
+        this.source = source;
+    }
+
+    /**
+     * Returns the running time accumulated so far. Stands still while paused.
+     *
+     * @return The game time in nanoseconds
+     */
+    @Override
+    public long nanoTime() {
+        return isRunning ? pausedTime + source.nanoTime() - resumedAt : pausedTime;
+    }
+
+    /**
+     * Stops the clock. Does nothing if it is already paused.
+     */
+    public void pause() {
+        if (isRunning) {
+            pausedTime = nanoTime();
+            isRunning = false;
+        }
+    }
+
+    /**
+     * Starts the clock from where it was paused. Does nothing if it is already running.
+     */
+    public void resume() {
+        if (!isRunning) {
+            resumedAt = source.nanoTime();
+            isRunning = true;
+        }
+    }
+
+    /**
+     * Pauses or resumes the clock.
+     *
+     * @param running - true to resume, false to pause
+     */
+    public void setRunning(boolean running) {
+        if (running) {
+            resume();
+        } else {
+            pause();
+        }
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+}
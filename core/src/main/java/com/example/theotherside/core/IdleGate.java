@@ -0,0 +1,92 @@
+/*
+ * This file contains the IdleGate class which lets the game thread sleep while
+ * nothing on screen can change, for example on the pause or game over screen.
+ * Any thread can request a redraw, which wakes the parked game thread; requests
+ * are remembered, so one made just before the game thread parks is never lost.
+ *
+ * The class manages:
+ * - A sticky redraw request flag
+ * - Parking the game thread until a request or a timeout
+ * - Counting how often the game thread parked
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Wake-up signal for a render loop that only draws on demand while idle.
+ */
+public class IdleGate {
+    // Timeout for awaitRedraw() that waits for a request only
+    public static final long NO_TIMEOUT = Long.MAX_VALUE;
+
+    private final Clock clock;
+    private boolean redrawRequested = true;
+    private long parkCount;
+
+    /**
+     * Creates a gate with a pending redraw, so the first idle frame is drawn.
+     *
+     * @param clock - The time source for timeouts
+     */
+    public IdleGate(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Asks for a frame to be drawn and wakes the game thread if it is parked.
+     * Safe to call from any thread, typically on input or a surface change.
+     */
+    public synchronized void requestRedraw() {
+        redrawRequested = true;
+        notifyAll();
+    }
+
+    /**
+     * Consumes a pending redraw request without waiting.
+     *
+     * @return true if a redraw was requested since the last call
+     */
+    public synchronized boolean takeRedraw() {
+        boolean requested = redrawRequested;
+        redrawRequested = false;
+        return requested;
+    }
+
+    /**
+     * Parks the calling thread until a redraw is requested or the timeout passes,
+     * then consumes the request.
+     *
+     * @param timeoutNanos - The longest time to park, or NO_TIMEOUT to wait for a request
+     * @return true if a redraw was requested, false if the timeout passed first
+     * @throws InterruptedException if the thread is interrupted while parked
+     */
+    public synchronized boolean awaitRedraw(long timeoutNanos) throws InterruptedException {
+        if (!redrawRequested) {
+            parkCount++;
+        }
+        long deadline = timeoutNanos == NO_TIMEOUT ? 0 : clock.nanoTime() + timeoutNanos;
+        while (!redrawRequested) {
+            if (timeoutNanos == NO_TIMEOUT) {
+                wait();
+                continue;
+            }
+            long remaining = deadline - clock.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+        }
+        redrawRequested = false;
+        return true;
+    }
+
+    /**
+     * Returns how many times awaitRedraw() actually parked the thread.
+     *
+     * @return The park count
+     */
+    public synchronized long getParkCount() {
+        return parkCount;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file contains the InputLatency class which measures how long a swipe takes
+ * to reach the screen. The time of every input that changes the world is carried
+ * from the touch event to the simulation step that applies it, and on through
+ * the world snapshots to the frame that shows it, where the two latencies are
+ * counted into histograms.
+ *
+ * The class manages:
+ * - Latency from the touch event to the step that applied it
+ * - Latency from the touch event to posting the first frame that shows it
+ * - Carrying applied input times through the snapshots
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.io.PrintWriter;
+
+/**
+ * Input-to-step and input-to-post latency, recorded on the simulation and the
+ * render thread respectively.
+ */
+public class InputLatency {
+    // Applied inputs a snapshot remembers, more than this many between two
+    // posted frames are counted as unmatched
+    static final int HISTORY = 16;
+    private static final long BUCKET_NANOS = 1_000_000L;
+    private static final int BUCKETS = 250;
+
+    private final LatencyHistogram toStep = new LatencyHistogram("input to step", BUCKET_NANOS, BUCKETS);
+    private final LatencyHistogram toPost = new LatencyHistogram("input to post", BUCKET_NANOS, BUCKETS);
+
+    // Simulation thread
+    private final long[] appliedTimes = new long[HISTORY];
+    private long appliedCount;
+
+    // Render thread
+    private long postedCount;
+    private volatile long unmatched;
+
+    /**
+     * Simulation thread: records that an input has changed the world.
+     *
+     * @param inputTimeNanos - The time of the touch event
+     * @param nowNanos - The time the input was applied
+     */
+    public void recordApplied(long inputTimeNanos, long nowNanos) {
+        toStep.record(nowNanos - inputTimeNanos);
+        appliedTimes[(int) (appliedCount % HISTORY)] = inputTimeNanos;
+        appliedCount++;
+    }
+
+    /**
+     * Simulation thread: stores the inputs applied so far in a snapshot about
+     * to be published.
+     *
+     * @param snapshot - The snapshot to fill
+     */
+    public void capture(WorldSnapshot snapshot) {
+        snapshot.inputCount = appliedCount;
+        System.arraycopy(appliedTimes, 0, snapshot.inputTimes, 0, HISTORY);
+    }
+
+    /**
+     * Render thread: records the inputs a snapshot shows for the first time,
+     * once the frame drawing it has been posted.
+     *
+     * @param snapshot - The snapshot that was drawn
+     * @param nowNanos - The time the frame was posted
+     */
+    public void recordPosted(WorldSnapshot snapshot, long nowNanos) {
+        long end = snapshot.inputCount;
+        if (end <= postedCount) {
+            return;
+        }
+        long first = Math.max(postedCount, end - HISTORY);
+        unmatched += first - postedCount;
+        for (long i = first; i < end; i++) {
+            toPost.record(nowNanos - snapshot.inputTimes[(int) (i % HISTORY)]);
+        }
+        postedCount = end;
+    }
+
+    public LatencyHistogram getToStep() {
+        return toStep;
+    }
+
+    public LatencyHistogram getToPost() {
+        return toPost;
+    }
+
+    /**
+     * Returns how many applied inputs could not be matched to a posted frame
+     * because too many were applied between two frames.
+     *
+     * @return The unmatched input count
+     */
+    public long getUnmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Writes both histograms, for dumpsys or a log.
+     *
+     * @param writer - The writer to dump to
+     * @param prefix - Indentation for every line
+     */
+    public void dump(PrintWriter writer, String prefix) {
+        writer.println(prefix + "Input latency, unmatched inputs: " + unmatched);
+        toStep.dump(writer, prefix + "  ");
+        toPost.dump(writer, prefix + "  ");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file contains the InputRing class which carries input events from the UI
+ * thread to the simulation thread. Events are written into preallocated slots of
+ * a fixed-size ring and drained by the simulation thread at the start of a tick,
+ * so every change input makes to the world happens on the thread that steps it,
+ * in the order the events arrived, without locks or allocation per event.
+ *
+ * The class manages:
+ * - Preallocated slots for the kind and time of each event
+ * - Lock-free single-producer, single-consumer publication
+ * - Counting events dropped because the ring was full
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer, single-consumer ring of input events. offer() must only be
+ * called by one thread and drain() by one other thread.
+ */
+public class InputRing {
+    public static final int SWIPE_LEFT = 0;
+    public static final int SWIPE_RIGHT = 1;
+    public static final int TOGGLE_PAUSE = 2;
+    public static final int RESTART = 3;
+
+    /**
+     * Receives drained events on the consumer thread.
+     */
+    public interface Handler {
+        /**
+         * Called once per event, in the order the events were offered.
+         *
+         * @param kind - The kind of event, one of the constants of InputRing
+         * @param timeNanos - The time of the event, on the System.nanoTime() time base
+         */
+        void onInput(int kind, long timeNanos);
+    }
+
+    private final int mask;
+    private final int[] kinds;
+    private final long[] times;
+    // Next slot to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+    // Next slot to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // Producer's last read of head, saves a volatile read per offer
+    private long cachedHead;
+    private volatile long dropped;
+
+    /**
+     * Creates a ring holding up to the given number of undrained events.
+     *
+     * @param capacity - The number of slots, rounded up to a power of two
+     */
+    public InputRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = size - 1;
+        kinds = new int[size];
+        times = new long[size];
+    }
+
+    /**
+     * Producer: adds an event, or drops it if the consumer has fallen a whole
+     * ring behind.
+     *
+     * @param kind - The kind of event
+     * @param timeNanos - The time of the event
+     * @return true if the event was added, false if it was dropped
+     */
+    public boolean offer(int kind, long timeNanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+        int slot = (int) t & mask;
+        kinds[slot] = kind;
+        times[slot] = timeNanos;
+        // Ordered store, the slot is written before the consumer can see it
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer: hands every event offered so far to the handler, oldest first.
+     *
+     * @param handler - The handler to call for each event
+     * @return The number of events drained
+     */
+    public int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            handler.onInput(kinds[slot], times[slot]);
+        }
+        // The slots are free for the producer only after they have been read
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /**
+     * Consumer: checks if there are events waiting to be drained.
+     *
+     * @return true if drain() would not call the handler
+     */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Returns the number of slots in the ring.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns how many events were dropped because the ring was full.
+     *
+     * @return The dropped event count
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file contains the LatencyHistogram class which counts latencies into fixed
+ * buckets, so percentiles of arbitrarily many samples can be read at any time
+ * without keeping the samples. Counting never allocates or locks, one thread
+ * records while any thread reads, as the debug overlay and dumps do.
+ *
+ * The class manages:
+ * - Fixed-width buckets with an overflow bucket for the slow tail
+ * - Count, sum and maximum of the recorded latencies
+ * - Percentiles and a text dump of the buckets
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bucketed latency histogram with a single recording thread.
+ */
+public class LatencyHistogram {
+    private final String name;
+    private final long bucketNanos;
+    // The last bucket counts every latency past the others
+    private final AtomicLongArray buckets;
+    private volatile long count;
+    private volatile long sumNanos;
+    private volatile long maxNanos;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param name - The name shown in dumps
+     * @param bucketNanos - The width of a bucket in nanoseconds
+     * @param bucketCount - The number of buckets before the overflow bucket
+     */
+    public LatencyHistogram(String name, long bucketNanos, int bucketCount) {
+        this.name = name;
+        this.bucketNanos = bucketNanos;
+        this.buckets = new AtomicLongArray(bucketCount + 1);
+    }
+
+    /**
+     * Records one latency. Must only be called by one thread.
+     *
+     * @param nanos - The latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        int bucket = (int) Math.min(nanos / bucketNanos, buckets.length() - 1);
+        buckets.lazySet(bucket, buckets.get(bucket) + 1);
+        sumNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        count++;
+    }
+
+    /**
+     * Forgets every recorded latency. Must only be called by the recording thread.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.lazySet(i, 0);
+        }
+        count = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return The mean in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        long n = count;
+        return n == 0 ? 0 : sumNanos / n;
+    }
+
+    /**
+     * Returns a percentile, as the upper edge of the bucket it falls in. A
+     * percentile in the overflow bucket is reported as the maximum.
+     *
+     * @param percent - The percentile, from 0 to 100
+     * @return The latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long getPercentile(double percent) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        int last = buckets.length() - 1;
+        for (int i = 0; i < last; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return (i + 1) * bucketNanos;
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Writes a summary line and the non-empty buckets, in milliseconds, for
+     * comparing input pipeline changes.
+     *
+     * @param writer - The writer to dump to
+     * @param prefix - Indentation for every line
+     */
+    public void dump(PrintWriter writer, String prefix) {
+        writer.println(String.format(Locale.US, "%s%s: n=%d mean=%.1f p50=%.1f p95=%.1f p99=%.1f max=%.1f ms",
+                prefix, name, count, getMeanNanos() / 1e6, getPercentile(50) / 1e6,
+                getPercentile(95) / 1e6, getPercentile(99) / 1e6, maxNanos / 1e6));
+        int last = buckets.length() - 1;
+        for (int i = 0; i <= last; i++) {
+            long n = buckets.get(i);
+            if (n == 0) {
+                continue;
+            }
+            if (i == last) {
+                writer.println(String.format(Locale.US, "%s  >=%6.1f ms %d", prefix, i * bucketNanos / 1e6, n));
+            } else {
+                writer.println(String.format(Locale.US, "%s  <%7.1f ms %d", prefix, (i + 1) * bucketNanos / 1e6, n));
+            }
+        }
+    }
+}
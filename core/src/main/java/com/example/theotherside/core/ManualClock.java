@@ -0,0 +1,37 @@
+/*
+ * This file contains the ManualClock class, a Clock that only moves when it is
+ * told to. It is used to run the simulation on virtual time, faster than real time.
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Clock whose time is advanced explicitly by the caller.
+ */
+public class ManualClock implements Clock {
+    private long now;
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param nanos - The number of nanoseconds to advance by
+     */
+    public void advance(long nanos) {
+        now += nanos;
+    }
+
+    /**
+     * Sets the clock to a given time, such as the origin of a new run.
+     *
+     * @param nanos - The time in nanoseconds
+     */
+    public void set(long nanos) {
+        now = nanos;
+    }
+}
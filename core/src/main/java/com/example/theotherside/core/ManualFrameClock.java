@@ -0,0 +1,66 @@
+/*
+ * This file contains the ManualFrameClock class, a FrameClock whose vsyncs only
+ * happen when it is told to. It is used to test frame pacing on virtual time.
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Frame clock driven by the caller, with its vsyncs on a ManualClock.
+ */
+public class ManualFrameClock implements FrameClock {
+    private final ManualClock clock;
+    private final long periodNanos;
+    private Listener pending;
+
+    /**
+     * Creates a frame clock ticking on the given clock.
+     *
+     * @param clock - The clock advanced by every vsync
+     * @param periodNanos - The vsync period in nanoseconds
+     */
+    public ManualFrameClock(ManualClock clock, long periodNanos) {
+        this.clock = clock;
+        this.periodNanos = periodNanos;
+    }
+
+    @Override
+    public synchronized void requestVsync(Listener listener) {
+        pending = listener;
+    }
+
+    @Override
+    public long getVsyncPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Advances the clock by one vsync period and calls the listener that
+     * requested this vsync, if any.
+     *
+     * @return true if a listener was called
+     */
+    public boolean tick() {
+        Listener listener;
+        synchronized (this) {
+            clock.advance(periodNanos);
+            listener = pending;
+            pending = null;
+        }
+        if (listener == null) {
+            return false;
+        }
+        listener.onVsync(clock.nanoTime());
+        return true;
+    }
+
+    /**
+     * Checks if a vsync callback has been requested and not delivered yet.
+     *
+     * @return true if the next tick calls a listener
+     */
+    public synchronized boolean isRequested() {
+        return pending != null;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file contains the NumberLayout class which lays out non-negative ints as
+ * rows of digit glyphs. A number is split into its decimal digits with integer
+ * division, most significant first, and its width is the sum of the advances
+ * of those digits, so a changing score is shown without building a string or
+ * measuring text.
+ *
+ * The class manages:
+ * - The advance width of each digit 0-9
+ * - Splitting a number into its digits without strings
+ * - The width of a number from the advances of its digits
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Digit layout of numbers drawn from prerendered glyphs, such as the HUD's
+ * glyph strip.
+ */
+public class NumberLayout {
+    // Digits of the largest int
+    public static final int MAX_DIGITS = 10;
+    private static final int DIGITS = 10;
+
+    private final float[] advance = new float[DIGITS];
+
+    /**
+     * Creates a layout for digits of the given advance widths.
+     *
+     * @param advance - The advance width of each digit, indexed by the digit, at least 10 entries
+     */
+    public NumberLayout(float[] advance) {
+        if (advance.length < DIGITS) {
+            throw new IllegalArgumentException("need the advance of " + DIGITS + " digits, got " + advance.length);
+        }
+        System.arraycopy(advance, 0, this.advance, 0, DIGITS);
+    }
+
+    /**
+     * Returns the advance width of a digit.
+     *
+     * @param digit - The digit, from 0 to 9
+     * @return The width in pixels
+     */
+    public float getAdvance(int digit) {
+        return advance[digit];
+    }
+
+    /**
+     * Returns the advance width of a number.
+     *
+     * @param value - The number, negative values are laid out as 0
+     * @return The width in pixels
+     */
+    public float getWidth(int value) {
+        value = Math.max(value, 0);
+        float width = 0;
+        for (int divisor = topDivisor(value); divisor > 0; divisor /= 10) {
+            width += advance[value / divisor % 10];
+        }
+        return width;
+    }
+
+    /**
+     * Splits a number into its decimal digits, most significant first.
+     *
+     * @param value - The number, negative values are laid out as 0
+     * @param digits - Receives the digits, at least MAX_DIGITS entries
+     * @return The number of digits written
+     */
+    public static int split(int value, int[] digits) {
+        value = Math.max(value, 0);
+        int count = 0;
+        for (int divisor = topDivisor(value); divisor > 0; divisor /= 10) {
+            digits[count++] = value / divisor % 10;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the power of ten of the most significant digit of a value.
+     *
+     * @param value - A non-negative number
+     * @return 1 for single digits, 10 for two digits and so on
+     */
+    public static int topDivisor(int value) {
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        return divisor;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file contains the RenderResolution class which picks the size of the
+ * buffer the game is drawn into. A phone with a 1440p panel does not need its
+ * game drawn at 1440p: drawing at 720p and letting the display hardware scale
+ * the buffer up cuts the pixels filled per frame by four. The game world, its
+ * lanes and the swipe distances all live in this virtual space, and touches are
+ * mapped into it from the physical view.
+ *
+ * The class manages:
+ * - The physical view size and the smaller virtual render size
+ * - Capping the short side, or scaling by a fraction, without upscaling
+ * - Mapping physical touch coordinates to virtual ones
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Immutable pair of physical and virtual screen sizes with the same aspect ratio.
+ */
+public class RenderResolution {
+    private final int physicalWidth, physicalHeight;
+    private final int width, height;
+    private final float scaleX, scaleY;
+
+    private RenderResolution(int physicalWidth, int physicalHeight, float scale) {
+        if (physicalWidth <= 0 || physicalHeight <= 0) {
+            throw new IllegalArgumentException("empty screen " + physicalWidth + "x" + physicalHeight);
+        }
+        scale = Math.min(scale, 1f);
+        this.physicalWidth = physicalWidth;
+        this.physicalHeight = physicalHeight;
+        this.width = Math.max(1, Math.round(physicalWidth * scale));
+        this.height = Math.max(1, Math.round(physicalHeight * scale));
+        this.scaleX = (float) width / physicalWidth;
+        this.scaleY = (float) height / physicalHeight;
+    }
+
+    /**
+     * Renders at the physical size of the view.
+     *
+     * @param physicalWidth - The width of the view in pixels
+     * @param physicalHeight - The height of the view in pixels
+     * @return A resolution without scaling
+     */
+    public static RenderResolution nativeSize(int physicalWidth, int physicalHeight) {
+        return new RenderResolution(physicalWidth, physicalHeight, 1f);
+    }
+
+    /**
+     * Renders with the short side of the view capped, 720 for 720p on a phone
+     * in any orientation. Views already that small are rendered natively.
+     *
+     * @param physicalWidth - The width of the view in pixels
+     * @param physicalHeight - The height of the view in pixels
+     * @param maxShortSide - The largest number of pixels across the short side,
+     *                       0 or less to render natively
+     * @return The resolution
+     */
+    public static RenderResolution ofShortSide(int physicalWidth, int physicalHeight, int maxShortSide) {
+        if (maxShortSide <= 0) {
+            return nativeSize(physicalWidth, physicalHeight);
+        }
+        int shortSide = Math.min(physicalWidth, physicalHeight);
+        return new RenderResolution(physicalWidth, physicalHeight, (float) maxShortSide / shortSide);
+    }
+
+    /**
+     * Renders at a fraction of the view size.
+     *
+     * @param physicalWidth - The width of the view in pixels
+     * @param physicalHeight - The height of the view in pixels
+     * @param scale - The fraction, above 0; values above 1 render natively
+     * @return The resolution
+     */
+    public static RenderResolution ofScale(int physicalWidth, int physicalHeight, float scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("scale must be positive: " + scale);
+        }
+        return new RenderResolution(physicalWidth, physicalHeight, scale);
+    }
+
+    /**
+     * Returns the width the game is rendered and simulated at.
+     *
+     * @return The virtual width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height the game is rendered and simulated at.
+     *
+     * @return The virtual height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPhysicalWidth() {
+        return physicalWidth;
+    }
+
+    public int getPhysicalHeight() {
+        return physicalHeight;
+    }
+
+    /**
+     * Returns the size of a virtual pixel relative to a physical one, for
+     * scaling sprites and distances tuned in physical pixels.
+     *
+     * @return The virtual width over the physical width, at most 1
+     */
+    public float getScale() {
+        return scaleX;
+    }
+
+    public boolean isNative() {
+        return width == physicalWidth && height == physicalHeight;
+    }
+
+    /**
+     * Maps a physical x coordinate, such as a touch, to the virtual space.
+     *
+     * @param x - The x coordinate in view pixels
+     * @return The x coordinate in virtual pixels
+     */
+    public float toVirtualX(float x) {
+        return x * scaleX;
+    }
+
+    /**
+     * Maps a physical y coordinate, such as a touch, to the virtual space.
+     *
+     * @param y - The y coordinate in view pixels
+     * @return The y coordinate in virtual pixels
+     */
+    public float toVirtualY(float y) {
+        return y * scaleY;
+    }
+}
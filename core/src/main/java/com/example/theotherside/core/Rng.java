@@ -0,0 +1,59 @@
+/*
+ * This file contains the Rng interface which is the source of randomness used by
+ * the game simulation, so spawning can be driven by any generator.
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.Random;
+
+/**
+ * Random number source used by the simulation.
+ */
+public interface Rng {
+    /**
+     * Returns a uniformly distributed int in [0, bound).
+     *
+     * @param bound - The exclusive upper bound, must be positive
+     * @return The random int
+     */
+    int nextInt(int bound);
+
+    /**
+     * Returns a uniformly distributed float in [0, 1).
+     *
+     * @return The random float
+     */
+    float nextFloat();
+
+    /**
+     * Creates a fast deterministic generator, the same seed gives the same sequence.
+     *
+     * @param seed - The seed
+     * @return A new SeededRng
+     */
+    static Rng seeded(long seed) {
+        return new SeededRng(seed);
+    }
+
+    /**
+     * Wraps a java.util.Random as an Rng.
+     *
+     * @param random - The generator to wrap
+     * @return An Rng backed by the given generator
+     */
+    static Rng of(Random random) {
+        return new Rng() {
+            @Override
+            public int nextInt(int bound) {
+                return random.nextInt(bound);
+            }
+
+            @Override
+            public float nextFloat() {
+                return random.nextFloat();
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file contains the SeededRng class, a small and fast xoshiro128** generator
+ * owned by one world. Unlike a shared java.util.Random it has no atomic seed to
+ * update on every draw, and the same seed always produces the same run, which is
+ * what makes recorded sessions replayable.
+ *
+ * The class manages:
+ * - Four words of xoshiro128** state, expanded from a 64-bit seed by SplitMix64
+ * - Unbiased bounded ints and floats in [0, 1)
+ * - Reseeding in place for a new run
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Deterministic random source for a single thread.
+ */
+public class SeededRng implements Rng {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long seed;
+    private int s0, s1, s2, s3;
+
+    /**
+     * Creates a generator seeded with the given value.
+     *
+     * @param seed - The seed, any value including 0
+     */
+    public SeededRng(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Restarts the sequence for a seed.
+     *
+     * @param seed - The seed, any value including 0
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        // SplitMix64 is a bijection, so a and b differ and the state is never all
+        // zero, the one state xoshiro cannot leave
+        long a = splitMix(seed + GOLDEN_GAMMA);
+        long b = splitMix(seed + 2 * GOLDEN_GAMMA);
+        s0 = (int) a;
+        s1 = (int) (a >>> 32);
+        s2 = (int) b;
+        s3 = (int) (b >>> 32);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the next 32 random bits.
+     *
+     * @return The random int
+     */
+    public int nextInt() {
+        int result = Integer.rotateLeft(s1 * 5, 7) * 9;
+        int t = s1 << 9;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Integer.rotateLeft(s3, 11);
+        return result;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        // Lemire's multiply-shift, rejecting the few values that would bias low results
+        long product = (nextInt() & 0xFFFFFFFFL) * bound;
+        if ((product & 0xFFFFFFFFL) < bound) {
+            long threshold = (0x1_0000_0000L - bound) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold) {
+                product = (nextInt() & 0xFFFFFFFFL) * bound;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextInt() >>> 8) * 0x1.0p-24f;
+    }
+}
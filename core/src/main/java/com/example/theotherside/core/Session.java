@@ -0,0 +1,148 @@
+/*
+ * This file contains the Session class which runs a World deterministically.
+ * The world's clock only moves by one step per step and its random source is
+ * seeded per run, so a run depends on nothing but its seed and the steps at
+ * which the chicken changed lanes. The session records both, and can replay a
+ * recording to reproduce a run exactly, for bug reports and regression runs.
+ *
+ * The class manages:
+ * - The world with its step clock and seeded random source
+ * - Counting steps and recording applied lane changes
+ * - Replaying a recording in place of player input
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * A world driven by step count instead of wall time. Must only be used by the
+ * thread that steps it.
+ */
+public class Session {
+    private final ManualClock clock = new ManualClock();
+    private final SeededRng random = new SeededRng(0);
+    private final World world;
+    private final SessionRecording recording = new SessionRecording();
+    private SessionRecording replay;
+    private int replayIndex;
+    private long stepIndex;
+
+    /**
+     * Creates a session with a world for the given screen and lane layout.
+     * Sprite sizes must be set on the world before the first start().
+     *
+     * @param screenWidth - The width of the game screen
+     * @param screenHeight - The height of the game screen
+     * @param laneCount - The number of lanes
+     */
+    public Session(int screenWidth, int screenHeight, int laneCount) {
+        world = new World(screenWidth, screenHeight, laneCount, clock, random);
+    }
+
+    /**
+     * Starts a new run driven by player input.
+     *
+     * @param seed - The seed of the run
+     */
+    public void start(long seed) {
+        replay = null;
+        begin(seed);
+    }
+
+    /**
+     * Starts a run that replays a recording. Player lane changes are ignored,
+     * the recorded ones are applied before the same steps as in the original run.
+     *
+     * @param recording - The run to replay
+     */
+    public void startReplay(SessionRecording recording) {
+        replay = recording;
+        replayIndex = 0;
+        begin(recording.getSeed());
+    }
+
+    private void begin(long seed) {
+        // Every run starts at time 0, the world's millisecond timers truncate
+        // the clock, so a different origin would shift every spawn
+        clock.set(0);
+        random.setSeed(seed);
+        world.reset();
+        recording.clear(seed);
+        stepIndex = 0;
+    }
+
+    /**
+     * Applies the recorded lane changes due before this step, if replaying,
+     * then advances the world by one fixed step.
+     */
+    public void step() {
+        if (replay != null) {
+            while (replayIndex < replay.size() && replay.getStep(replayIndex) <= stepIndex) {
+                applyMove(replay.getKind(replayIndex++));
+            }
+        }
+        boolean wasRunning = !world.isGameOver();
+        clock.advance(World.STEP_NANOS);
+        world.step();
+        stepIndex++;
+        if (wasRunning) {
+            // Steps after the crash change nothing, the run ends with it
+            recording.setStepCount(stepIndex);
+        }
+    }
+
+    /**
+     * Changes the chicken's lane for player input. Ignored while replaying.
+     *
+     * @param kind - InputRing.SWIPE_LEFT or InputRing.SWIPE_RIGHT
+     * @return true if the chicken moved
+     */
+    public boolean move(int kind) {
+        if (replay != null) {
+            return false;
+        }
+        return applyMove(kind);
+    }
+
+    private boolean applyMove(int kind) {
+        boolean moved = kind == InputRing.SWIPE_LEFT ? world.moveLeft() : world.moveRight();
+        if (moved) {
+            recording.record(stepIndex, kind);
+        }
+        return moved;
+    }
+
+    /**
+     * Steps a replayed run until the end of its recording.
+     */
+    public void replayToEnd() {
+        if (replay == null) {
+            throw new IllegalStateException("not replaying");
+        }
+        while (stepIndex < replay.getStepCount()) {
+            step();
+        }
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Returns the recording of the current run. It keeps changing while the run
+     * goes on, use SessionRecording.copy() to keep it.
+     *
+     * @return The recording, which is also written while replaying
+     */
+    public SessionRecording getRecording() {
+        return recording;
+    }
+
+    public boolean isReplaying() {
+        return replay != null;
+    }
+
+    public long getStepIndex() {
+        return stepIndex;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file contains the SessionRecording class which holds everything needed to
+ * replay one run exactly: the seed of the world's random source, the step at
+ * which each lane change was applied and the number of steps the run lasted.
+ * Recordings are a few bytes per lane change and can be written to and read
+ * from a stream, so a run reported from a device can be replayed in a test or
+ * benchmark.
+ *
+ * The class manages:
+ * - The seed and length of a run
+ * - Lane changes packed with their step into single longs
+ * - A compact binary form with variable-length step deltas
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Seed and timed lane changes of one run, written by a Session on the simulation
+ * thread. Not thread-safe, hand copy() to other threads.
+ */
+public class SessionRecording {
+    // "TOSR", followed by the format version
+    private static final int MAGIC = 0x544F5352;
+    private static final int VERSION = 1;
+
+    private long seed;
+    private long stepCount;
+    // step << 1 | kind, where kind is InputRing.SWIPE_LEFT or SWIPE_RIGHT
+    private long[] moves = new long[64];
+    private int size;
+
+    /**
+     * Clears the recording for a new run.
+     *
+     * @param seed - The seed of the new run
+     */
+    public void clear(long seed) {
+        this.seed = seed;
+        stepCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds a lane change applied before the given step.
+     *
+     * @param step - The number of steps taken when the lane change was applied,
+     *               not less than the step of the previous one
+     * @param kind - InputRing.SWIPE_LEFT or InputRing.SWIPE_RIGHT
+     */
+    public void record(long step, int kind) {
+        if (kind != InputRing.SWIPE_LEFT && kind != InputRing.SWIPE_RIGHT) {
+            throw new IllegalArgumentException("not a lane change: " + kind);
+        }
+        if (size > 0 && step < getStep(size - 1)) {
+            throw new IllegalArgumentException("step " + step + " before step " + getStep(size - 1));
+        }
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = step << 1 | kind;
+    }
+
+    /**
+     * Sets the number of steps the run has lasted so far.
+     *
+     * @param stepCount - The number of steps
+     */
+    public void setStepCount(long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Returns the number of lane changes.
+     *
+     * @return The number of recorded lane changes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of steps taken before a lane change was applied.
+     *
+     * @param index - The index of the lane change
+     * @return The step of the lane change
+     */
+    public long getStep(int index) {
+        return moves[index] >>> 1;
+    }
+
+    /**
+     * Returns the direction of a lane change.
+     *
+     * @param index - The index of the lane change
+     * @return InputRing.SWIPE_LEFT or InputRing.SWIPE_RIGHT
+     */
+    public int getKind(int index) {
+        return (int) (moves[index] & 1);
+    }
+
+    /**
+     * Returns an independent copy, for handing the recording to another thread.
+     *
+     * @return The copy
+     */
+    public SessionRecording copy() {
+        SessionRecording copy = new SessionRecording();
+        copy.seed = seed;
+        copy.stepCount = stepCount;
+        copy.moves = Arrays.copyOf(moves, Math.max(size, 1));
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Writes the recording in its binary form, about two bytes per lane change.
+     *
+     * @param out - The output to write to
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        writeVarLong(out, stepCount);
+        writeVarLong(out, size);
+        long previousStep = 0;
+        for (int i = 0; i < size; i++) {
+            long step = getStep(i);
+            writeVarLong(out, (step - previousStep) << 1 | getKind(i));
+            previousStep = step;
+        }
+    }
+
+    /**
+     * Reads a recording written by write().
+     *
+     * @param in - The input to read from
+     * @return The recording
+     * @throws IOException if reading fails or the input is not a recording
+     */
+    public static SessionRecording read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a session recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported session recording version " + version);
+        }
+        SessionRecording recording = new SessionRecording();
+        recording.clear(in.readLong());
+        recording.stepCount = readVarLong(in);
+        long count = readVarLong(in);
+        long step = 0;
+        for (long i = 0; i < count; i++) {
+            long delta = readVarLong(in);
+            step += delta >>> 1;
+            recording.record(step, (int) (delta & 1));
+        }
+        return recording;
+    }
+
+    /**
+     * Writes an unsigned value 7 bits per byte, low bits first.
+     */
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed session recording");
+    }
+}
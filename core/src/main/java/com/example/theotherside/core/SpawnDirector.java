@@ -0,0 +1,182 @@
+/*
+ * This file contains the SpawnDirector class which decides when and in which lane
+ * carts and coins appear. Sets of lanes are int bitmasks with one bit per lane, so
+ * a spawn decision never allocates and never boxes a lane index.
+ *
+ * The class manages:
+ * - Cart and coin spawn timers and the cart spawn frequency
+ * - Danger and escape lanes so the chicken always has a way out
+ * - Forcing a cart into the chicken's lane after FORCE_SPAWN_TIMEOUT
+ * - Picking a random lane from a set without allocating
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Cart and coin spawn rules of a World, at most 32 lanes.
+ */
+public class SpawnDirector {
+    static final long FORCE_SPAWN_TIMEOUT = 5000;
+
+    private final World world;
+    private final Rng random;
+    private final int laneCount;
+    private final int screenHeight;
+
+    private long lastCartTime, lastCoinTime;
+    private long lastChickenLaneCartTime = 0;
+    private int cartFrequency = 1000; // milliseconds
+    private int coinFrequency = 2000; // milliseconds
+
+    /**
+     * Creates a director spawning into the given world.
+     *
+     * @param world - The world to add carts and coins to
+     * @param random - The random source for lanes and cart types
+     */
+    SpawnDirector(World world, Rng random) {
+        if (world.getLaneCount() > Integer.SIZE) {
+            throw new IllegalArgumentException("at most " + Integer.SIZE + " lanes, got " + world.getLaneCount());
+        }
+        this.world = world;
+        this.random = random;
+        this.laneCount = world.getLaneCount();
+        this.screenHeight = world.getScreenHeight();
+    }
+
+    /**
+     * Restarts the spawn timers for a new run.
+     *
+     * @param currentTime - The current time in milliseconds
+     */
+    void reset(long currentTime) {
+        lastCartTime = lastCoinTime = currentTime;
+        // Counted from the start of the run, so a restarted run forces its
+        // first chicken-lane cart at the same step as a fresh one
+        lastChickenLaneCartTime = currentTime;
+        cartFrequency = 1000;
+    }
+
+    /**
+     * Generates carts with a guaranteed escape path.
+     *
+     * @param currentTime - The current time in milliseconds
+     * @param chickenLane - The lane the chicken is currently in
+     * @param score - The score of the run, higher scores spawn carts more often
+     */
+    void spawnCarts(long currentTime, int chickenLane, int score) {
+        if (currentTime - lastCartTime <= cartFrequency) {
+            return;
+        }
+        EntityStore carts = world.getCarts();
+
+        // A lane is dangerous if a cart is in the top 70% of the screen. It is
+        // still an escape lane if the topmost cart is far enough down to escape
+        // to another lane, and carts may spawn in it if that cart left the top 30%.
+        // The topmost cart of the lane is the one that has traveled the least.
+        int escapeLanes = 0;
+        int clearLanes = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            float topY = carts.topY(lane);
+            if (topY > screenHeight * 0.4) {
+                escapeLanes |= 1 << lane;
+            }
+            if (topY > screenHeight * 0.3) {
+                clearLanes |= 1 << lane;
+            }
+        }
+
+        // Force spawn in the chicken's lane after timeout
+        if (currentTime - lastChickenLaneCartTime > FORCE_SPAWN_TIMEOUT) {
+            world.spawnCart(chickenLane, random.nextInt(10));
+            lastCartTime = currentTime;
+            lastChickenLaneCartTime = currentTime; // Reset timeout
+        }
+
+        int chickenBit = 1 << chickenLane;
+        int escapeCount = Integer.bitCount(escapeLanes);
+
+        // If there's only one escape lane and it's not the chicken's lane, don't spawn a cart there
+        if (escapeCount == 1 && escapeLanes != chickenBit) {
+            // Choose from lanes other than the only escape lane
+            int spawnLanes = clearLanes & ~escapeLanes;
+
+            // Only spawn a cart if there's a valid lane
+            if (spawnLanes != 0) {
+                world.spawnCart(pickLane(spawnLanes), random.nextInt(10));
+                lastCartTime = currentTime;
+            }
+        }
+        // If there are multiple escape lanes, we can spawn a cart in one
+        else if (escapeCount > 1) {
+            // Never spawn a cart in the chicken's lane if it's one of several escape lanes
+            int spawnLanes = escapeLanes & ~chickenBit;
+
+            // Select a random lane from the remaining escape lanes
+            int selectedLane = pickLane(spawnLanes);
+            world.spawnCart(selectedLane, random.nextInt(10));
+            lastCartTime = currentTime;
+        }
+        // If there are no escape lanes, don't spawn a cart at all
+        else {
+            lastCartTime = currentTime; // Reset timer
+        }
+
+        // Gradually increase difficulty by reducing spawn time
+        // but keep a minimum threshold to ensure game remains playable
+        cartFrequency = Math.max(1000 - (score * 3), 600);
+    }
+
+    /**
+     * Generates coins in lanes without carts or coins near the top.
+     *
+     * @param currentTime - The current time in milliseconds
+     */
+    void spawnCoins(long currentTime) {
+        if (currentTime - lastCoinTime <= coinFrequency) {
+            return;
+        }
+        EntityStore carts = world.getCarts();
+        EntityStore coins = world.getCoins();
+
+        // Don't spawn coins in lanes that already have carts or coins near the top
+        int availableLanes = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            if (!(carts.topY(lane) < screenHeight * 0.4 || coins.topY(lane) < screenHeight * 0.3)) {
+                availableLanes |= 1 << lane;
+            }
+        }
+
+        // Spawn coin if there's at least one available lane
+        if (availableLanes != 0) {
+            world.spawnCoin(pickLane(availableLanes));
+        }
+        lastCoinTime = currentTime;
+    }
+
+    /**
+     * Picks a uniformly random lane from a set. Consumes one random int, like
+     * picking from a list of the same lanes in ascending order.
+     *
+     * @param lanes - The set of lanes, must not be empty
+     * @return The selected lane index
+     */
+    private int pickLane(int lanes) {
+        return nthSetBit(lanes, random.nextInt(Integer.bitCount(lanes)));
+    }
+
+    /**
+     * Returns the position of a set bit, counting from the lowest.
+     *
+     * @param mask - The bits, with more than n set
+     * @param n - How many set bits to skip
+     * @return The bit position
+     */
+    static int nthSetBit(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1; // clear the lowest set bit
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
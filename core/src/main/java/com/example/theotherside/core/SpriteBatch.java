@@ -0,0 +1,300 @@
+/*
+ * This file contains the SpriteBatch class which plans how the entities of a
+ * snapshot are drawn. Entities sharing a sprite are collected into one group,
+ * and a group large enough is turned into a triangle list of textured quads, so
+ * the whole group is submitted in a single Canvas.drawVertices() call instead of
+ * one drawBitmap() per entity. Small groups are left to per-sprite draws, where
+ * the fixed cost of a call is lower than that of rasterising triangles.
+ *
+ * The class manages:
+ * - Preallocated quad positions, texture coordinates and a shared index list
+ * - Sprite rectangles within a shared texture such as a sprite atlas
+ * - Grouping the entities of a snapshot by sprite type, in a fixed draw order
+ * - Choosing between one batched call and per-sprite calls for each group
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.Arrays;
+
+/**
+ * Per-frame draw plan for the entities of a WorldSnapshot. Used by the render
+ * thread only; the arrays stay valid until the next plan().
+ */
+public class SpriteBatch {
+    // Groups are drawn in this order: coins lie on the road, carts drive over
+    // them and the chicken is on top. Carts in different lanes never overlap,
+    // so drawing the two cart types one after the other keeps the picture
+    public static final int[] DRAW_ORDER = {
+            Entity.TYPE_COIN, Entity.TYPE_CART, Entity.TYPE_CART_HAY, Entity.TYPE_CHICKEN};
+
+    private static final int FLOATS_PER_QUAD = 8;
+    private static final int INDICES_PER_QUAD = 6;
+
+    private final int minBatch;
+    private final float[] spriteWidth = new float[Entity.TYPE_COUNT];
+    private final float[] spriteHeight = new float[Entity.TYPE_COUNT];
+    // Rectangle of each sprite in its texture
+    private final float[] regionLeft = new float[Entity.TYPE_COUNT];
+    private final float[] regionTop = new float[Entity.TYPE_COUNT];
+    private final float[] regionRight = new float[Entity.TYPE_COUNT];
+    private final float[] regionBottom = new float[Entity.TYPE_COUNT];
+    private final int[] counts = new int[Entity.TYPE_COUNT];
+    // Quad corners per type, top-left, top-right, bottom-right, bottom-left
+    private final float[][] vertices = new float[Entity.TYPE_COUNT][];
+    private final float[][] texCoords = new float[Entity.TYPE_COUNT][];
+    private short[] indices;
+    private int capacity;
+
+    /**
+     * Creates a batch with room for the given number of entities per type.
+     *
+     * @param capacity - The number of quads to preallocate per type, grown on demand
+     * @param minBatch - The smallest group drawn with one batched call, smaller
+     *                   groups are drawn sprite by sprite
+     */
+    public SpriteBatch(int capacity, int minBatch) {
+        this.minBatch = Math.max(minBatch, 1);
+        allocate(Math.max(capacity, 1));
+    }
+
+    private void allocate(int newCapacity) {
+        for (int type = 0; type < Entity.TYPE_COUNT; type++) {
+            vertices[type] = vertices[type] == null ? new float[newCapacity * FLOATS_PER_QUAD]
+                    : Arrays.copyOf(vertices[type], newCapacity * FLOATS_PER_QUAD);
+            texCoords[type] = new float[newCapacity * FLOATS_PER_QUAD];
+        }
+        indices = new short[newCapacity * INDICES_PER_QUAD];
+        for (int quad = 0; quad < newCapacity; quad++) {
+            // Two triangles per quad over its four corners
+            int corner = quad * 4;
+            int i = quad * INDICES_PER_QUAD;
+            indices[i] = (short) corner;
+            indices[i + 1] = (short) (corner + 1);
+            indices[i + 2] = (short) (corner + 2);
+            indices[i + 3] = (short) corner;
+            indices[i + 4] = (short) (corner + 2);
+            indices[i + 5] = (short) (corner + 3);
+        }
+        capacity = newCapacity;
+        for (int type = 0; type < Entity.TYPE_COUNT; type++) {
+            fillTexCoords(type);
+        }
+    }
+
+    /**
+     * Sets the size of a sprite's bitmap. Every quad of the type shows the
+     * whole bitmap at this size.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param width - The bitmap width in pixels
+     * @param height - The bitmap height in pixels
+     */
+    public void setSpriteSize(int type, float width, float height) {
+        setSpriteRegion(type, 0, 0, width, height, width, height);
+    }
+
+    /**
+     * Sets the rectangle of a sprite within a shared texture, such as a sprite
+     * atlas, and the size it is drawn at.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param u - The left edge of the sprite in the texture
+     * @param v - The top edge of the sprite in the texture
+     * @param textureWidth - The width of the sprite in the texture
+     * @param textureHeight - The height of the sprite in the texture
+     * @param width - The width the sprite is drawn at
+     * @param height - The height the sprite is drawn at
+     */
+    public void setSpriteRegion(int type, float u, float v, float textureWidth, float textureHeight,
+                                float width, float height) {
+        spriteWidth[type] = width;
+        spriteHeight[type] = height;
+        regionLeft[type] = u;
+        regionTop[type] = v;
+        regionRight[type] = u + textureWidth;
+        regionBottom[type] = v + textureHeight;
+        fillTexCoords(type);
+    }
+
+    /**
+     * Texture coordinates never change between frames, they are written once.
+     */
+    private void fillTexCoords(int type) {
+        float left = regionLeft[type];
+        float top = regionTop[type];
+        float right = regionRight[type];
+        float bottom = regionBottom[type];
+        float[] tex = texCoords[type];
+        for (int i = 0; i < capacity * FLOATS_PER_QUAD; i += FLOATS_PER_QUAD) {
+            tex[i] = left;
+            tex[i + 1] = top;
+            tex[i + 2] = right;
+            tex[i + 3] = top;
+            tex[i + 4] = right;
+            tex[i + 5] = bottom;
+            tex[i + 6] = left;
+            tex[i + 7] = bottom;
+        }
+    }
+
+    /**
+     * Groups the entities of a snapshot by type and writes their quads at their
+     * interpolated positions.
+     *
+     * @param snapshot - The snapshot to draw
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     */
+    public void plan(WorldSnapshot snapshot, float alpha) {
+        Arrays.fill(counts, 0);
+        int size = snapshot.size();
+        if (size > capacity) {
+            allocate(Math.max(size, capacity * 2));
+        }
+        for (int i = 0; i < size; i++) {
+            int type = snapshot.getType(i);
+            float left = snapshot.renderX(i, alpha);
+            float top = snapshot.renderY(i, alpha);
+            float right = left + spriteWidth[type];
+            float bottom = top + spriteHeight[type];
+            float[] v = vertices[type];
+            int k = counts[type]++ * FLOATS_PER_QUAD;
+            v[k] = left;
+            v[k + 1] = top;
+            v[k + 2] = right;
+            v[k + 3] = top;
+            v[k + 4] = right;
+            v[k + 5] = bottom;
+            v[k + 6] = left;
+            v[k + 7] = bottom;
+        }
+    }
+
+    /**
+     * Returns the number of entities of a type in the last plan.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The number of quads
+     */
+    public int getCount(int type) {
+        return counts[type];
+    }
+
+    /**
+     * Checks if a group is drawn with one drawVertices() call.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return true to draw the group batched, false to draw it sprite by sprite
+     */
+    public boolean isBatched(int type) {
+        return counts[type] >= minBatch;
+    }
+
+    /**
+     * Returns the quad corners of a type, two floats per corner and four
+     * corners per quad, for drawVertices() and for per-sprite draws.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The vertex array, valid for getVertexCount(type) floats
+     */
+    public float[] getVertices(int type) {
+        return vertices[type];
+    }
+
+    /**
+     * Returns the texture coordinates matching getVertices(), in texture pixels.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The texture coordinate array
+     */
+    public float[] getTexCoords(int type) {
+        return texCoords[type];
+    }
+
+    /**
+     * Returns the number of floats of a type's vertices, the vertexCount of drawVertices().
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The number of floats in use
+     */
+    public int getVertexCount(int type) {
+        return counts[type] * FLOATS_PER_QUAD;
+    }
+
+    /**
+     * Returns the triangle list shared by every type, two triangles per quad.
+     *
+     * @return The index array
+     */
+    public short[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Returns the number of indices of a type's triangles, the indexCount of drawVertices().
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The number of indices in use
+     */
+    public int getIndexCount(int type) {
+        return counts[type] * INDICES_PER_QUAD;
+    }
+
+    /**
+     * Returns the left edge of a quad, for per-sprite draws.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param i - The index of the quad within its type
+     * @return The x coordinate of the sprite
+     */
+    public float getLeft(int type, int i) {
+        return vertices[type][i * FLOATS_PER_QUAD];
+    }
+
+    /**
+     * Returns the top edge of a quad, for per-sprite draws.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param i - The index of the quad within its type
+     * @return The y coordinate of the sprite
+     */
+    public float getTop(int type, int i) {
+        return vertices[type][i * FLOATS_PER_QUAD + 1];
+    }
+
+    /**
+     * Returns the width a sprite is drawn at.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The width of its quads
+     */
+    public float getSpriteWidth(int type) {
+        return spriteWidth[type];
+    }
+
+    /**
+     * Returns the height a sprite is drawn at.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @return The height of its quads
+     */
+    public float getSpriteHeight(int type) {
+        return spriteHeight[type];
+    }
+
+    /**
+     * Returns the number of draw calls the last plan needs.
+     *
+     * @return One call per batched group plus one per sprite of the other groups
+     */
+    public int getDrawCalls() {
+        int calls = 0;
+        for (int type = 0; type < Entity.TYPE_COUNT; type++) {
+            if (counts[type] > 0) {
+                calls += isBatched(type) ? 1 : counts[type];
+            }
+        }
+        return calls;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * This file contains the SurfaceLifecycle class which coordinates a render thread
+ * with the two lifecycles it depends on: the host being resumed or paused, and the
+ * drawing surface being created or destroyed. The render thread blocks while there
+ * is no surface instead of polling for one, pausing never waits for the thread,
+ * and destroying the surface waits, for a bounded time, until the thread is no
+ * longer drawing on it.
+ *
+ * The class manages:
+ * - Whether a render thread is running, so at most one is ever started
+ * - Blocking the render thread until it is resumed and has a surface
+ * - A drawing handshake for releasing the surface
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Monitor shared by the UI thread and the render thread. Methods documented as
+ * render-thread methods must only be called by the running render thread.
+ */
+public class SurfaceLifecycle {
+    private final Clock clock;
+    private boolean isResumed;
+    private boolean hasSurface;
+    private boolean isDrawing;
+    private boolean isThreadRunning;
+
+    /**
+     * Creates the monitor of a stopped render thread without a surface.
+     *
+     * @param clock - The time source for the timeout of surfaceDestroyed()
+     */
+    public SurfaceLifecycle(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Marks the host as resumed and wakes the render thread.
+     *
+     * @return true if no render thread is running and the caller must start one
+     */
+    public synchronized boolean resume() {
+        isResumed = true;
+        notifyAll();
+        if (isThreadRunning) {
+            // The previous thread had not noticed the pause yet, it keeps running
+            return false;
+        }
+        isThreadRunning = true;
+        return true;
+    }
+
+    /**
+     * Asks the render thread to stop. Returns immediately, the thread exits after
+     * its current frame.
+     */
+    public synchronized void pause() {
+        isResumed = false;
+        notifyAll();
+    }
+
+    /**
+     * Makes a surface available to the render thread and wakes it.
+     */
+    public synchronized void surfaceCreated() {
+        hasSurface = true;
+        notifyAll();
+    }
+
+    /**
+     * Takes the surface away from the render thread and waits until it has
+     * finished the frame it may be drawing.
+     *
+     * @param timeoutMillis - The longest time to wait for the frame
+     * @return true if the thread is not drawing anymore, false if the wait timed out
+     */
+    public synchronized boolean surfaceDestroyed(long timeoutMillis) {
+        hasSurface = false;
+        notifyAll();
+        // Monotonic, a wall clock change must not stretch or cut the wait
+        long deadline = clock.nanoTime() + timeoutMillis * 1_000_000L;
+        boolean interrupted = false;
+        try {
+            while (isDrawing) {
+                long remaining = deadline - clock.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    wait(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Render thread: blocks while resumed without a surface.
+     *
+     * @return true to render a frame, false if the thread must exit because the
+     *         host was paused; the thread counts as stopped from then on
+     * @throws InterruptedException if the thread is interrupted while blocked
+     */
+    public synchronized boolean awaitRunnable() throws InterruptedException {
+        while (isResumed && !hasSurface) {
+            wait();
+        }
+        if (!isResumed) {
+            isThreadRunning = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Render thread: claims the surface for one frame.
+     *
+     * @return true if the surface may be drawn on until endDraw(), false if there is none
+     */
+    public synchronized boolean beginDraw() {
+        if (!hasSurface) {
+            return false;
+        }
+        isDrawing = true;
+        return true;
+    }
+
+    /**
+     * Render thread: releases the surface after a frame started with beginDraw().
+     */
+    public synchronized void endDraw() {
+        isDrawing = false;
+        notifyAll();
+    }
+
+    /**
+     * Render thread: marks the thread as stopped when it exits on its own,
+     * for example after an interrupt.
+     */
+    public synchronized void threadExited() {
+        isThreadRunning = false;
+        isDrawing = false;
+        notifyAll();
+    }
+
+    public synchronized boolean isResumed() {
+        return isResumed;
+    }
+
+    public synchronized boolean hasSurface() {
+        return hasSurface;
+    }
+
+    public synchronized boolean isThreadRunning() {
+        return isThreadRunning;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file contains the SwipeRecognizer class which turns the samples of a touch
+ * gesture into lane changes. A lane change is committed while the finger is still
+ * moving, as soon as it has travelled far enough sideways and fast enough, instead
+ * of waiting for it to lift. The gesture then goes on from where it committed, so
+ * one long swipe can change several lanes and a swipe back reverses them. Further
+ * lanes in the same direction take a longer distance, so an ordinary flick that
+ * overshoots still changes a single lane.
+ *
+ * The class manages:
+ * - The anchor point the next lane change is measured from
+ * - A short window of recent samples for the swipe velocity
+ * - Distance, direction and velocity thresholds for committing
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Swipe recognizer fed with touch samples on the System.nanoTime() time base.
+ * Not thread safe, samples come from the thread that receives the touch events.
+ */
+public class SwipeRecognizer {
+    public static final float DEFAULT_MIN_DISTANCE = 100;
+    public static final float DEFAULT_MIN_VELOCITY = 100; // pixels per second
+
+    // Velocity is measured over about this much of the most recent movement
+    private static final long VELOCITY_WINDOW_NANOS = 100_000_000L;
+    private static final int WINDOW_SAMPLES = 16;
+
+    /**
+     * Receives committed lane changes.
+     */
+    public interface Listener {
+        /**
+         * Called once per lane change, possibly several times per gesture.
+         *
+         * @param direction - InputRing.SWIPE_LEFT or InputRing.SWIPE_RIGHT
+         * @param timeNanos - The time of the sample that committed the change
+         */
+        void onSwipe(int direction, long timeNanos);
+    }
+
+    private final float minDistance;
+    private final float chainDistance;
+    private final float minVelocity;
+    private final Listener listener;
+
+    private boolean isTracking;
+    // Direction of the last lane change of the gesture, -1 before the first one
+    private int lastDirection;
+    private float anchorX, anchorY;
+    // Ring of the most recent samples, for the velocity
+    private final float[] sampleX = new float[WINDOW_SAMPLES];
+    private final long[] sampleTime = new long[WINDOW_SAMPLES];
+    private int sampleCount;
+    private int newest;
+    private int commitCount;
+
+    /**
+     * Creates a recognizer with the default thresholds.
+     *
+     * @param listener - The listener for lane changes
+     */
+    public SwipeRecognizer(Listener listener) {
+        this(DEFAULT_MIN_DISTANCE, 2 * DEFAULT_MIN_DISTANCE, DEFAULT_MIN_VELOCITY, listener);
+    }
+
+    /**
+     * Creates a recognizer with the given thresholds.
+     *
+     * @param minDistance - The sideways distance in pixels that commits a lane change
+     * @param chainDistance - The further distance for each next lane in the same direction
+     * @param minVelocity - The sideways speed in pixels per second the swipe needs
+     * @param listener - The listener for lane changes
+     */
+    public SwipeRecognizer(float minDistance, float chainDistance, float minVelocity, Listener listener) {
+        this.minDistance = minDistance;
+        this.chainDistance = Math.max(chainDistance, minDistance);
+        this.minVelocity = minVelocity;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts a gesture.
+     *
+     * @param x - The x of the touch
+     * @param y - The y of the touch
+     * @param timeNanos - The time of the touch
+     */
+    public void down(float x, float y, long timeNanos) {
+        isTracking = true;
+        lastDirection = -1;
+        commitCount = 0;
+        sampleCount = 0;
+        setAnchor(x, y);
+        addSample(x, timeNanos);
+    }
+
+    /**
+     * Feeds one sample of a moving finger, committing lane changes that it
+     * completes. Historical samples of a batched move event are fed one by one,
+     * oldest first.
+     *
+     * @param x - The x of the sample
+     * @param y - The y of the sample
+     * @param timeNanos - The time of the sample
+     */
+    public void move(float x, float y, long timeNanos) {
+        if (!isTracking) {
+            return;
+        }
+        addSample(x, timeNanos);
+
+        float dx = x - anchorX;
+        float dy = y - anchorY;
+        // Mostly vertical movement is not a swipe, measure again from here
+        if (Math.abs(dy) > Math.abs(dx) && Math.abs(dy) >= minDistance) {
+            setAnchor(x, y);
+            return;
+        }
+        if (Math.abs(dx) < minDistance || Math.abs(dx) <= Math.abs(dy)) {
+            return;
+        }
+        float velocity = velocity();
+        if (Math.abs(velocity) < minVelocity || (velocity > 0) != (dx > 0)) {
+            return;
+        }
+
+        int direction = dx > 0 ? InputRing.SWIPE_RIGHT : InputRing.SWIPE_LEFT;
+        float distance = Math.abs(dx);
+        float needed = direction == lastDirection ? chainDistance : minDistance;
+        // A fast sample may cover more than one lane's distance
+        while (distance >= needed) {
+            listener.onSwipe(direction, timeNanos);
+            commitCount++;
+            lastDirection = direction;
+            // The next lane change is measured from where this one was committed
+            anchorX += dx > 0 ? needed : -needed;
+            distance -= needed;
+            needed = chainDistance;
+        }
+        anchorY = y;
+    }
+
+    /**
+     * Ends a gesture with the sample of the lifted finger.
+     *
+     * @param x - The x where the finger lifted
+     * @param y - The y where the finger lifted
+     * @param timeNanos - The time the finger lifted
+     */
+    public void up(float x, float y, long timeNanos) {
+        move(x, y, timeNanos);
+        isTracking = false;
+    }
+
+    /**
+     * Abandons a gesture, for example when another view takes the touch.
+     * Lane changes already committed stay committed.
+     */
+    public void cancel() {
+        isTracking = false;
+    }
+
+    /**
+     * Returns how many lane changes the current or last gesture committed.
+     *
+     * @return The commit count
+     */
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    public boolean isTracking() {
+        return isTracking;
+    }
+
+    private void setAnchor(float x, float y) {
+        anchorX = x;
+        anchorY = y;
+    }
+
+    private void addSample(float x, long timeNanos) {
+        newest = (newest + 1) % WINDOW_SAMPLES;
+        sampleX[newest] = x;
+        sampleTime[newest] = timeNanos;
+        sampleCount = Math.min(sampleCount + 1, WINDOW_SAMPLES);
+    }
+
+    /**
+     * Returns the sideways velocity from the oldest sample inside the velocity
+     * window to the newest one.
+     */
+    private float velocity() {
+        long now = sampleTime[newest];
+        int oldest = newest;
+        for (int age = 1; age < sampleCount; age++) {
+            int i = (newest - age + WINDOW_SAMPLES) % WINDOW_SAMPLES;
+            oldest = i;
+            if (now - sampleTime[i] >= VELOCITY_WINDOW_NANOS) {
+                break;
+            }
+        }
+        long dt = now - sampleTime[oldest];
+        if (dt <= 0) {
+            return 0;
+        }
+        return (sampleX[newest] - sampleX[oldest]) * 1e9f / dt;
+    }
+}
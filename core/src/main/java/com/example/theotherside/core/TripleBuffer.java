@@ -0,0 +1,87 @@
+/*
+ * This file contains the TripleBuffer class which hands preallocated objects from
+ * one writer thread to one reader thread without locks. The writer fills its back
+ * buffer and swaps it into the middle slot, the reader swaps the middle slot out
+ * when it holds something newer. Neither side ever waits for the other, and the
+ * reader always gets the most recently published buffer.
+ *
+ * The class manages:
+ * - Three buffers owned by the writer, the reader and the shared middle slot
+ * - Swapping them with a single atomic exchange per publish or update
+ *
+ */
+
+package com.example.theotherside.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free single-writer, single-reader triple buffer.
+ *
+ * @param <T> - The type of the buffers
+ */
+public class TripleBuffer<T> {
+    // Set in the middle slot when it holds a buffer the reader has not taken
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final T[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // writer only
+    private int front = 2; // reader only
+
+    /**
+     * Creates a triple buffer over three distinct, preallocated buffers.
+     *
+     * @param first - The first buffer, the writer's back buffer to start with
+     * @param second - The second buffer
+     * @param third - The third buffer, what the reader sees until the first publish
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(T first, T second, T third) {
+        if (first == second || second == third || first == third) {
+            throw new IllegalArgumentException("a triple buffer needs three distinct buffers");
+        }
+        buffers = (T[]) new Object[] {first, second, third};
+    }
+
+    /**
+     * Writer: returns the buffer to fill before the next publish().
+     *
+     * @return The back buffer
+     */
+    public T getWriteBuffer() {
+        return buffers[back];
+    }
+
+    /**
+     * Writer: makes the back buffer the newest one and takes a free buffer to
+     * write the next one into. An unread buffer in the middle slot is recycled.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Reader: takes the newest published buffer if there is one it has not seen.
+     *
+     * @return true if the read buffer changed
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * Reader: returns the buffer taken by the last update(). It stays untouched
+     * by the writer until the next update().
+     *
+     * @return The front buffer
+     */
+    public T getReadBuffer() {
+        return buffers[front];
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * This file contains the World class which holds the complete gameplay state and
+ * rules of the game without any Android dependency. The Android GameView renders
+ * a World and forwards input to it, while tests and benchmarks can step it on
+ * virtual time as fast as the JVM allows.
+ *
+ * The class manages:
+ * - The chicken as plain geometry, carts and coins as per-lane arrays
+ * - Speed ramp and distance travelled
+ * - Cart and coin spawning through a SpawnDirector
+ * - Collision detection and scoring
+ * - Game over state
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Headless game simulation advanced in fixed steps.
+ */
+public class World {
+    /**
+     * Receives gameplay events, typically to play sounds and persist scores.
+     */
+    public interface Listener {
+        /**
+         * Called once when the chicken is hit by a cart.
+         *
+         * @param score - The final score of the run
+         * @param coinsCollected - The coins collected during the run
+         */
+        void onCrash(int score, int coinsCollected);
+
+        /**
+         * Called when the chicken collects a coin.
+         *
+         * @param coinsCollected - The coins collected so far in the run
+         */
+        void onCoinCollected(int coinsCollected);
+
+        /**
+         * Called when the speed multiplier passes another whole number.
+         */
+        void onSpeedUp();
+    }
+
+    // Gameplay always advances in 120 Hz steps
+    public static final long STEP_NANOS = 1_000_000_000L / 120;
+    // Movement speeds are tuned per 60 Hz frame, one step covers half of that
+    public static final float STEP_SCALE = 60f / 120f;
+
+    private static final float BASE_SPEED = 0.2f;
+    private static final float SPEED_INCREASE_PER_MINUTE = 0.5f;
+    private static final float MAX_SPEED = 30f;
+    private static final float COIN_SPEED = 5f;
+    // Carts and coins are shifted up to this many pixels off the lane center
+    private static final float LANE_JITTER = 5f;
+    private static final int CART_CAPACITY = 24;
+    private static final int COIN_CAPACITY = 16;
+
+    private final int screenWidth, screenHeight;
+    private final int laneCount;
+    private final float laneWidth;
+    private final Clock clock;
+    private final Rng random;
+    private Listener listener;
+
+    private final float[] spriteWidth = new float[Entity.TYPE_COUNT];
+    private final float[] spriteHeight = new float[Entity.TYPE_COUNT];
+
+    private final Entity chicken = new Entity();
+    private int chickenLane;
+    // Entities never change lanes, so they are kept per lane and ordered by Y,
+    // which turns lane queries into O(lanes) lookups
+    private final EntityStore carts;
+    private final EntityStore coins;
+    private final SpawnDirector spawner;
+
+    private boolean isGameOver;
+    private long gameStartTime;
+    private float distanceTraveled;
+    // How far the road has scrolled, moving with the coins lying on it. Kept
+    // in double so it stays smooth however long a run lasts
+    private double roadScroll;
+    private double previousRoadScroll;
+    private int coinsCollected;
+    private int score;
+    private float baseSpeed = 5f;
+    private float speedMultiplier = 1.0f;
+    private int lastSpeedFloor = 1;
+
+    /**
+     * Creates a world for the given screen and lane layout.
+     * Sprite sizes must be set before the first reset().
+     *
+     * @param screenWidth - The width of the game screen
+     * @param screenHeight - The height of the game screen
+     * @param laneCount - The number of lanes
+     * @param clock - The time source for the speed ramp and spawn timers
+     * @param random - The random source for spawning
+     */
+    public World(int screenWidth, int screenHeight, int laneCount, Clock clock, Rng random) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.laneCount = laneCount;
+        this.laneWidth = (float) screenWidth / laneCount;
+        this.clock = clock;
+        this.random = random;
+        chicken.type = Entity.TYPE_CHICKEN;
+        carts = new EntityStore(laneCount, CART_CAPACITY / laneCount);
+        coins = new EntityStore(laneCount, COIN_CAPACITY / laneCount);
+        spawner = new SpawnDirector(this, random);
+    }
+
+    /**
+     * Sets the listener notified of gameplay events.
+     *
+     * @param listener - The listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the on-screen size of a sprite type, usually its bitmap size.
+     *
+     * @param type - One of the Entity.TYPE_ constants
+     * @param width - The sprite width in pixels
+     * @param height - The sprite height in pixels
+     */
+    public void setSpriteSize(int type, float width, float height) {
+        spriteWidth[type] = width;
+        spriteHeight[type] = height;
+    }
+
+    /**
+     * Resets the game state to initial values.
+     * Places the chicken in the middle lane, removes every cart and coin
+     * and resets score and timers.
+     */
+    public void reset() {
+        carts.clear();
+        coins.clear();
+
+        // Start in middle lane, at the bottom of the screen
+        chicken.width = spriteWidth[Entity.TYPE_CHICKEN];
+        chicken.height = spriteHeight[Entity.TYPE_CHICKEN];
+        chicken.isAlive = true;
+        chickenLane = laneCount / 2;
+        chicken.lane = chickenLane;
+        chicken.x = laneX(chickenLane, chicken.width);
+        chicken.y = screenHeight - chicken.height - 50; // Small gap from bottom
+        chicken.savePosition();
+
+        score = 0;
+        coinsCollected = 0;
+        isGameOver = false;
+        spawner.reset(currentTimeMillis());
+
+        gameStartTime = currentTimeMillis();
+        distanceTraveled = 0f;
+        roadScroll = 0;
+        previousRoadScroll = 0;
+        speedMultiplier = 1.0f;
+        lastSpeedFloor = 1;
+    }
+
+    /**
+     * Advances the game state by one fixed step, including object positions,
+     * collision detection, and object spawning.
+     */
+    public void step() {
+        chicken.savePosition();
+        carts.savePositions();
+        coins.savePositions();
+        previousRoadScroll = roadScroll;
+
+        if (isGameOver) {
+            return;
+        }
+
+        long currentTime = currentTimeMillis();
+
+        // Make speed increase more gradual - change 3000 to 10000 or higher
+        // for slower progression
+        float elapsedTime = (currentTime - gameStartTime) / 8000.0f;
+
+        // Reduce this constant for smoother progression
+        speedMultiplier = 1.0f + (SPEED_INCREASE_PER_MINUTE * 0.2f * elapsedTime);
+
+        // maximum speed
+        if (baseSpeed * speedMultiplier > MAX_SPEED) {
+            speedMultiplier = MAX_SPEED / baseSpeed;
+        }
+
+        // notify when speed increases by 1.0
+        int currentFloor = (int) speedMultiplier;
+        if (currentFloor > lastSpeedFloor) {
+            if (listener != null) {
+                listener.onSpeedUp();
+            }
+            lastSpeedFloor = currentFloor;
+        }
+
+        distanceTraveled = ((currentTime - gameStartTime) * BASE_SPEED);
+        roadScroll += COIN_SPEED * STEP_SCALE;
+
+        spawnCarts(currentTime);
+        spawnCoins(currentTime);
+        moveCarts();
+        moveCoins();
+    }
+
+    /**
+     * Moves every cart down by one step, removes carts that are off screen
+     * and checks the carts near the chicken for a collision.
+     */
+    void moveCarts() {
+        carts.moveDown(baseSpeed * speedMultiplier * STEP_SCALE);
+        carts.cullBelow(screenHeight);
+
+        // Check for collision with chicken
+        if (!isGameOver && findCollision(carts, maxCartWidth(), maxCartHeight()) >= 0) {
+            isGameOver = true;
+            score = Math.round(distanceTraveled / 100);
+            if (listener != null) {
+                listener.onCrash(score, coinsCollected);
+            }
+        }
+    }
+
+    /**
+     * Moves every coin down by one step, removes coins that are off screen
+     * and collects the coins touching the chicken.
+     */
+    void moveCoins() {
+        coins.moveDown(COIN_SPEED * STEP_SCALE);
+        coins.cullBelow(screenHeight);
+
+        // Collect every coin touching the chicken
+        float coinWidth = spriteWidth[Entity.TYPE_COIN];
+        float coinHeight = spriteHeight[Entity.TYPE_COIN];
+        int index;
+        while ((index = findCollision(coins, coinWidth, coinHeight)) >= 0) {
+            coins.kill(index);
+            coinsCollected++;
+            if (listener != null) {
+                listener.onCoinCollected(coinsCollected);
+            }
+        }
+        coins.compact();
+    }
+
+    /**
+     * Finds an entity touching the chicken. Only lanes whose entities can reach
+     * the chicken horizontally are searched, each from the bottom up until the
+     * entities are too far above the chicken to touch it.
+     *
+     * @param store - The entities to search
+     * @param maxWidth - The widest sprite among the entities
+     * @param maxHeight - The tallest sprite among the entities
+     * @return The index of a live entity touching the chicken, or -1 if there is none
+     */
+    private int findCollision(EntityStore store, float maxWidth, float maxHeight) {
+        // A lane's entities span [lane * laneWidth + (laneWidth - w) / 2 - jitter, ... + w + 2 * jitter],
+        // with one extra pixel of slack for the integer hitboxes
+        float left = chicken.x - 1;
+        float right = chicken.x + chicken.width + 1;
+        int firstLane = (int) Math.floor((left - (laneWidth + maxWidth) / 2 - LANE_JITTER) / laneWidth) + 1;
+        int lastLane = (int) Math.ceil((right - (laneWidth - maxWidth) / 2 + LANE_JITTER) / laneWidth) - 1;
+        firstLane = Math.max(firstLane, 0);
+        lastLane = Math.min(lastLane, laneCount - 1);
+
+        return store.findOverlap(chicken, firstLane, lastLane, chicken.y - maxHeight - 1);
+    }
+
+    private float maxCartWidth() {
+        return Math.max(spriteWidth[Entity.TYPE_CART], spriteWidth[Entity.TYPE_CART_HAY]);
+    }
+
+    private float maxCartHeight() {
+        return Math.max(spriteHeight[Entity.TYPE_CART], spriteHeight[Entity.TYPE_CART_HAY]);
+    }
+
+    /**
+     * Generates carts with a guaranteed escape path.
+     *
+     * @param currentTime - The current time in milliseconds
+     */
+    void spawnCarts(long currentTime) {
+        spawner.spawnCarts(currentTime, chicken.lane, score);
+    }
+
+    /**
+     * Generates coins with similar logic to ensure they don't block escape paths.
+     *
+     * @param currentTime - The current time in milliseconds
+     */
+    void spawnCoins(long currentTime) {
+        spawner.spawnCoins(currentTime);
+    }
+
+    /**
+     * Adds a cart above the screen in a lane.
+     *
+     * @param lane - The lane to place the cart in
+     * @param cartType - The random cart type, its parity selects the sprite
+     * @return The index of the cart, valid until the carts change
+     */
+    int spawnCart(int lane, int cartType) {
+        int type = cartType % 2 == 0 ? Entity.TYPE_CART : Entity.TYPE_CART_HAY;
+        float width = spriteWidth[type];
+        float height = spriteHeight[type];
+
+        // Randomize the starting position slightly within the lane to avoid carts appearing in a line
+        float x = laneX(lane, width) + (random.nextFloat() * 2 - 1) * LANE_JITTER; // Shift by -5 to +5 pixels
+
+        // Vary starting position vertically to avoid carts being exactly lined up
+        float y = -height - (random.nextFloat() * 100);
+        return carts.add(type, lane, x, y, width, height);
+    }
+
+    /**
+     * Adds a coin above the screen in a lane.
+     *
+     * @param lane - The lane to place the coin in
+     * @return The index of the coin, valid until the coins change
+     */
+    int spawnCoin(int lane) {
+        float width = spriteWidth[Entity.TYPE_COIN];
+        float height = spriteHeight[Entity.TYPE_COIN];
+
+        // Slightly randomize position within lane
+        float x = laneX(lane, width) + (random.nextFloat() * 2 - 1) * LANE_JITTER; // Shift by -5 to +5 pixels
+
+        // Start above screen with some random variation
+        float y = -height - (random.nextFloat() * 50);
+        return coins.add(Entity.TYPE_COIN, lane, x, y, width, height);
+    }
+
+    /**
+     * Removes carts and coins beyond the given counts.
+     * Lets benchmarks keep the entity count fixed between invocations.
+     *
+     * @param cartCount - The number of carts to keep
+     * @param coinCount - The number of coins to keep
+     */
+    void trimEntities(int cartCount, int coinCount) {
+        for (int lane = laneCount - 1; lane >= 0 && carts.size() > cartCount; lane--) {
+            while (carts.size(lane) > 0 && carts.size() > cartCount) {
+                carts.removeLast(lane);
+            }
+        }
+        for (int lane = laneCount - 1; lane >= 0 && coins.size() > coinCount; lane--) {
+            while (coins.size(lane) > 0 && coins.size() > coinCount) {
+                coins.removeLast(lane);
+            }
+        }
+    }
+
+    /**
+     * Moves the chicken one lane to the left if not already in the leftmost lane.
+     *
+     * @return true if the chicken moved, false otherwise
+     */
+    public boolean moveLeft() {
+        if (isGameOver || chickenLane == 0) {
+            return false;
+        }
+        chickenLane--;
+        chicken.lane = chickenLane;
+        chicken.x = laneX(chickenLane, chicken.width);
+        return true;
+    }
+
+    /**
+     * Moves the chicken one lane to the right if not already in the rightmost lane.
+     *
+     * @return true if the chicken moved, false otherwise
+     */
+    public boolean moveRight() {
+        if (isGameOver || chickenLane == laneCount - 1) {
+            return false;
+        }
+        chickenLane++;
+        chicken.lane = chickenLane;
+        chicken.x = laneX(chickenLane, chicken.width);
+        return true;
+    }
+
+    /**
+     * Determines the lane index based on the x position and width of an object.
+     *
+     * @param posX - The x position of the object
+     * @param width - The width of the object
+     * @return The lane index where the object is located
+     */
+    public int getLaneFromX(float posX, float width) {
+        float objectCenterX = posX + width / 2;
+        return (int) (objectCenterX / laneWidth);
+    }
+
+    /**
+     * Returns the x position that centers an object of the given width in a lane.
+     */
+    private float laneX(int lane, float width) {
+        return lane * laneWidth + (laneWidth - width) / 2;
+    }
+
+    private long currentTimeMillis() {
+        return clock.nanoTime() / 1_000_000L;
+    }
+
+    public Entity getChicken() {
+        return chicken;
+    }
+
+    public EntityStore getCarts() {
+        return carts;
+    }
+
+    public EntityStore getCoins() {
+        return coins;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    public float getDistanceTraveled() {
+        return distanceTraveled;
+    }
+
+    /**
+     * Returns how far the road has scrolled down since the run started.
+     *
+     * @return The scroll distance in pixels
+     */
+    public double getRoadScroll() {
+        return roadScroll;
+    }
+
+    /**
+     * Returns how far the road had scrolled before the last step, for interpolation.
+     *
+     * @return The scroll distance one step ago in pixels
+     */
+    public double getPreviousRoadScroll() {
+        return previousRoadScroll;
+    }
+
+    public int getCoinsCollected() {
+        return coinsCollected;
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * This file contains the WorldSnapshot class which is a copy of everything needed
+ * to draw one frame of the World: the positions and types of the entities and the
+ * numbers shown on the HUD. The simulation thread fills a snapshot and publishes
+ * it through a TripleBuffer, the render thread draws it while the simulation goes
+ * on, so the two threads never share the live World.
+ *
+ * The class manages:
+ * - Preallocated entity arrays in draw order, grown only when the world grows
+ * - Current and previous positions and road scroll for interpolated rendering
+ * - HUD and screen state at the time of the snapshot
+ *
+ */
+
+package com.example.theotherside.core;
+
+/**
+ * Drawable copy of a World. Written by one thread, then only read until it is
+ * handed back to the writer.
+ */
+public class WorldSnapshot {
+    // Not counting down, for countdownValue
+    public static final int NO_COUNTDOWN = -1;
+
+    private int count;
+    private byte[] type;
+    private float[] x, y, prevX, prevY;
+
+    // Time the current positions belong to, the previous ones are one step older
+    public long time;
+    public float distanceTraveled;
+    public double roadScroll, previousRoadScroll;
+    public int coinsCollected;
+    public boolean isGameOver;
+    public boolean isPaused;
+    public int countdownValue = NO_COUNTDOWN;
+    // Time spent stepping the world since the previous snapshot
+    public long updateNanos;
+    // Inputs applied so far and the times of the most recent ones, by InputLatency
+    long inputCount;
+    final long[] inputTimes = new long[InputLatency.HISTORY];
+
+    /**
+     * Creates a snapshot with room for the given number of entities.
+     *
+     * @param capacity - The number of entities to preallocate for
+     */
+    public WorldSnapshot(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Creates a snapshot with room for everything the world has room for.
+     *
+     * @param world - The world that will be captured
+     */
+    public WorldSnapshot(World world) {
+        this(world.getCarts().x.length + world.getCoins().x.length + 1);
+    }
+
+    private void allocate(int capacity) {
+        type = new byte[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+    }
+
+    /**
+     * Copies the entities and the game state of a world: coins first, then
+     * carts, then the chicken, which is the order they are drawn in.
+     *
+     * @param world - The world to copy
+     * @param time - The time the current positions of the world belong to
+     */
+    public void capture(World world, long time) {
+        EntityStore coins = world.getCoins();
+        EntityStore carts = world.getCarts();
+        int needed = coins.size() + carts.size() + 1;
+        if (needed > type.length) {
+            // Only while the world grows, the old contents are overwritten anyway
+            allocate(Math.max(needed, type.length * 2));
+        }
+
+        count = 0;
+        copy(coins);
+        copy(carts);
+        Entity chicken = world.getChicken();
+        if (chicken.isAlive) {
+            add(chicken.type, chicken.x, chicken.y, chicken.prevX, chicken.prevY);
+        }
+
+        this.time = time;
+        distanceTraveled = world.getDistanceTraveled();
+        roadScroll = world.getRoadScroll();
+        previousRoadScroll = world.getPreviousRoadScroll();
+        coinsCollected = world.getCoinsCollected();
+        isGameOver = world.isGameOver();
+    }
+
+    private void copy(EntityStore store) {
+        for (int lane = 0; lane < store.getLaneCount(); lane++) {
+            for (int i = store.first(lane), end = store.end(lane); i < end; i++) {
+                add(store.type[i], store.x[i], store.y[i], store.prevX[i], store.prevY[i]);
+            }
+        }
+    }
+
+    private void add(int entityType, float entityX, float entityY, float entityPrevX, float entityPrevY) {
+        type[count] = (byte) entityType;
+        x[count] = entityX;
+        y[count] = entityY;
+        prevX[count] = entityPrevX;
+        prevY[count] = entityPrevY;
+        count++;
+    }
+
+    /**
+     * Returns the number of entities to draw.
+     *
+     * @return The entity count
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getType(int i) {
+        return type[i];
+    }
+
+    /**
+     * Returns how far the road has scrolled at a time between the last two steps.
+     *
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated scroll distance in pixels
+     */
+    public double renderRoadScroll(float alpha) {
+        return previousRoadScroll + (roadScroll - previousRoadScroll) * alpha;
+    }
+
+    /**
+     * Returns the X coordinate to render an entity at between the last two steps.
+     *
+     * @param i - The index of the entity, in draw order
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated X coordinate
+     */
+    public float renderX(int i, float alpha) {
+        return prevX[i] + (x[i] - prevX[i]) * alpha;
+    }
+
+    /**
+     * Returns the Y coordinate to render an entity at between the last two steps.
+     *
+     * @param i - The index of the entity, in draw order
+     * @param alpha - How far the render time is past the last step, from 0 to 1
+     * @return The interpolated Y coordinate
+     */
+    public float renderY(int i, float alpha) {
+        return prevY[i] + (y[i] - prevY[i]) * alpha;
+    }
+
+    /**
+     * Returns how far a render time is past the step of this snapshot.
+     *
+     * @param renderTime - The time the frame is drawn for
+     * @return The interpolation factor, from 0 to 1
+     */
+    public float alphaAt(long renderTime) {
+        float alpha = (renderTime - time) / (float) World.STEP_NANOS;
+        return Math.max(0f, Math.min(alpha, 1f));
+    }
+
+    /**
+     * Checks if nothing in the snapshot moves: paused, counting down or game over.
+     *
+     * @return true if a newer snapshot is needed before the frame changes
+     */
+    public boolean isIdle() {
+        return isPaused || countdownValue != NO_COUNTDOWN || isGameOver;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for sprite atlas region tables and their binary form.
+ */
+public class AtlasTableTest {
+    private static byte[] write(AtlasTable table) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static AtlasTable read(byte[] bytes) throws IOException {
+        return AtlasTable.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void binaryFormRoundTrips() throws IOException {
+        AtlasTable table = new AtlasTable(512, 256);
+        table.add("cart_hay", 0, 0, 65, 116);
+        table.add("coin", 67, 0, 42, 42);
+        table.add("pause", 400, 150, 100, 100);
+
+        AtlasTable copy = read(write(table));
+        assertEquals(512, copy.getWidth());
+        assertEquals(256, copy.getHeight());
+        assertEquals(3, copy.size());
+        int coin = copy.indexOf("coin");
+        assertEquals("coin", copy.getName(coin));
+        assertEquals(67, copy.getX(coin));
+        assertEquals(0, copy.getY(coin));
+        assertEquals(42, copy.getRegionWidth(coin));
+        assertEquals(42, copy.getRegionHeight(coin));
+        int pause = copy.indexOf("pause");
+        assertEquals(400, copy.getX(pause));
+        assertEquals(150, copy.getY(pause));
+        assertEquals(-1, copy.indexOf("road"));
+    }
+
+    @Test
+    public void readsTheLayoutOfThePacker() throws IOException {
+        // Written field by field, as the packer of the app build does
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x544F5341);
+        out.writeByte(1);
+        out.writeShort(300);
+        out.writeShort(120);
+        out.writeShort(1);
+        out.writeUTF("chicken");
+        out.writeShort(2);
+        out.writeShort(2);
+        out.writeShort(68);
+        out.writeShort(102);
+
+        AtlasTable table = read(bytes.toByteArray());
+        assertEquals(300, table.getWidth());
+        assertEquals(0, table.indexOf("chicken"));
+        assertEquals(102, table.getRegionHeight(0));
+    }
+
+    @Test
+    public void growsPastItsInitialCapacity() {
+        AtlasTable table = new AtlasTable(1024, 64);
+        for (int i = 0; i < 20; i++) {
+            table.add("sprite" + i, i * 50, 0, 40, 40);
+        }
+        assertEquals(20, table.size());
+        assertEquals(19 * 50, table.getX(table.indexOf("sprite19")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRegionsOutsideTheAtlas() {
+        new AtlasTable(100, 100).add("coin", 80, 0, 42, 42);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherData() throws IOException {
+        read(new byte[] {'P', 'N', 'G', 0, 1, 0, 0});
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for planning sampled and scaled decodes.
+ */
+public class DecodeSizeTest {
+    @Test
+    public void samplesDownToTheSmallestSizeAboveTheTarget() {
+        // 100 px icons shown at 60 px: no power of two fits, scale only
+        DecodeSize icon = DecodeSize.of(100, 100, 60, 60);
+        assertEquals(1, icon.getSampleSize());
+        assertTrue(icon.isScaled());
+        assertEquals(100, icon.getDensity());
+        assertEquals(60, icon.getTargetDensity());
+        assertEquals(60, icon.getWidth());
+        assertEquals(60, icon.getHeight());
+
+        // A 1080 x 1916 road at 240 px wide: sample by 4 to 270, then scale
+        DecodeSize road = DecodeSize.of(1080, 1916, 240, 426);
+        assertEquals(4, road.getSampleSize());
+        assertEquals(270, road.getSampledWidth());
+        assertEquals(479, road.getSampledHeight());
+        assertEquals(240, road.getWidth());
+        assertEquals(426, road.getHeight());
+    }
+
+    @Test
+    public void exactPowersOfTwoNeedNoScaling() {
+        DecodeSize half = DecodeSize.of(1080, 364, 540, 182);
+        assertEquals(2, half.getSampleSize());
+        assertFalse(half.isScaled());
+        assertEquals(0, half.getDensity());
+        assertEquals(0, half.getTargetDensity());
+        assertEquals(540, half.getWidth());
+        assertEquals(182, half.getHeight());
+
+        DecodeSize same = DecodeSize.of(65, 116, 65, 116);
+        assertEquals(1, same.getSampleSize());
+        assertFalse(same.isScaled());
+    }
+
+    @Test
+    public void scalesSmallImagesUp() {
+        // An mdpi sprite on an xxhdpi screen
+        DecodeSize chicken = DecodeSize.of(68, 102, 204, 306);
+        assertEquals(1, chicken.getSampleSize());
+        assertEquals(204, chicken.getWidth());
+        assertEquals(306, chicken.getHeight());
+    }
+
+    @Test
+    public void theTighterSideLimitsTheSampling() {
+        // Wide enough for a sample of 4, but only tall enough for 2
+        DecodeSize wide = DecodeSize.of(400, 100, 100, 50);
+        assertEquals(2, wide.getSampleSize());
+        assertEquals(200, wide.getSampledWidth());
+        assertEquals(100, wide.getWidth());
+        // The aspect ratio is kept, the width is matched
+        assertEquals(25, wide.getHeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyTargets() {
+        DecodeSize.of(100, 100, 0, 10);
+    }
+}
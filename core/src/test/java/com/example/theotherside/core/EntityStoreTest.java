@@ -0,0 +1,113 @@
+package com.example.theotherside.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the structure-of-arrays entity store.
+ */
+public class EntityStoreTest {
+    private EntityStore store;
+
+    @Before
+    public void setUp() {
+        store = new EntityStore(3, 2);
+    }
+
+    private int add(int lane, float y) {
+        return store.add(Entity.TYPE_COIN, lane, 10, y, 20, 20);
+    }
+
+    @Test
+    public void emptyLaneHasNoTop() {
+        assertTrue(store.isEmpty());
+        assertEquals(Float.POSITIVE_INFINITY, store.topY(1), 0f);
+        assertEquals(store.first(1), store.end(1));
+    }
+
+    @Test
+    public void laneStaysSortedByY() {
+        add(1, 300);
+        add(1, -100);
+        add(1, 50);
+        add(2, 10);
+        assertEquals(4, store.size());
+        assertEquals(3, store.size(1));
+        int first = store.first(1);
+        assertEquals(-100f, store.topY(1), 0f);
+        assertEquals(-100f, store.getY(first), 0f);
+        assertEquals(50f, store.getY(first + 1), 0f);
+        assertEquals(300f, store.getY(first + 2), 0f);
+        assertEquals(1, store.getLane(first + 2));
+        assertEquals(10f, store.topY(2), 0f);
+    }
+
+    @Test
+    public void growingKeepsEveryLane() {
+        for (int i = 0; i < 5; i++) {
+            add(0, i);
+            add(2, 100 + i);
+        }
+        assertEquals(5, store.size(0));
+        assertEquals(5, store.size(2));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, store.getY(store.first(0) + i), 0f);
+            assertEquals(100 + i, store.getY(store.first(2) + i), 0f);
+            assertTrue(store.isAlive(store.first(2) + i));
+        }
+    }
+
+    @Test
+    public void compactRemovesKilledEntities() {
+        add(0, 10);
+        int killed = add(0, 20);
+        add(0, 30);
+        store.kill(killed);
+        assertFalse(store.isAlive(killed));
+        store.compact();
+        assertEquals(2, store.size());
+        assertEquals(30f, store.getY(store.first(0) + 1), 0f);
+        assertTrue(store.isAlive(store.first(0) + 1));
+        assertFalse(store.isAlive(store.first(0) + 2));
+    }
+
+    @Test
+    public void moveAndCullFromTheBottom() {
+        add(0, 10);
+        add(0, 90);
+        store.savePositions();
+        store.moveDown(20);
+        assertEquals(30f, store.topY(0), 0f);
+        assertEquals(100f, store.renderY(store.first(0) + 1, 0.5f), 0f);
+        store.cullBelow(100);
+        assertEquals(1, store.size(0));
+    }
+
+    @Test
+    public void findOverlapSkipsKilledEntities() {
+        Entity chicken = new Entity();
+        chicken.x = 15;
+        chicken.y = 15;
+        chicken.width = 10;
+        chicken.height = 10;
+        int coin = add(1, 10);
+        assertEquals(-1, store.findOverlap(chicken, 0, 0, Float.NEGATIVE_INFINITY));
+        assertEquals(coin, store.findOverlap(chicken, 0, 2, Float.NEGATIVE_INFINITY));
+        // Entities above the reach are not tested
+        assertEquals(-1, store.findOverlap(chicken, 0, 2, 11));
+        store.kill(coin);
+        assertEquals(-1, store.findOverlap(chicken, 0, 2, Float.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void sortRestoresOrder() {
+        int first = add(0, 10);
+        add(0, 20);
+        store.y[first] = 30;
+        store.sort();
+        assertEquals(20f, store.topY(0), 0f);
+        assertEquals(30f, store.getY(store.first(0) + 1), 0f);
+    }
+}
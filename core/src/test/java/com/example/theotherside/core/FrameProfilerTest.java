@@ -0,0 +1,81 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for FrameProfiler percentiles and jank counting.
+ */
+public class FrameProfilerTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void percentilesOfKnownFrames() {
+        FrameProfiler profiler = new FrameProfiler(100, 16 * MS);
+        for (int i = 1; i <= 100; i++) {
+            profiler.add(FrameProfiler.PHASE_DRAW, i * MS);
+            profiler.endFrame(i * MS);
+        }
+        profiler.computeStats();
+
+        assertEquals(50 * MS, profiler.getPercentile(FrameProfiler.PHASE_DRAW, FrameProfiler.P50));
+        assertEquals(95 * MS, profiler.getPercentile(FrameProfiler.PHASE_DRAW, FrameProfiler.P95));
+        assertEquals(99 * MS, profiler.getPercentile(FrameProfiler.PHASE_FRAME, FrameProfiler.P99));
+    }
+
+    @Test
+    public void phasesAccumulateWithinAFrame() {
+        FrameProfiler profiler = new FrameProfiler(8, 16 * MS);
+        profiler.add(FrameProfiler.PHASE_UPDATE, 2 * MS);
+        profiler.add(FrameProfiler.PHASE_UPDATE, 3 * MS);
+        profiler.endFrame(16 * MS);
+
+        assertEquals(5 * MS, profiler.getSample(FrameProfiler.PHASE_UPDATE, 0));
+        assertEquals(16 * MS, profiler.getSample(FrameProfiler.PHASE_FRAME, 0));
+    }
+
+    @Test
+    public void jankCountFollowsTheWindow() {
+        FrameProfiler profiler = new FrameProfiler(4, 16 * MS);
+        profiler.endFrame(40 * MS);
+        profiler.endFrame(10 * MS);
+        profiler.endFrame(30 * MS);
+        assertEquals(2, profiler.getJankCount());
+
+        // Four more smooth frames push both janky frames out of the window
+        for (int i = 0; i < 4; i++) {
+            profiler.endFrame(16 * MS);
+        }
+        assertEquals(0, profiler.getJankCount());
+        assertEquals(2, profiler.getTotalJanks());
+        assertEquals(4, profiler.getCount());
+    }
+
+    @Test
+    public void jankThresholdFollowsTheFrameBudget() {
+        // A 120 Hz display, where 16 ms is already a missed vsync
+        FrameProfiler profiler = new FrameProfiler(4, 8 * MS);
+        assertEquals(12 * MS, profiler.getJankThresholdNanos());
+        profiler.endFrame(16 * MS);
+        assertEquals(1, profiler.getJankCount());
+
+        // Back to 60 Hz, the same frame is on time
+        profiler.setFrameBudgetNanos(16 * MS);
+        assertEquals(24 * MS, profiler.getJankThresholdNanos());
+        profiler.endFrame(16 * MS);
+        assertEquals(1, profiler.getJankCount());
+    }
+
+    @Test
+    public void enablingStartsFromEmptyBuffers() {
+        FrameProfiler profiler = new FrameProfiler(4, 16 * MS);
+        profiler.endFrame(40 * MS);
+        profiler.setEnabled(true);
+
+        // The first frame after enabling only clears the buffers
+        profiler.endFrame(40 * MS);
+        assertEquals(0, profiler.getCount());
+        assertEquals(0, profiler.getTotalJanks());
+    }
+}
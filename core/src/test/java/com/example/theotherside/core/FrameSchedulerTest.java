@@ -0,0 +1,117 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for vsync pacing on a fake frame clock.
+ */
+public class FrameSchedulerTest {
+    private static final long PERIOD = 1_000_000_000L / 60;
+
+    private final ManualClock clock = new ManualClock();
+    private final ManualFrameClock frameClock = new ManualFrameClock(clock, PERIOD);
+    private final FrameScheduler scheduler = new FrameScheduler(frameClock, clock);
+
+    @Test
+    public void framesFollowVsyncs() {
+        assertEquals(-1, scheduler.pollFrame());
+        assertTrue(frameClock.isRequested());
+
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(frameClock.tick());
+            assertEquals(i * PERIOD, scheduler.pollFrame());
+            // The next vsync is only requested once the loop asks for it
+            assertFalse(frameClock.isRequested());
+            assertEquals(-1, scheduler.pollFrame());
+        }
+        assertEquals(10, scheduler.getFrameCount());
+        assertEquals(0, scheduler.getMissedVsyncs());
+    }
+
+    @Test
+    public void slowFrameMissesVsyncs() {
+        scheduler.pollFrame();
+        frameClock.tick();
+        assertEquals(PERIOD, scheduler.pollFrame());
+
+        // The frame takes two and a half periods before asking for the next vsync
+        frameClock.tick();
+        frameClock.tick();
+        clock.advance(PERIOD / 2);
+        assertEquals(-1, scheduler.pollFrame());
+        frameClock.tick();
+        assertEquals(3 * PERIOD + PERIOD / 2 + PERIOD, scheduler.pollFrame());
+        assertEquals(3, scheduler.getMissedVsyncs());
+    }
+
+    @Test
+    public void noVsyncsRequestedWhileParked() {
+        scheduler.pollFrame();
+        frameClock.tick();
+        scheduler.pollFrame();
+
+        // An idle loop stops asking, the vsyncs in between are not missed
+        for (int i = 0; i < 100; i++) {
+            assertFalse(frameClock.tick());
+        }
+        scheduler.reset();
+        scheduler.pollFrame();
+        frameClock.tick();
+        assertEquals(102 * PERIOD, scheduler.pollFrame());
+        assertEquals(0, scheduler.getMissedVsyncs());
+    }
+
+    @Test
+    public void higherRefreshRateGivesMoreFrames() {
+        ManualClock fastClock = new ManualClock();
+        ManualFrameClock fastFrames = new ManualFrameClock(fastClock, 1_000_000_000L / 120);
+        FrameScheduler fast = new FrameScheduler(fastFrames, fastClock);
+        assertEquals(1_000_000_000L / 120, fast.getVsyncPeriodNanos());
+
+        // One second of a loop that is always ready for the next vsync
+        while (fastClock.nanoTime() < 999_000_000L) {
+            if (fast.pollFrame() == -1) {
+                fastFrames.tick();
+            }
+        }
+        fast.pollFrame();
+        assertEquals(120, fast.getFrameCount());
+        assertEquals(0, fast.getMissedVsyncs());
+    }
+
+    @Test
+    public void waitingThreadWokenByVsync() throws InterruptedException {
+        final long[] frame = new long[1];
+        Thread gameThread = new Thread(() -> {
+            try {
+                frame[0] = scheduler.awaitFrame(Long.MAX_VALUE / 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        gameThread.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!frameClock.isRequested()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+        frameClock.tick();
+        gameThread.join(5000);
+        assertFalse(gameThread.isAlive());
+        assertEquals(PERIOD, frame[0]);
+    }
+
+    @Test
+    public void stalledClockTimesOut() throws InterruptedException {
+        FrameScheduler realTime = new FrameScheduler(frameClock, Clock.SYSTEM);
+        long start = System.nanoTime();
+        long frame = realTime.awaitFrame(20_000_000L);
+        assertTrue(frame - start >= 20_000_000L);
+
+        // The late vsync is older than the fallback frame and is dropped
+        frameClock.tick();
+        assertEquals(-1, realTime.pollFrame());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the pause-aware game clock.
+ */
+public class GameClockTest {
+    private final ManualClock source = new ManualClock();
+    private final GameClock clock = new GameClock(source);
+
+    @Test
+    public void startsPausedAtZero() {
+        source.advance(5_000);
+        assertFalse(clock.isRunning());
+        assertEquals(0, clock.nanoTime());
+    }
+
+    @Test
+    public void countsOnlyRunningTime() {
+        clock.resume();
+        source.advance(100);
+        assertEquals(100, clock.nanoTime());
+
+        clock.pause();
+        source.advance(1_000_000);
+        assertEquals(100, clock.nanoTime());
+
+        clock.resume();
+        source.advance(50);
+        assertEquals(150, clock.nanoTime());
+    }
+
+    @Test
+    public void repeatedCallsChangeNothing() {
+        clock.resume();
+        source.advance(10);
+        clock.resume();
+        source.advance(10);
+        assertEquals(20, clock.nanoTime());
+
+        clock.pause();
+        source.advance(10);
+        clock.pause();
+        assertEquals(20, clock.nanoTime());
+    }
+
+    @Test
+    public void setRunningPausesAndResumes() {
+        clock.setRunning(true);
+        source.advance(30);
+        clock.setRunning(false);
+        source.advance(30);
+        assertEquals(30, clock.nanoTime());
+        assertFalse(clock.isRunning());
+        clock.setRunning(true);
+        assertTrue(clock.isRunning());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the on-demand redraw signal.
+ */
+public class IdleGateTest {
+    @Test
+    public void firstFrameIsRequested() {
+        IdleGate gate = new IdleGate(Clock.SYSTEM);
+        assertTrue(gate.takeRedraw());
+        assertFalse(gate.takeRedraw());
+    }
+
+    @Test
+    public void pendingRequestDoesNotPark() throws InterruptedException {
+        IdleGate gate = new IdleGate(Clock.SYSTEM);
+        gate.takeRedraw();
+        gate.requestRedraw();
+        assertTrue(gate.awaitRedraw(IdleGate.NO_TIMEOUT));
+        assertEquals(0, gate.getParkCount());
+    }
+
+    @Test
+    public void timeoutEndsThePark() throws InterruptedException {
+        IdleGate gate = new IdleGate(Clock.SYSTEM);
+        gate.takeRedraw();
+        long start = System.nanoTime();
+        assertFalse(gate.awaitRedraw(20_000_000L));
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+        assertEquals(1, gate.getParkCount());
+    }
+
+    @Test
+    public void requestWakesParkedThread() throws InterruptedException {
+        IdleGate gate = new IdleGate(Clock.SYSTEM);
+        gate.takeRedraw();
+        final boolean[] woken = new boolean[1];
+        Thread gameThread = new Thread(() -> {
+            try {
+                woken[0] = gate.awaitRedraw(IdleGate.NO_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        gameThread.start();
+        while (gate.getParkCount() == 0) {
+            Thread.sleep(1);
+        }
+        gate.requestRedraw();
+        gameThread.join(5000);
+        assertFalse(gameThread.isAlive());
+        assertTrue(woken[0]);
+    }
+}
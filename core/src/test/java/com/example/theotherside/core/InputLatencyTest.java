@@ -0,0 +1,62 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for carrying input times through snapshots to posted frames.
+ */
+public class InputLatencyTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void inputIsCountedOnceWhenFirstPosted() {
+        InputLatency latency = new InputLatency();
+        WorldSnapshot snapshot = new WorldSnapshot(1);
+
+        latency.recordApplied(100 * MS, 108 * MS);
+        latency.capture(snapshot);
+        latency.recordPosted(snapshot, 130 * MS);
+        // Drawing the same snapshot again adds nothing
+        latency.recordPosted(snapshot, 147 * MS);
+
+        assertEquals(1, latency.getToStep().getCount());
+        assertEquals(8 * MS, latency.getToStep().getMaxNanos());
+        assertEquals(1, latency.getToPost().getCount());
+        assertEquals(30 * MS, latency.getToPost().getMaxNanos());
+    }
+
+    @Test
+    public void skippedSnapshotsStillCarryTheirInputs() {
+        InputLatency latency = new InputLatency();
+        WorldSnapshot skipped = new WorldSnapshot(1);
+        WorldSnapshot drawn = new WorldSnapshot(1);
+
+        latency.recordApplied(100 * MS, 104 * MS);
+        latency.capture(skipped);
+        latency.recordApplied(110 * MS, 112 * MS);
+        latency.capture(drawn);
+        // Only the newer snapshot is drawn, it shows both inputs
+        latency.recordPosted(drawn, 130 * MS);
+
+        assertEquals(2, latency.getToPost().getCount());
+        assertEquals(30 * MS, latency.getToPost().getMaxNanos());
+        assertEquals(0, latency.getUnmatched());
+    }
+
+    @Test
+    public void inputsBeyondTheHistoryAreUnmatched() {
+        InputLatency latency = new InputLatency();
+        WorldSnapshot snapshot = new WorldSnapshot(1);
+        int applied = InputLatency.HISTORY + 3;
+        for (int i = 0; i < applied; i++) {
+            latency.recordApplied(i * MS, i * MS + MS);
+        }
+        latency.capture(snapshot);
+        latency.recordPosted(snapshot, 100 * MS);
+
+        assertEquals(InputLatency.HISTORY, latency.getToPost().getCount());
+        assertEquals(3, latency.getUnmatched());
+    }
+}
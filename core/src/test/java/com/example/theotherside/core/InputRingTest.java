@@ -0,0 +1,96 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the input event ring.
+ */
+public class InputRingTest {
+    @Test
+    public void drainsInOfferOrder() {
+        InputRing ring = new InputRing(8);
+        assertTrue(ring.isEmpty());
+        ring.offer(InputRing.SWIPE_LEFT, 10);
+        ring.offer(InputRing.TOGGLE_PAUSE, 20);
+        ring.offer(InputRing.SWIPE_RIGHT, 30);
+        assertFalse(ring.isEmpty());
+
+        StringBuilder seen = new StringBuilder();
+        assertEquals(3, ring.drain((kind, time) -> seen.append(kind).append('@').append(time).append(' ')));
+        assertEquals("0@10 2@20 1@30 ", seen.toString());
+        assertTrue(ring.isEmpty());
+        assertEquals(0, ring.drain((kind, time) -> fail()));
+    }
+
+    @Test
+    public void capacityIsAPowerOfTwo() {
+        assertEquals(64, new InputRing(64).capacity());
+        assertEquals(64, new InputRing(33).capacity());
+        assertEquals(2, new InputRing(1).capacity());
+    }
+
+    @Test
+    public void fullRingDropsNewEvents() {
+        InputRing ring = new InputRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(InputRing.SWIPE_LEFT, i));
+        }
+        assertFalse(ring.offer(InputRing.RESTART, 99));
+        assertEquals(1, ring.getDropped());
+
+        long[] sum = new long[1];
+        ring.drain((kind, time) -> sum[0] += time);
+        assertEquals(0 + 1 + 2 + 3, sum[0]);
+        // Draining frees the slots again
+        assertTrue(ring.offer(InputRing.RESTART, 5));
+    }
+
+    @Test
+    public void wrapsAround() {
+        InputRing ring = new InputRing(4);
+        long[] next = new long[1];
+        for (long i = 0; i < 100; i++) {
+            ring.offer(InputRing.SWIPE_RIGHT, i);
+            if (i % 3 == 2) {
+                ring.drain((kind, time) -> assertEquals(next[0]++, time));
+            }
+        }
+        ring.drain((kind, time) -> assertEquals(next[0]++, time));
+        assertEquals(100, next[0]);
+    }
+
+    @Test
+    public void concurrentConsumerSeesEveryEventInOrder() throws InterruptedException {
+        InputRing ring = new InputRing(16);
+        final long events = 100_000;
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < events; ) {
+                if (ring.offer((int) (i & 3), i)) {
+                    i++;
+                } else {
+                    // Let the consumer run, also on a single core
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        long[] next = new long[1];
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (next[0] < events) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            int drained = ring.drain((kind, time) -> {
+                assertEquals(next[0], time);
+                assertEquals(next[0] & 3, kind);
+                next[0]++;
+            });
+            if (drained == 0) {
+                Thread.yield();
+            }
+        }
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+    }
+}
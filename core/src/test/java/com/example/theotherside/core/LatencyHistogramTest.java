@@ -0,0 +1,63 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the bucketed latency histogram.
+ */
+public class LatencyHistogramTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void percentilesOfKnownLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram("test", MS, 100);
+        for (int i = 0; i < 100; i++) {
+            histogram.record(i * MS + MS / 2);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50 * MS, histogram.getPercentile(50));
+        assertEquals(95 * MS, histogram.getPercentile(95));
+        assertEquals(99 * MS + MS / 2, histogram.getMaxNanos());
+        assertEquals(50 * MS, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void overflowReportsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram("test", MS, 10);
+        histogram.record(2 * MS);
+        histogram.record(500 * MS);
+        assertEquals(3 * MS, histogram.getPercentile(50));
+        assertEquals(500 * MS, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void emptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram("test", MS, 10);
+        assertEquals(0, histogram.getPercentile(50));
+        histogram.record(-5);
+        assertEquals(MS, histogram.getPercentile(50));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void dumpListsNonEmptyBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram("swipe", MS, 10);
+        histogram.record(3 * MS + 1);
+        histogram.record(3 * MS + 2);
+        histogram.record(40 * MS);
+        StringWriter text = new StringWriter();
+        histogram.dump(new PrintWriter(text, true), "");
+        String[] lines = text.toString().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("swipe: n=3"));
+        assertTrue(lines[1].trim().endsWith("4.0 ms 2"));
+        assertTrue(lines[2].contains(">="));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for splitting numbers into digits and measuring them.
+ */
+public class NumberLayoutTest {
+    private static final float[] ADVANCE = {10, 6, 9, 9, 11, 9, 10, 8, 10, 10};
+
+    @Test
+    public void splitsMostSignificantDigitFirst() {
+        int[] digits = new int[NumberLayout.MAX_DIGITS];
+        assertEquals(4, NumberLayout.split(1907, digits));
+        assertArrayEquals(new int[] {1, 9, 0, 7}, Arrays.copyOf(digits, 4));
+
+        assertEquals(1, NumberLayout.split(0, digits));
+        assertEquals(0, digits[0]);
+        // Negative numbers are shown as 0
+        assertEquals(1, NumberLayout.split(-42, digits));
+        assertEquals(0, digits[0]);
+
+        assertEquals(NumberLayout.MAX_DIGITS, NumberLayout.split(Integer.MAX_VALUE, digits));
+        assertEquals(2, digits[0]);
+        assertEquals(7, digits[NumberLayout.MAX_DIGITS - 1]);
+    }
+
+    @Test
+    public void widthIsTheSumOfTheDigitAdvances() {
+        NumberLayout layout = new NumberLayout(ADVANCE);
+        assertEquals(6 + 10 + 10 + 8, layout.getWidth(1907), 0f);
+        assertEquals(10, layout.getWidth(0), 0f);
+        assertEquals(10, layout.getWidth(-5), 0f);
+        assertEquals(6 + 10 + 10, layout.getWidth(100), 0f);
+    }
+
+    @Test
+    public void topDivisorOfEachDigitCount() {
+        assertEquals(1, NumberLayout.topDivisor(0));
+        assertEquals(1, NumberLayout.topDivisor(9));
+        assertEquals(10, NumberLayout.topDivisor(10));
+        assertEquals(1000, NumberLayout.topDivisor(9999));
+        assertEquals(1_000_000_000, NumberLayout.topDivisor(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingDigitAdvances() {
+        new NumberLayout(new float[9]);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for choosing the virtual render size.
+ */
+public class RenderResolutionTest {
+    @Test
+    public void shortSideIsCappedKeepingTheAspectRatio() {
+        RenderResolution portrait = RenderResolution.ofShortSide(1440, 3200, 720);
+        assertEquals(720, portrait.getWidth());
+        assertEquals(1600, portrait.getHeight());
+        assertEquals(0.5f, portrait.getScale(), 1e-6f);
+        assertFalse(portrait.isNative());
+
+        RenderResolution landscape = RenderResolution.ofShortSide(3200, 1440, 720);
+        assertEquals(1600, landscape.getWidth());
+        assertEquals(720, landscape.getHeight());
+    }
+
+    @Test
+    public void smallScreensAreNeverUpscaled() {
+        RenderResolution resolution = RenderResolution.ofShortSide(720, 1280, 1080);
+        assertTrue(resolution.isNative());
+        assertEquals(720, resolution.getWidth());
+        assertEquals(1f, resolution.getScale(), 0f);
+
+        assertTrue(RenderResolution.ofShortSide(1080, 2400, 0).isNative());
+        assertTrue(RenderResolution.ofScale(1080, 2400, 2f).isNative());
+    }
+
+    @Test
+    public void fractionOfNative() {
+        RenderResolution resolution = RenderResolution.ofScale(1080, 2340, 0.75f);
+        assertEquals(810, resolution.getWidth());
+        assertEquals(1755, resolution.getHeight());
+        assertEquals(1080, resolution.getPhysicalWidth());
+        assertEquals(2340, resolution.getPhysicalHeight());
+    }
+
+    @Test
+    public void touchesMapToVirtualPixels() {
+        RenderResolution resolution = RenderResolution.ofShortSide(1080, 2400, 720);
+        assertEquals(0f, resolution.toVirtualX(0f), 0f);
+        assertEquals(resolution.getWidth(), resolution.toVirtualX(1080f), 1e-3f);
+        assertEquals(resolution.getHeight(), resolution.toVirtualY(2400f), 1e-3f);
+        assertEquals(360f, resolution.toVirtualX(540f), 1e-3f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scaleMustBePositive() {
+        RenderResolution.ofScale(1080, 2400, 0f);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the seeded xoshiro128** generator.
+ */
+public class SeededRngTest {
+    @Test
+    public void sameSeedGivesSameSequence() {
+        SeededRng a = new SeededRng(1234);
+        SeededRng b = new SeededRng(1234);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(a.nextInt(), b.nextInt());
+        }
+    }
+
+    @Test
+    public void reseedingRestartsTheSequence() {
+        SeededRng rng = new SeededRng(7);
+        int first = rng.nextInt();
+        rng.nextInt();
+        rng.setSeed(7);
+        assertEquals(first, rng.nextInt());
+        assertEquals(7, rng.getSeed());
+        assertNotEquals(first, new SeededRng(8).nextInt());
+    }
+
+    @Test
+    public void zeroSeedIsUsable() {
+        SeededRng rng = new SeededRng(0);
+        int nonZero = 0;
+        for (int i = 0; i < 100; i++) {
+            if (rng.nextInt() != 0) {
+                nonZero++;
+            }
+        }
+        assertTrue(nonZero > 90);
+    }
+
+    @Test
+    public void boundedIntsAreInRangeAndSpread() {
+        SeededRng rng = new SeededRng(99);
+        int[] counts = new int[6];
+        for (int i = 0; i < 60_000; i++) {
+            counts[rng.nextInt(6)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000);
+        }
+        assertEquals(0, rng.nextInt(1));
+    }
+
+    @Test
+    public void floatsAreInUnitInterval() {
+        SeededRng rng = new SeededRng(5);
+        double sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            float f = rng.nextFloat();
+            assertTrue(f >= 0f && f < 1f);
+            sum += f;
+        }
+        assertEquals(0.5, sum / 10_000, 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveBoundIsRejected() {
+        new SeededRng(1).nextInt(0);
+    }
+}
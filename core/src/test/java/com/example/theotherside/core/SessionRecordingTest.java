@@ -0,0 +1,88 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for recorded runs and their binary form.
+ */
+public class SessionRecordingTest {
+    private static byte[] write(SessionRecording recording) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static SessionRecording read(byte[] bytes) throws IOException {
+        return SessionRecording.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void binaryFormRoundTrips() throws IOException {
+        SessionRecording recording = new SessionRecording();
+        recording.clear(-42);
+        recording.record(0, InputRing.SWIPE_LEFT);
+        recording.record(0, InputRing.SWIPE_RIGHT);
+        recording.record(150, InputRing.SWIPE_RIGHT);
+        recording.record(100_000, InputRing.SWIPE_LEFT);
+        recording.setStepCount(100_001);
+
+        SessionRecording copy = read(write(recording));
+        assertEquals(-42, copy.getSeed());
+        assertEquals(100_001, copy.getStepCount());
+        assertEquals(4, copy.size());
+        for (int i = 0; i < recording.size(); i++) {
+            assertEquals(recording.getStep(i), copy.getStep(i));
+            assertEquals(recording.getKind(i), copy.getKind(i));
+        }
+    }
+
+    @Test
+    public void laneChangesTakeAboutTwoBytes() throws IOException {
+        SessionRecording recording = new SessionRecording();
+        recording.clear(1);
+        // One lane change per second at 120 steps per second, for ten minutes
+        for (int i = 0; i < 600; i++) {
+            recording.record(i * 120L, i % 2);
+        }
+        recording.setStepCount(600 * 120);
+        assertTrue(write(recording).length < 20 + 600 * 2);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        SessionRecording recording = new SessionRecording();
+        recording.clear(3);
+        recording.record(5, InputRing.SWIPE_LEFT);
+        SessionRecording copy = recording.copy();
+        recording.record(9, InputRing.SWIPE_RIGHT);
+        recording.clear(4);
+        assertEquals(3, copy.getSeed());
+        assertEquals(1, copy.size());
+        assertEquals(5, copy.getStep(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepsMustNotGoBack() {
+        SessionRecording recording = new SessionRecording();
+        recording.record(10, InputRing.SWIPE_LEFT);
+        recording.record(9, InputRing.SWIPE_LEFT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyLaneChangesAreRecorded() {
+        new SessionRecording().record(0, InputRing.TOGGLE_PAUSE);
+    }
+
+    @Test(expected = IOException.class)
+    public void otherDataIsRejected() throws IOException {
+        read(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for deterministic runs and their replay.
+ */
+public class SessionTest {
+    // Long enough for the speed ramp and plenty of spawns
+    private static final int MAX_STEPS = 120 * 120;
+
+    private static Session newSession() {
+        Session session = new Session(1080, 1920, 4);
+        World world = session.getWorld();
+        world.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, 150, 200);
+        world.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        return session;
+    }
+
+    /**
+     * Fingerprint of the world after a step, enough to tell runs apart.
+     */
+    private static long state(World world) {
+        long hash = Float.floatToIntBits(world.getDistanceTraveled());
+        hash = hash * 31 + world.getCoinsCollected();
+        hash = hash * 31 + world.getChicken().lane;
+        EntityStore carts = world.getCarts();
+        for (int lane = 0; lane < carts.getLaneCount(); lane++) {
+            for (int i = carts.first(lane); i < carts.end(lane); i++) {
+                hash = hash * 31 + Float.floatToIntBits(carts.x[i]);
+                hash = hash * 31 + Float.floatToIntBits(carts.y[i]);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Plays a run with random swipes between steps, recording the state after every step.
+     */
+    private static long[] play(Session session, long seed) {
+        Random player = new Random(seed);
+        long[] states = new long[MAX_STEPS];
+        session.start(seed);
+        int steps = 0;
+        while (steps < MAX_STEPS && !session.getWorld().isGameOver()) {
+            if (player.nextInt(40) == 0) {
+                session.move(player.nextBoolean() ? InputRing.SWIPE_LEFT : InputRing.SWIPE_RIGHT);
+            }
+            session.step();
+            states[steps++] = state(session.getWorld());
+        }
+        return states;
+    }
+
+    private static long[] replay(Session session, SessionRecording recording) {
+        long[] states = new long[MAX_STEPS];
+        session.startReplay(recording);
+        int steps = 0;
+        while (steps < recording.getStepCount()) {
+            session.step();
+            states[steps++] = state(session.getWorld());
+        }
+        return states;
+    }
+
+    @Test
+    public void replayReproducesEveryStep() {
+        Session original = newSession();
+        long[] played = play(original, 2024);
+        SessionRecording recording = original.getRecording().copy();
+        assertTrue(recording.size() > 10);
+
+        Session replayed = newSession();
+        assertArrayEquals(played, replay(replayed, recording));
+        assertEquals(original.getWorld().isGameOver(), replayed.getWorld().isGameOver());
+        assertEquals(original.getWorld().getCoinsCollected(), replayed.getWorld().getCoinsCollected());
+    }
+
+    @Test
+    public void restartedRunReplaysInAFreshSession() {
+        // A first run leaves the clock and the spawn timers somewhere else
+        Session original = newSession();
+        original.start(3);
+        for (int i = 0; i < 1234; i++) {
+            original.step();
+        }
+        long[] played = play(original, 2025);
+        SessionRecording recording = original.getRecording().copy();
+        assertTrue(recording.size() > 10);
+
+        Session replayed = newSession();
+        assertArrayEquals(played, replay(replayed, recording));
+        assertEquals(original.getWorld().isGameOver(), replayed.getWorld().isGameOver());
+        assertEquals(original.getWorld().getCoinsCollected(), replayed.getWorld().getCoinsCollected());
+        assertEquals(original.getStepIndex(), replayed.getStepIndex());
+    }
+
+    @Test
+    public void replayFromBinaryFormReproducesTheRun() throws IOException {
+        Session original = newSession();
+        play(original, 77);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.getRecording().write(new DataOutputStream(bytes));
+        SessionRecording recording = SessionRecording.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Session replayed = newSession();
+        replayed.startReplay(recording);
+        replayed.replayToEnd();
+        assertEquals(state(original.getWorld()), state(replayed.getWorld()));
+        assertEquals(original.getRecording().getStepCount(), replayed.getStepIndex());
+    }
+
+    @Test
+    public void differentSeedsGiveDifferentRuns() {
+        Session session = newSession();
+        session.start(1);
+        for (int i = 0; i < 2000; i++) {
+            session.step();
+        }
+        long first = state(session.getWorld());
+        session.start(2);
+        for (int i = 0; i < 2000; i++) {
+            session.step();
+        }
+        assertNotEquals(first, state(session.getWorld()));
+    }
+
+    @Test
+    public void playerInputIsIgnoredWhileReplaying() {
+        Session session = newSession();
+        SessionRecording recording = new SessionRecording();
+        recording.clear(5);
+        recording.setStepCount(10);
+        session.startReplay(recording);
+        assertTrue(session.isReplaying());
+        assertFalse(session.move(InputRing.SWIPE_LEFT));
+        assertEquals(2, session.getWorld().getChicken().lane);
+    }
+
+    @Test
+    public void recordingEndsWithTheCrash() {
+        Session session = newSession();
+        session.start(9);
+        // The idle chicken is hit sooner or later
+        while (!session.getWorld().isGameOver()) {
+            session.step();
+        }
+        long crashStep = session.getStepIndex();
+        session.step();
+        session.step();
+        assertEquals(crashStep, session.getRecording().getStepCount());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.theotherside.core;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the spawn rules, run on virtual time.
+ */
+public class SpawnDirectorTest {
+    private ManualClock clock;
+    private World world;
+
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        world = new World(1080, 1920, 4, clock, Rng.of(new Random(42)));
+        world.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, 150, 200);
+        world.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        world.reset();
+    }
+
+    /**
+     * Moves every cart of a lane to the given Y.
+     */
+    private void placeCarts(int lane, float y) {
+        EntityStore carts = world.getCarts();
+        for (int i = carts.first(lane); i < carts.end(lane); i++) {
+            carts.y[i] = y;
+        }
+    }
+
+    @Test
+    public void nthSetBitCountsFromTheLowestBit() {
+        assertEquals(1, SpawnDirector.nthSetBit(0b1010, 0));
+        assertEquals(3, SpawnDirector.nthSetBit(0b1010, 1));
+        assertEquals(31, SpawnDirector.nthSetBit(1 << 31 | 1, 1));
+    }
+
+    @Test
+    public void forcesCartIntoChickenLaneAfterTimeout() {
+        int chickenLane = world.getChicken().lane;
+        world.spawnCarts(SpawnDirector.FORCE_SPAWN_TIMEOUT + 1);
+        assertTrue(world.getCarts().size(chickenLane) > 0);
+    }
+
+    @Test
+    public void neverSpawnsInChickenLaneWithSeveralEscapeLanes() {
+        int chickenLane = world.getChicken().lane;
+        for (int i = 0; i < 200; i++) {
+            world.spawnCarts(SpawnDirector.FORCE_SPAWN_TIMEOUT + 1 + i * 1001L);
+            // Every fifth decision is past the force spawn timeout again
+            if (i % 5 != 0) {
+                assertEquals(0, world.getCarts().size(chickenLane));
+            }
+            world.trimEntities(0, 0);
+        }
+    }
+
+    @Test
+    public void keepsTheOnlyEscapeLaneOpen() {
+        int chickenLane = world.getChicken().lane;
+        world.spawnCarts(SpawnDirector.FORCE_SPAWN_TIMEOUT + 1);
+        world.trimEntities(0, 0);
+        // Every lane but lane 0 has a cart in the top 40%, lane 3 has left the top 30%
+        for (int lane = 1; lane < 4; lane++) {
+            world.spawnCart(lane, 0);
+        }
+        placeCarts(1, 100);
+        placeCarts(2, 100);
+        placeCarts(3, 1920 * 0.35f);
+        long time = SpawnDirector.FORCE_SPAWN_TIMEOUT + 1002;
+        world.spawnCarts(time);
+        assertEquals(0, world.getCarts().size(0));
+        assertEquals(2, world.getCarts().size(3));
+        assertEquals(1, world.getCarts().size(chickenLane));
+    }
+
+    @Test
+    public void coinsAvoidBusyLanes() {
+        for (int lane = 0; lane < 3; lane++) {
+            world.spawnCart(lane, 0);
+            placeCarts(lane, 100);
+        }
+        world.spawnCoins(2001);
+        assertEquals(1, world.getCoins().size());
+        assertEquals(1, world.getCoins().size(3));
+    }
+
+    @Test
+    public void spawnDecisionsDoNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up so the lanes reach their working capacity and the code is compiled
+        long time = 0;
+        for (int i = 0; i < 20_000; i++) {
+            time = decide(time);
+        }
+
+        long overhead = threads.getThreadAllocatedBytes(threadId);
+        overhead = threads.getThreadAllocatedBytes(threadId) - overhead;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000; i++) {
+            time = decide(time);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+        assertEquals(0, allocated);
+    }
+
+    /**
+     * Runs one cart and one coin decision past their timers and keeps the entity
+     * count fixed, so the stores never grow.
+     */
+    private long decide(long time) {
+        time += 2001;
+        world.spawnCarts(time);
+        world.spawnCoins(time);
+        world.trimEntities(4, 2);
+        return time;
+    }
+}
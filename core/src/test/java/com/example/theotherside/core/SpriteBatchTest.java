@@ -0,0 +1,146 @@
+package com.example.theotherside.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for grouping snapshot entities into batched draws.
+ */
+public class SpriteBatchTest {
+    private ManualClock clock;
+    private World world;
+    private WorldSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        world = new World(1080, 1920, 4, clock, Rng.of(new Random(42)));
+        world.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, 150, 220);
+        world.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        world.reset();
+        snapshot = new WorldSnapshot(world);
+    }
+
+    private SpriteBatch newBatch(int capacity, int minBatch) {
+        SpriteBatch batch = new SpriteBatch(capacity, minBatch);
+        batch.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        batch.setSpriteSize(Entity.TYPE_CART_HAY, 150, 220);
+        batch.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        batch.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        return batch;
+    }
+
+    @Test
+    public void groupsEntitiesByType() {
+        world.spawnCoin(0);
+        world.spawnCoin(2);
+        world.spawnCart(1, Entity.TYPE_CART_HAY);
+        world.spawnCart(3, Entity.TYPE_CART);
+        world.spawnCart(2, Entity.TYPE_CART_HAY);
+        snapshot.capture(world, 0);
+
+        SpriteBatch batch = newBatch(8, 2);
+        batch.plan(snapshot, 1f);
+        assertEquals(2, batch.getCount(Entity.TYPE_COIN));
+        assertEquals(1, batch.getCount(Entity.TYPE_CART));
+        assertEquals(2, batch.getCount(Entity.TYPE_CART_HAY));
+        assertEquals(1, batch.getCount(Entity.TYPE_CHICKEN));
+        assertEquals(16, batch.getVertexCount(Entity.TYPE_COIN));
+        assertEquals(12, batch.getIndexCount(Entity.TYPE_CART_HAY));
+
+        // Coins and hay carts are batched, the single cart and the chicken are not
+        assertTrue(batch.isBatched(Entity.TYPE_COIN));
+        assertFalse(batch.isBatched(Entity.TYPE_CART));
+        assertTrue(batch.isBatched(Entity.TYPE_CART_HAY));
+        assertFalse(batch.isBatched(Entity.TYPE_CHICKEN));
+        assertEquals(4, batch.getDrawCalls());
+    }
+
+    @Test
+    public void quadsCoverTheSpriteAtItsRenderPosition() {
+        world.spawnCart(1, Entity.TYPE_CART);
+        clock.advance(World.STEP_NANOS);
+        world.step();
+        snapshot.capture(world, 0);
+
+        SpriteBatch batch = newBatch(4, 1);
+        batch.plan(snapshot, 0.5f);
+        int cart = world.getCoins().size();
+        float left = snapshot.renderX(cart, 0.5f);
+        float top = snapshot.renderY(cart, 0.5f);
+        assertEquals(left, batch.getLeft(Entity.TYPE_CART, 0), 0f);
+        assertEquals(top, batch.getTop(Entity.TYPE_CART, 0), 0f);
+
+        float[] v = batch.getVertices(Entity.TYPE_CART);
+        float[] expected = {left, top, left + 150, top, left + 150, top + 200, left, top + 200};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], v[i], 0f);
+        }
+        float[] tex = batch.getTexCoords(Entity.TYPE_CART);
+        float[] corners = {0, 0, 150, 0, 150, 200, 0, 200};
+        for (int i = 0; i < corners.length; i++) {
+            assertEquals(corners[i], tex[i], 0f);
+        }
+    }
+
+    @Test
+    public void atlasRegionsMapToTheirTextureRectangle() {
+        SpriteBatch batch = newBatch(4, 1);
+        // A 42 x 42 coin at (410, 2) of the atlas, drawn at 80 x 80
+        batch.setSpriteRegion(Entity.TYPE_COIN, 410, 2, 42, 42, 80, 80);
+        world.spawnCoin(0);
+        snapshot.capture(world, 0);
+        batch.plan(snapshot, 1f);
+
+        float left = snapshot.renderX(0, 1f);
+        float top = snapshot.renderY(0, 1f);
+        float[] v = batch.getVertices(Entity.TYPE_COIN);
+        assertEquals(left + 80, v[4], 0f);
+        assertEquals(top + 80, v[5], 0f);
+        float[] tex = batch.getTexCoords(Entity.TYPE_COIN);
+        float[] corners = {410, 2, 452, 2, 452, 44, 410, 44};
+        for (int i = 0; i < corners.length; i++) {
+            assertEquals(corners[i], tex[i], 0f);
+        }
+    }
+
+    @Test
+    public void indicesFormTwoTrianglesPerQuad() {
+        SpriteBatch batch = newBatch(2, 1);
+        short[] indices = batch.getIndices();
+        short[] expected = {0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], indices[i]);
+        }
+    }
+
+    @Test
+    public void growsWithTheSnapshot() {
+        for (int i = 0; i < 12; i++) {
+            world.spawnCoin(i % 4);
+        }
+        snapshot.capture(world, 0);
+
+        SpriteBatch batch = newBatch(2, 8);
+        batch.plan(snapshot, 1f);
+        assertEquals(12, batch.getCount(Entity.TYPE_COIN));
+        assertTrue(batch.getVertices(Entity.TYPE_COIN).length >= 12 * 8);
+        assertTrue(batch.getIndices().length >= 12 * 6);
+        assertEquals(80, batch.getTexCoords(Entity.TYPE_COIN)[11 * 8 + 4], 0f);
+        // One call for the coins and one for the chicken
+        assertEquals(2, batch.getDrawCalls());
+
+        // A later, smaller plan only reports what it wrote
+        world.reset();
+        snapshot.capture(world, 0);
+        batch.plan(snapshot, 1f);
+        assertEquals(0, batch.getCount(Entity.TYPE_COIN));
+        assertEquals(1, batch.getDrawCalls());
+    }
+}
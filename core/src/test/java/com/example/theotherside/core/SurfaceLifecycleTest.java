@@ -0,0 +1,156 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the game thread and surface handshake.
+ */
+public class SurfaceLifecycleTest {
+    @Test
+    public void resumeStartsOneThread() {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        assertTrue(lifecycle.resume());
+        assertFalse(lifecycle.resume());
+
+        // Paused and resumed before the thread noticed, it keeps running
+        lifecycle.pause();
+        assertFalse(lifecycle.resume());
+        assertTrue(lifecycle.isThreadRunning());
+    }
+
+    @Test
+    public void pausedThreadExits() throws InterruptedException {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        lifecycle.surfaceCreated();
+        assertTrue(lifecycle.awaitRunnable());
+
+        lifecycle.pause();
+        assertFalse(lifecycle.awaitRunnable());
+        assertFalse(lifecycle.isThreadRunning());
+        assertTrue(lifecycle.resume());
+    }
+
+    @Test
+    public void threadBlocksWithoutSurface() throws InterruptedException {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        final boolean[] runnable = new boolean[1];
+        Thread gameThread = new Thread(() -> {
+            try {
+                runnable[0] = lifecycle.awaitRunnable();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        gameThread.start();
+        awaitState(gameThread, Thread.State.WAITING);
+
+        lifecycle.surfaceCreated();
+        gameThread.join(5000);
+        assertFalse(gameThread.isAlive());
+        assertTrue(runnable[0]);
+    }
+
+    @Test
+    public void pauseWakesThreadWithoutSurface() throws InterruptedException {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        final boolean[] runnable = {true};
+        Thread gameThread = new Thread(() -> {
+            try {
+                runnable[0] = lifecycle.awaitRunnable();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        gameThread.start();
+        awaitState(gameThread, Thread.State.WAITING);
+
+        lifecycle.pause();
+        gameThread.join(5000);
+        assertFalse(gameThread.isAlive());
+        assertFalse(runnable[0]);
+        assertFalse(lifecycle.isThreadRunning());
+    }
+
+    @Test
+    public void noDrawingWithoutSurface() {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        assertFalse(lifecycle.beginDraw());
+        lifecycle.surfaceCreated();
+        assertTrue(lifecycle.beginDraw());
+        lifecycle.endDraw();
+        assertTrue(lifecycle.surfaceDestroyed(0));
+        assertFalse(lifecycle.beginDraw());
+    }
+
+    @Test
+    public void surfaceDestroyedWaitsForFrame() throws InterruptedException {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        lifecycle.surfaceCreated();
+        assertTrue(lifecycle.beginDraw());
+
+        Thread gameThread = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lifecycle.endDraw();
+        });
+        gameThread.start();
+        long start = System.nanoTime();
+        assertTrue(lifecycle.surfaceDestroyed(5000));
+        assertTrue(System.nanoTime() - start >= 15_000_000L);
+        gameThread.join(5000);
+    }
+
+    @Test
+    public void surfaceDestroyedWaitIsBounded() {
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(Clock.SYSTEM);
+        lifecycle.resume();
+        lifecycle.surfaceCreated();
+        assertTrue(lifecycle.beginDraw());
+
+        long start = System.nanoTime();
+        assertFalse(lifecycle.surfaceDestroyed(20));
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        assertFalse(lifecycle.hasSurface());
+    }
+
+    @Test
+    public void surfaceDestroyedTimesOutOnTheGivenClock() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        SurfaceLifecycle lifecycle = new SurfaceLifecycle(now::get);
+        lifecycle.resume();
+        lifecycle.surfaceCreated();
+        assertTrue(lifecycle.beginDraw());
+
+        final boolean[] released = {true};
+        Thread uiThread = new Thread(() -> released[0] = lifecycle.surfaceDestroyed(10));
+        uiThread.start();
+        // Far past the timeout in real time, but the clock has not moved
+        uiThread.join(100);
+        assertTrue(uiThread.isAlive());
+
+        now.addAndGet(10_000_000L);
+        uiThread.join(5000);
+        assertFalse(uiThread.isAlive());
+        assertFalse(released[0]);
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != state) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
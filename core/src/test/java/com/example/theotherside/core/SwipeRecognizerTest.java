@@ -0,0 +1,142 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the swipe recognizer, replaying recorded touch traces.
+ * Each trace in src/test/resources/swipe-traces holds one gesture as
+ * "DOWN|MOVE|UP x y eventTimeMillis" lines, the samples of a MotionEvent with
+ * its historical samples unrolled, and an "# expect" line with the lane changes
+ * it must commit, R for right and L for left.
+ */
+public class SwipeRecognizerTest {
+    private static final long MS = 1_000_000L;
+    // The game's thresholds on a 1080 px wide screen with four lanes
+    private static final float MIN_DISTANCE = 100;
+    private static final float LANE_WIDTH = 270;
+    private static final float MIN_VELOCITY = 100;
+
+    private final List<String> swipes = new ArrayList<>();
+    private final List<Long> swipeTimes = new ArrayList<>();
+    private final SwipeRecognizer recognizer = new SwipeRecognizer(MIN_DISTANCE, LANE_WIDTH, MIN_VELOCITY,
+            (direction, timeNanos) -> {
+                swipes.add(direction == InputRing.SWIPE_RIGHT ? "R" : "L");
+                swipeTimes.add(timeNanos);
+            });
+
+    @Test
+    public void rightFlick() throws IOException {
+        long upTime = replay("right-flick.trace");
+        // Committed while the finger was still moving, well before it lifted
+        assertTrue(upTime - swipeTimes.get(0) >= 50 * MS);
+    }
+
+    @Test
+    public void leftFlick() throws IOException {
+        long upTime = replay("left-flick.trace");
+        assertTrue(swipeTimes.get(0) < upTime);
+    }
+
+    @Test
+    public void longDragChainsLanes() throws IOException {
+        replay("long-drag-two-lanes.trace");
+        assertEquals(2, recognizer.getCommitCount());
+    }
+
+    @Test
+    public void swipeBackReverses() throws IOException {
+        replay("there-and-back.trace");
+    }
+
+    @Test
+    public void verticalScrollIsNoSwipe() throws IOException {
+        replay("vertical-scroll.trace");
+    }
+
+    @Test
+    public void slowDragIsNoSwipe() throws IOException {
+        replay("slow-drag.trace");
+    }
+
+    @Test
+    public void tapIsNoSwipe() throws IOException {
+        replay("tap.trace");
+    }
+
+    @Test
+    public void oneSampleCanCrossSeveralLanes() {
+        recognizer.down(0, 0, 0);
+        recognizer.move(20, 0, 10 * MS);
+        // 100 px for the first lane and 270 px for the second
+        recognizer.move(400, 0, 20 * MS);
+        assertEquals(List.of("R", "R"), swipes);
+        recognizer.move(640, 0, 30 * MS);
+        assertEquals(List.of("R", "R", "R"), swipes);
+    }
+
+    @Test
+    public void cancelledGestureCommitsNothingMore() {
+        recognizer.down(0, 0, 0);
+        recognizer.cancel();
+        recognizer.move(300, 0, 10 * MS);
+        recognizer.up(300, 0, 20 * MS);
+        assertTrue(swipes.isEmpty());
+        assertFalse(recognizer.isTracking());
+    }
+
+    /**
+     * Replays a trace into the recognizer and checks its expected lane changes.
+     *
+     * @return The time the finger lifted
+     */
+    private long replay(String name) throws IOException {
+        List<String> expected = null;
+        long upTime = -1;
+        InputStream stream = getClass().getResourceAsStream("/swipe-traces/" + name);
+        assertNotNull(name, stream);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("# expect ")) {
+                    String value = line.substring("# expect ".length()).trim();
+                    expected = value.equals("none") ? List.of() : List.of(value.split(" +"));
+                }
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(" +");
+                float x = Float.parseFloat(fields[1]);
+                float y = Float.parseFloat(fields[2]);
+                long time = Long.parseLong(fields[3]) * MS;
+                switch (fields[0]) {
+                    case "DOWN":
+                        recognizer.down(x, y, time);
+                        break;
+                    case "MOVE":
+                        recognizer.move(x, y, time);
+                        break;
+                    case "UP":
+                        recognizer.up(x, y, time);
+                        upTime = time;
+                        break;
+                    default:
+                        fail(name + ": unknown action " + fields[0]);
+                }
+            }
+        }
+        assertNotNull(name + " has no expect line", expected);
+        assertEquals(name, expected, swipes);
+        return upTime;
+    }
+}
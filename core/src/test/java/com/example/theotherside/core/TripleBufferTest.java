@@ -0,0 +1,82 @@
+package com.example.theotherside.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the lock-free snapshot hand-off.
+ */
+public class TripleBufferTest {
+    private static class Slot {
+        long value;
+        long check;
+    }
+
+    @Test
+    public void readerSeesNewestPublish() {
+        TripleBuffer<Slot> buffer = new TripleBuffer<>(new Slot(), new Slot(), new Slot());
+        assertFalse(buffer.update());
+
+        for (long i = 1; i <= 3; i++) {
+            buffer.getWriteBuffer().value = i;
+            buffer.publish();
+        }
+        assertTrue(buffer.update());
+        assertEquals(3, buffer.getReadBuffer().value);
+        assertFalse(buffer.update());
+        assertEquals(3, buffer.getReadBuffer().value);
+    }
+
+    @Test
+    public void writerNeverGetsTheReadBuffer() {
+        TripleBuffer<Slot> buffer = new TripleBuffer<>(new Slot(), new Slot(), new Slot());
+        for (int i = 0; i < 100; i++) {
+            buffer.publish();
+            if (i % 3 == 0) {
+                buffer.update();
+            }
+            assertNotSame(buffer.getReadBuffer(), buffer.getWriteBuffer());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buffersMustBeDistinct() {
+        Slot slot = new Slot();
+        new TripleBuffer<>(slot, new Slot(), slot);
+    }
+
+    @Test
+    public void concurrentReaderSeesWholeIncreasingBuffers() throws InterruptedException {
+        TripleBuffer<Slot> buffer = new TripleBuffer<>(new Slot(), new Slot(), new Slot());
+        final long publishes = 200_000;
+        Thread writer = new Thread(() -> {
+            Random random = new Random(1);
+            for (long i = 1; i <= publishes; i++) {
+                Slot slot = buffer.getWriteBuffer();
+                slot.value = i;
+                // Some busy work between the two fields widens any race
+                for (int spin = random.nextInt(8); spin > 0; spin--) {
+                    Thread.onSpinWait();
+                }
+                slot.check = -i;
+                buffer.publish();
+            }
+        });
+        writer.start();
+
+        long last = 0;
+        while (last < publishes) {
+            if (buffer.update()) {
+                Slot slot = buffer.getReadBuffer();
+                assertEquals(-slot.value, slot.check);
+                assertTrue(slot.value > last);
+                last = slot.value;
+            }
+        }
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.theotherside.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for copying a World into a drawable snapshot.
+ */
+public class WorldSnapshotTest {
+    private ManualClock clock;
+    private World world;
+
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        world = new World(1080, 1920, 4, clock, Rng.of(new Random(42)));
+        world.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, 150, 200);
+        world.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        world.reset();
+    }
+
+    @Test
+    public void capturesEntitiesInDrawOrder() {
+        world.spawnCoin(0);
+        world.spawnCart(1, Entity.TYPE_CART_HAY);
+        world.spawnCoin(3);
+
+        WorldSnapshot snapshot = new WorldSnapshot(world);
+        snapshot.capture(world, 5);
+        assertEquals(4, snapshot.size());
+        assertEquals(Entity.TYPE_COIN, snapshot.getType(0));
+        assertEquals(Entity.TYPE_COIN, snapshot.getType(1));
+        assertEquals(Entity.TYPE_CART_HAY, snapshot.getType(2));
+        assertEquals(Entity.TYPE_CHICKEN, snapshot.getType(3));
+
+        Entity chicken = world.getChicken();
+        assertEquals(chicken.x, snapshot.renderX(3, 1f), 0f);
+        assertEquals(chicken.y, snapshot.renderY(3, 1f), 0f);
+        assertEquals(5, snapshot.time);
+        assertFalse(snapshot.isGameOver);
+    }
+
+    @Test
+    public void interpolatesBetweenSteps() {
+        world.spawnCart(0, Entity.TYPE_CART);
+        clock.advance(World.STEP_NANOS);
+        world.step();
+
+        WorldSnapshot snapshot = new WorldSnapshot(world);
+        snapshot.capture(world, 1000);
+        float alpha = snapshot.alphaAt(1000 + World.STEP_NANOS / 2);
+        assertEquals(0.5f, alpha, 0.001f);
+
+        // Carts follow the coins in the snapshot, lane by lane
+        EntityStore carts = world.getCarts();
+        int k = world.getCoins().size();
+        for (int lane = 0; lane < carts.getLaneCount(); lane++) {
+            for (int i = carts.first(lane); i < carts.end(lane); i++, k++) {
+                assertEquals(carts.renderY(i, 0f), snapshot.renderY(k, 0f), 0f);
+                assertEquals(carts.renderY(i, alpha), snapshot.renderY(k, alpha), 0.001f);
+                assertTrue(snapshot.renderY(k, 1f) > snapshot.renderY(k, 0f));
+            }
+        }
+        assertEquals(0f, snapshot.alphaAt(0), 0f);
+        assertEquals(1f, snapshot.alphaAt(1000 + 10 * World.STEP_NANOS), 0f);
+    }
+
+    @Test
+    public void roadScrollsWithTheCoins() {
+        world.spawnCoin(0);
+        for (int i = 0; i < 10; i++) {
+            clock.advance(World.STEP_NANOS);
+            world.step();
+        }
+
+        WorldSnapshot snapshot = new WorldSnapshot(world);
+        snapshot.capture(world, 0);
+        // Coins lie still on the road, both move down by the same amount per step
+        double roadStep = snapshot.renderRoadScroll(1f) - snapshot.renderRoadScroll(0f);
+        float coinStep = snapshot.renderY(0, 1f) - snapshot.renderY(0, 0f);
+        assertEquals(coinStep, roadStep, 1e-4);
+        assertEquals(10 * roadStep, snapshot.renderRoadScroll(1f), 1e-4);
+        assertEquals(snapshot.renderRoadScroll(0f) + roadStep / 2, snapshot.renderRoadScroll(0.5f), 1e-4);
+    }
+
+    @Test
+    public void growsWithTheWorld() {
+        WorldSnapshot snapshot = new WorldSnapshot(1);
+        for (int i = 0; i < 40; i++) {
+            world.spawnCoin(i % 4);
+        }
+        snapshot.capture(world, 0);
+        assertEquals(world.getCoins().size() + world.getCarts().size() + 1, snapshot.size());
+    }
+
+    @Test
+    public void idleWhenPausedCountingDownOrOver() {
+        WorldSnapshot snapshot = new WorldSnapshot(world);
+        snapshot.capture(world, 0);
+        assertFalse(snapshot.isIdle());
+        snapshot.countdownValue = 0;
+        assertTrue(snapshot.isIdle());
+        snapshot.countdownValue = WorldSnapshot.NO_COUNTDOWN;
+        snapshot.isPaused = true;
+        assertTrue(snapshot.isIdle());
+    }
+}
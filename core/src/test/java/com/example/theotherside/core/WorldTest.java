@@ -0,0 +1,143 @@
+package com.example.theotherside.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the headless World, run on virtual time.
+ */
+public class WorldTest {
+    private ManualClock clock;
+    private World world;
+
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        world = new World(1080, 1920, 4, clock, Rng.of(new Random(42)));
+        world.setSpriteSize(Entity.TYPE_CART, 150, 200);
+        world.setSpriteSize(Entity.TYPE_CART_HAY, 150, 200);
+        world.setSpriteSize(Entity.TYPE_COIN, 80, 80);
+        world.setSpriteSize(Entity.TYPE_CHICKEN, 120, 120);
+        world.reset();
+    }
+
+    private void runSeconds(double seconds) {
+        long steps = (long) (seconds * 1_000_000_000L / World.STEP_NANOS);
+        for (long i = 0; i < steps && !world.isGameOver(); i++) {
+            clock.advance(World.STEP_NANOS);
+            world.step();
+        }
+    }
+
+    @Test
+    public void chickenStartsInMiddleLane() {
+        Entity chicken = world.getChicken();
+        assertEquals(2, world.getLaneFromX(chicken.x, chicken.width));
+        assertTrue(chicken.y + chicken.height < 1920);
+    }
+
+    @Test
+    public void chickenStaysInsideLanes() {
+        assertTrue(world.moveLeft());
+        assertTrue(world.moveLeft());
+        assertFalse(world.moveLeft());
+        assertEquals(0, world.getChicken().lane);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(world.moveRight());
+        }
+        assertFalse(world.moveRight());
+        assertEquals(3, world.getChicken().lane);
+    }
+
+    @Test
+    public void distanceFollowsVirtualTime() {
+        runSeconds(1);
+        // 0.2 distance units per millisecond
+        assertEquals(200f, world.getDistanceTraveled(), 1f);
+    }
+
+    @Test
+    public void cartsSpawnAndMoveDown() {
+        runSeconds(1.1);
+        EntityStore carts = world.getCarts();
+        assertFalse(carts.isEmpty());
+        int lane = 0;
+        while (carts.size(lane) == 0) {
+            lane++;
+        }
+        // Newer carts spawn above, the bottommost cart of the lane stays the same
+        float y = carts.getY(carts.end(lane) - 1);
+        clock.advance(World.STEP_NANOS);
+        world.step();
+        float movedY = carts.getY(carts.end(lane) - 1);
+        // Base speed of 5 per 60 Hz frame, slightly ramped up after a second
+        assertTrue(movedY >= y + 5f * World.STEP_SCALE);
+        assertTrue(movedY < y + 6f * World.STEP_SCALE);
+    }
+
+    @Test
+    public void idleChickenIsEventuallyHit() {
+        final int[] crashes = new int[1];
+        world.setListener(new World.Listener() {
+            @Override
+            public void onCrash(int score, int coinsCollected) {
+                crashes[0]++;
+            }
+
+            @Override
+            public void onCoinCollected(int coinsCollected) {
+            }
+
+            @Override
+            public void onSpeedUp() {
+            }
+        });
+        // The force spawn timeout guarantees a cart in the chicken's lane
+        runSeconds(30);
+        assertTrue(world.isGameOver());
+        assertEquals(1, crashes[0]);
+        assertFalse(world.moveLeft());
+    }
+
+    @Test
+    public void cartInChickenLaneCrashes() {
+        Entity chicken = world.getChicken();
+        world.getCarts().y[world.spawnCart(chicken.lane, 0)] = chicken.y;
+        world.moveCarts();
+        assertTrue(world.isGameOver());
+    }
+
+    @Test
+    public void cartInOtherLaneDoesNotCrash() {
+        Entity chicken = world.getChicken();
+        world.getCarts().y[world.spawnCart(chicken.lane - 1, 0)] = chicken.y;
+        world.moveCarts();
+        assertFalse(world.isGameOver());
+    }
+
+    @Test
+    public void coinTouchingChickenIsCollected() {
+        Entity chicken = world.getChicken();
+        EntityStore coins = world.getCoins();
+        coins.y[world.spawnCoin(chicken.lane)] = chicken.y;
+        coins.y[world.spawnCoin(chicken.lane + 1)] = chicken.y;
+        world.moveCoins();
+        assertEquals(1, world.getCoinsCollected());
+        assertEquals(1, coins.size());
+        assertEquals(0, coins.size(chicken.lane));
+    }
+
+    @Test
+    public void resetClearsEntities() {
+        runSeconds(3);
+        world.reset();
+        assertTrue(world.getCarts().isEmpty());
+        assertTrue(world.getCoins().isEmpty());
+        assertFalse(world.isGameOver());
+        assertEquals(0, world.getCoinsCollected());
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "TheOtherSide"
 include(":app")
+include(":core")